@@ -30,6 +30,10 @@ android {
         sourceCompatibility = JavaVersion.VERSION_11
         targetCompatibility = JavaVersion.VERSION_11
     }
+    testOptions {
+        // Plain JVM tests of repository logic call android.util.Log
+        unitTests.isReturnDefaultValues = true
+    }
 }
 
 dependencies {
@@ -1,5 +1,7 @@
 package com.example.donationapp.adapter;
 
+import android.os.Handler;
+import android.os.Looper;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -8,42 +10,89 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.text.PrecomputedTextCompat;
+import androidx.core.widget.TextViewCompat;
+import androidx.recyclerview.widget.AdapterListUpdateCallback;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.donationapp.R;
 import com.example.donationapp.model.Campaign;
+import com.example.donationapp.model.Money;
 import com.squareup.picasso.Picasso;
 
-import java.text.NumberFormat;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Adapter for displaying campaigns in RecyclerView
+ * Builds display rows and diffs new lists on a background thread, and rebinds only the rows that changed
  */
 public class CampaignAdapter extends RecyclerView.Adapter<CampaignAdapter.CampaignViewHolder> {
-    private List<Campaign> campaigns;
+    // Payload sent when only the amounts of a campaign changed
+    static final String PAYLOAD_AMOUNTS = "payload_amounts";
+
+    // Builds rows and runs the diffs; the only thread that touches currencyFormat
+    private static final ExecutorService ROW_EXECUTOR = Executors.newSingleThreadExecutor();
+
+    static final DiffUtil.ItemCallback<CampaignRow> DIFF_CALLBACK = new DiffUtil.ItemCallback<CampaignRow>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull CampaignRow oldItem, @NonNull CampaignRow newItem) {
+            return Objects.equals(oldItem.campaign.getId(), newItem.campaign.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull CampaignRow oldItem, @NonNull CampaignRow newItem) {
+            return sameDetails(oldItem.campaign, newItem.campaign) && sameAmounts(oldItem.campaign, newItem.campaign);
+        }
+
+        @Nullable
+        @Override
+        public Object getChangePayload(@NonNull CampaignRow oldItem, @NonNull CampaignRow newItem) {
+            // Amount-only updates (e.g. a new donation) skip the image and description
+            if (sameDetails(oldItem.campaign, newItem.campaign)) {
+                return PAYLOAD_AMOUNTS;
+            }
+            return null;
+        }
+    };
+
+    private final AsyncListDiffer<CampaignRow> differ = new AsyncListDiffer<>(
+            new AdapterListUpdateCallback(this),
+            new AsyncDifferConfig.Builder<>(DIFF_CALLBACK).setBackgroundThreadExecutor(ROW_EXECUTOR).build());
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final StableIds stableIds = new StableIds();
     private OnCampaignClickListener clickListener;
     private OnCampaignLongClickListener longClickListener;
     private OnDonateClickListener donateClickListener;
-    private NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(Locale.US);
+    private final Money.Formatter currencyFormat = new Money.Formatter();
+    // Text metrics of the description view, captured from the first view holder
+    private volatile PrecomputedTextCompat.Params descriptionParams;
+    private int submitGeneration;
 
     public CampaignAdapter(OnCampaignClickListener clickListener, 
                           OnCampaignLongClickListener longClickListener) {
-        this.campaigns = new ArrayList<>();
         this.clickListener = clickListener;
         this.longClickListener = longClickListener;
         this.donateClickListener = null;
+        setHasStableIds(true);
     }
 
     public CampaignAdapter(OnCampaignClickListener clickListener, 
                           OnCampaignLongClickListener longClickListener,
                           OnDonateClickListener donateClickListener) {
-        this.campaigns = new ArrayList<>();
         this.clickListener = clickListener;
         this.longClickListener = longClickListener;
         this.donateClickListener = donateClickListener;
+        setHasStableIds(true);
     }
 
     public interface OnCampaignClickListener {
@@ -63,23 +112,110 @@ public class CampaignAdapter extends RecyclerView.Adapter<CampaignAdapter.Campai
     public CampaignViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View view = LayoutInflater.from(parent.getContext())
                 .inflate(R.layout.item_campaign, parent, false);
-        return new CampaignViewHolder(view);
+        CampaignViewHolder holder = new CampaignViewHolder(view);
+        if (descriptionParams == null) {
+            descriptionParams = TextViewCompat.getTextMetricsParams(holder.descriptionText);
+        }
+        return holder;
     }
 
     @Override
     public void onBindViewHolder(@NonNull CampaignViewHolder holder, int position) {
-        Campaign campaign = campaigns.get(position);
-        holder.bind(campaign);
+        holder.bind(getItem(position));
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull CampaignViewHolder holder, int position,
+                                 @NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+        for (Object payload : payloads) {
+            if (!PAYLOAD_AMOUNTS.equals(payload)) {
+                onBindViewHolder(holder, position);
+                return;
+            }
+        }
+        holder.bindAmounts(getItem(position));
     }
 
     @Override
     public int getItemCount() {
-        return campaigns.size();
+        return differ.getCurrentList().size();
+    }
+
+    @Override
+    public long getItemId(int position) {
+        String id = getItem(position).campaign.getId();
+        if (id == null) {
+            return RecyclerView.NO_ID;
+        }
+        return stableIds.idFor(id);
     }
 
     public void setCampaigns(List<Campaign> campaigns) {
-        this.campaigns = campaigns != null ? campaigns : new ArrayList<>();
-        notifyDataSetChanged();
+        setCampaigns(campaigns, null);
+    }
+
+    /**
+     * Build rows for campaigns in the background, then diff them in
+     * onCommitted runs once the list is applied, unless a newer list superseded it
+     */
+    public void setCampaigns(List<Campaign> campaigns, @Nullable Runnable onCommitted) {
+        List<Campaign> copy = campaigns != null ? new ArrayList<>(campaigns) : null;
+        int generation = ++submitGeneration;
+        ROW_EXECUTOR.execute(() -> {
+            List<CampaignRow> rows = copy != null ? buildRows(copy) : null;
+            Set<String> ids = new HashSet<>();
+            if (copy != null) {
+                for (Campaign campaign : copy) {
+                    ids.add(campaign.getId());
+                }
+            }
+            mainHandler.post(() -> {
+                if (generation == submitGeneration) {
+                    differ.submitList(rows, () -> {
+                        stableIds.retainOnly(ids);
+                        if (onCommitted != null) {
+                            onCommitted.run();
+                        }
+                    });
+                }
+            });
+        });
+    }
+
+    private List<CampaignRow> buildRows(List<Campaign> campaigns) {
+        PrecomputedTextCompat.Params params = descriptionParams;
+        List<CampaignRow> rows = new ArrayList<>(campaigns.size());
+        for (Campaign campaign : campaigns) {
+            String description = campaign.getDescription();
+            if (params != null && description != null && !description.isEmpty()) {
+                // Measure the description text here instead of during bind
+                rows.add(CampaignRow.from(campaign, PrecomputedTextCompat.create(description, params),
+                        currencyFormat));
+            } else {
+                rows.add(CampaignRow.from(campaign, currencyFormat));
+            }
+        }
+        return rows;
+    }
+
+    private CampaignRow getItem(int position) {
+        return differ.getCurrentList().get(position);
+    }
+
+    private static boolean sameDetails(Campaign oldItem, Campaign newItem) {
+        return Objects.equals(oldItem.getTitle(), newItem.getTitle())
+                && Objects.equals(oldItem.getDescription(), newItem.getDescription())
+                && Objects.equals(oldItem.getImageUrl(), newItem.getImageUrl());
+    }
+
+    private static boolean sameAmounts(Campaign oldItem, Campaign newItem) {
+        return oldItem.getGoalCents() == newItem.getGoalCents()
+                && oldItem.getCollectedCents() == newItem.getCollectedCents()
+                && oldItem.getShardCount() == newItem.getShardCount();
     }
 
     class CampaignViewHolder extends RecyclerView.ViewHolder {
@@ -105,7 +241,7 @@ public class CampaignAdapter extends RecyclerView.Adapter<CampaignAdapter.Campai
             itemView.setOnClickListener(v -> {
                 int position = getAdapterPosition();
                 if (position != RecyclerView.NO_POSITION && clickListener != null) {
-                    clickListener.onCampaignClick(campaigns.get(position));
+                    clickListener.onCampaignClick(getItem(position).campaign);
                 }
             });
 
@@ -113,7 +249,7 @@ public class CampaignAdapter extends RecyclerView.Adapter<CampaignAdapter.Campai
             itemView.setOnLongClickListener(v -> {
                 int position = getAdapterPosition();
                 if (position != RecyclerView.NO_POSITION && longClickListener != null) {
-                    longClickListener.onCampaignLongClick(campaigns.get(position));
+                    longClickListener.onCampaignLongClick(getItem(position).campaign);
                     return true;
                 }
                 return false;
@@ -123,7 +259,7 @@ public class CampaignAdapter extends RecyclerView.Adapter<CampaignAdapter.Campai
             donateButton.setOnClickListener(v -> {
                 int position = getAdapterPosition();
                 if (position != RecyclerView.NO_POSITION) {
-                    Campaign campaign = campaigns.get(position);
+                    Campaign campaign = getItem(position).campaign;
                     // Use donation click listener if available, otherwise fall back to campaign click
                     if (donateClickListener != null) {
                         donateClickListener.onDonateClick(campaign);
@@ -135,29 +271,20 @@ public class CampaignAdapter extends RecyclerView.Adapter<CampaignAdapter.Campai
             });
         }
 
-        public void bind(Campaign campaign) {
-            if (campaign == null) {
-                return;
+        public void bind(CampaignRow row) {
+            titleText.setText(row.title);
+            if (row.description instanceof PrecomputedTextCompat) {
+                TextViewCompat.setPrecomputedText(descriptionText, (PrecomputedTextCompat) row.description);
+            } else {
+                descriptionText.setText(row.description);
             }
 
-            // Set text fields with null safety
-            String title = campaign.getTitle();
-            titleText.setText(title != null ? title : "");
-
-            String description = campaign.getDescription();
-            descriptionText.setText(description != null ? description : "");
-
-            goalAmountText.setText("Goal: " + currencyFormat.format(campaign.getGoalAmount()));
-            collectedAmountText.setText("Collected: " + currencyFormat.format(campaign.getCollectedAmount()));
-            
-            int progress = campaign.getProgressPercentage();
-            progressText.setText(progress + "%");
+            bindAmounts(row);
 
             // Load image with error handling
-            String imageUrl = campaign.getImageUrl();
-            if (imageUrl != null && !imageUrl.isEmpty()) {
+            if (row.imageUrl != null) {
                 Picasso.get()
-                        .load(imageUrl)
+                        .load(row.imageUrl)
                         .placeholder(R.drawable.ic_launcher_background)
                         .error(R.drawable.ic_launcher_background)
                         .into(campaignImage);
@@ -165,6 +292,15 @@ public class CampaignAdapter extends RecyclerView.Adapter<CampaignAdapter.Campai
                 campaignImage.setImageResource(R.drawable.ic_launcher_background);
             }
         }
+
+        /**
+         * Update only the amount and progress text
+         */
+        public void bindAmounts(CampaignRow row) {
+            goalAmountText.setText(row.goalText);
+            collectedAmountText.setText(row.collectedText);
+            progressText.setText(row.progressText);
+        }
     }
 }
 
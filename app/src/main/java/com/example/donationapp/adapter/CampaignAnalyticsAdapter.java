@@ -0,0 +1,100 @@
+package com.example.donationapp.adapter;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.donationapp.R;
+import com.example.donationapp.model.Campaign;
+import com.example.donationapp.model.DonationTotals;
+import com.example.donationapp.model.Money;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Adapter for campaign rows on the admin analytics screen
+ * Totals arrive one campaign at a time; only the rows whose totals changed are rebound
+ */
+public class CampaignAnalyticsAdapter extends RecyclerView.Adapter<CampaignAnalyticsAdapter.AnalyticsViewHolder> {
+    private final Money.Formatter currencyFormat = new Money.Formatter();
+    private List<Campaign> campaigns = new ArrayList<>();
+    private Map<String, DonationTotals> totals = new HashMap<>();
+
+    @NonNull
+    @Override
+    public AnalyticsViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext())
+                .inflate(R.layout.item_campaign_analytics, parent, false);
+        return new AnalyticsViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull AnalyticsViewHolder holder, int position) {
+        Campaign campaign = campaigns.get(position);
+        holder.bind(campaign, totals.get(campaign.getId()));
+    }
+
+    @Override
+    public int getItemCount() {
+        return campaigns.size();
+    }
+
+    /**
+     * Campaigns are only ever appended (paging), so new rows are inserted at the end
+     */
+    public void setCampaigns(List<Campaign> campaigns) {
+        int oldSize = this.campaigns.size();
+        this.campaigns = new ArrayList<>(campaigns);
+        if (campaigns.size() >= oldSize) {
+            notifyItemRangeInserted(oldSize, campaigns.size() - oldSize);
+        } else {
+            notifyDataSetChanged();
+        }
+    }
+
+    public void setTotals(Map<String, DonationTotals> totals) {
+        Map<String, DonationTotals> previous = this.totals;
+        this.totals = totals;
+        for (int i = 0; i < campaigns.size(); i++) {
+            String id = campaigns.get(i).getId();
+            if (previous.get(id) != totals.get(id)) {
+                notifyItemChanged(i);
+            }
+        }
+    }
+
+    class AnalyticsViewHolder extends RecyclerView.ViewHolder {
+        private final TextView titleText;
+        private final TextView amountText;
+        private final TextView countText;
+
+        AnalyticsViewHolder(@NonNull View itemView) {
+            super(itemView);
+            titleText = itemView.findViewById(R.id.title_text);
+            amountText = itemView.findViewById(R.id.amount_text);
+            countText = itemView.findViewById(R.id.count_text);
+        }
+
+        void bind(Campaign campaign, DonationTotals campaignTotals) {
+            titleText.setText(campaign.getTitle());
+            if (campaignTotals == null) {
+                amountText.setText(R.string.analytics_loading);
+                countText.setText(null);
+                return;
+            }
+            amountText.setText(currencyFormat.format(campaignTotals.getAmountCents()));
+            String count = itemView.getContext().getString(R.string.analytics_donation_count,
+                    campaignTotals.getCount());
+            countText.setText(campaignTotals.isAggregated()
+                    ? count
+                    : count + " " + itemView.getContext().getString(R.string.analytics_estimated));
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.donationapp.adapter;
+
+import com.example.donationapp.model.Campaign;
+import com.example.donationapp.model.Money;
+
+/**
+ * Immutable display model for one campaign row
+ * Built off the UI thread so binding only assigns precomputed values
+ */
+final class CampaignRow {
+    // Feed totals come from campaign_summaries, which only take in a sharded campaign's counter
+    // shards when an admin app rolls them up; the detail screen adds the shards live
+    private static final String SHARDED_SUFFIX = " (updated periodically)";
+
+    final Campaign campaign;
+    final String title;
+    final CharSequence description;
+    final String goalText;
+    final String collectedText;
+    final String progressText;
+    final String imageUrl; // null when the campaign has no image
+
+    private CampaignRow(Campaign campaign, CharSequence description, Money.Formatter currencyFormat) {
+        this.campaign = campaign;
+        this.title = campaign.getTitle() != null ? campaign.getTitle() : "";
+        this.description = description;
+        this.goalText = currencyFormat.format("Goal: ", campaign.getGoalCents());
+        this.collectedText = currencyFormat.format("Collected: ", campaign.getCollectedCents())
+                + (campaign.getShardCount() > 1 ? SHARDED_SUFFIX : "");
+        this.progressText = campaign.getProgressPercentage() + "%";
+        String url = campaign.getImageUrl();
+        this.imageUrl = url != null && !url.isEmpty() ? url : null;
+    }
+
+    /**
+     * Build a row; description may be precomputed text for the row's TextView
+     */
+    static CampaignRow from(Campaign campaign, CharSequence description, Money.Formatter currencyFormat) {
+        return new CampaignRow(campaign, description, currencyFormat);
+    }
+
+    /**
+     * Build a row with the plain description text
+     */
+    static CampaignRow from(Campaign campaign, Money.Formatter currencyFormat) {
+        String description = campaign.getDescription();
+        return new CampaignRow(campaign, description != null ? description : "", currencyFormat);
+    }
+}
@@ -1,34 +1,73 @@
 package com.example.donationapp.adapter;
 
+import android.os.Handler;
+import android.os.Looper;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AdapterListUpdateCallback;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.donationapp.R;
 import com.example.donationapp.model.Donation;
-import com.google.firebase.Timestamp;
+import com.example.donationapp.model.Money;
+import com.example.donationapp.repository.CampaignTitleResolver;
 
-import java.text.NumberFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Adapter for displaying user donations in RecyclerView
+ * Builds display rows and diffs new lists on a background thread, and rebinds only the rows that changed
+ * Campaign titles are resolved in batches; rows show the campaign id until their title arrives
  */
 public class DonationAdapter extends RecyclerView.Adapter<DonationAdapter.DonationViewHolder> {
+    // Builds rows and runs the diffs; the only thread that touches the formatters
+    private static final ExecutorService ROW_EXECUTOR = Executors.newSingleThreadExecutor();
+
+    static final DiffUtil.ItemCallback<DonationRow> DIFF_CALLBACK = new DiffUtil.ItemCallback<DonationRow>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull DonationRow oldItem, @NonNull DonationRow newItem) {
+            return Objects.equals(oldItem.donation.getId(), newItem.donation.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull DonationRow oldItem, @NonNull DonationRow newItem) {
+            return oldItem.amountText.equals(newItem.amountText)
+                    && oldItem.dateText.equals(newItem.dateText)
+                    && oldItem.campaignText.equals(newItem.campaignText);
+        }
+    };
+
+    private final AsyncListDiffer<DonationRow> differ = new AsyncListDiffer<>(
+            new AdapterListUpdateCallback(this),
+            new AsyncDifferConfig.Builder<>(DIFF_CALLBACK).setBackgroundThreadExecutor(ROW_EXECUTOR).build());
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final StableIds stableIds = new StableIds();
+    private final CampaignTitleResolver titleResolver = CampaignTitleResolver.getInstance();
+    private final Runnable onTitlesResolved = () -> submitRows(false);
     private List<Donation> donations;
-    private NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(Locale.US);
-    private SimpleDateFormat dateFormat = new SimpleDateFormat("MMM dd, yyyy", Locale.US);
+    private final Money.Formatter currencyFormat = new Money.Formatter();
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat("MMM dd, yyyy", Locale.US);
+    private int submitGeneration;
 
     public DonationAdapter() {
-        this.donations = new ArrayList<>();
+        setHasStableIds(true);
     }
 
     @NonNull
@@ -41,18 +80,66 @@ public class DonationAdapter extends RecyclerView.Adapter<DonationAdapter.Donati
 
     @Override
     public void onBindViewHolder(@NonNull DonationViewHolder holder, int position) {
-        Donation donation = donations.get(position);
-        holder.bind(donation);
+        holder.bind(differ.getCurrentList().get(position));
     }
 
     @Override
     public int getItemCount() {
-        return donations.size();
+        return differ.getCurrentList().size();
+    }
+
+    @Override
+    public long getItemId(int position) {
+        String id = differ.getCurrentList().get(position).donation.getId();
+        if (id == null) {
+            return RecyclerView.NO_ID;
+        }
+        return stableIds.idFor(id);
     }
 
+    /**
+     * Build rows for donations in the background, then diff them in
+     * Titles not known yet are fetched for the whole list at once and patched in as they arrive
+     */
     public void setDonations(List<Donation> donations) {
-        this.donations = donations != null ? donations : new ArrayList<>();
-        notifyDataSetChanged();
+        this.donations = donations != null ? new ArrayList<>(donations) : null;
+        submitRows(true);
+    }
+
+    private void submitRows(boolean resolveTitles) {
+        List<Donation> copy = donations;
+        Set<String> campaignIds = new LinkedHashSet<>();
+        if (copy != null) {
+            for (Donation donation : copy) {
+                if (donation.getCampaignId() != null) {
+                    campaignIds.add(donation.getCampaignId());
+                }
+            }
+        }
+        Map<String, String> titles = titleResolver.getKnownTitles(campaignIds);
+        if (resolveTitles && titles.size() < campaignIds.size()) {
+            titleResolver.resolve(campaignIds, onTitlesResolved);
+        }
+
+        int generation = ++submitGeneration;
+        ROW_EXECUTOR.execute(() -> {
+            List<DonationRow> rows = null;
+            Set<String> ids = new HashSet<>();
+            if (copy != null) {
+                rows = new ArrayList<>(copy.size());
+                for (Donation donation : copy) {
+                    rows.add(DonationRow.from(donation, titles.get(donation.getCampaignId()),
+                            currencyFormat, dateFormat));
+                    ids.add(donation.getId());
+                }
+            }
+            List<DonationRow> result = rows;
+            mainHandler.post(() -> {
+                if (generation == submitGeneration) {
+                    differ.submitList(result, () -> stableIds.retainOnly(ids));
+                }
+            });
+        });
     }
 
     class DonationViewHolder extends RecyclerView.ViewHolder {
@@ -67,18 +154,10 @@ public class DonationAdapter extends RecyclerView.Adapter<DonationAdapter.Donati
             campaignIdText = itemView.findViewById(R.id.campaign_id_text);
         }
 
-        public void bind(Donation donation) {
-            amountText.setText(currencyFormat.format(donation.getAmount()));
-            
-            if (donation.getDate() != null) {
-                Timestamp timestamp = donation.getDate();
-                Date date = timestamp.toDate();
-                dateText.setText(dateFormat.format(date));
-            } else {
-                dateText.setText("Date not available");
-            }
-            
-            campaignIdText.setText("Campaign ID: " + donation.getCampaignId());
+        public void bind(DonationRow row) {
+            amountText.setText(row.amountText);
+            dateText.setText(row.dateText);
+            campaignIdText.setText(row.campaignText);
         }
     }
 }
@@ -0,0 +1,41 @@
+package com.example.donationapp.adapter;
+
+import com.example.donationapp.model.Donation;
+import com.example.donationapp.model.Money;
+
+import java.text.DateFormat;
+
+/**
+ * Immutable display model for one donation row
+ * Built off the UI thread so binding only assigns precomputed values
+ */
+final class DonationRow {
+    final Donation donation;
+    final String amountText;
+    final String dateText;
+    final String campaignText;
+
+    private DonationRow(Donation donation, String campaignTitle, Money.Formatter currencyFormat,
+                        DateFormat dateFormat) {
+        this.donation = donation;
+        this.amountText = currencyFormat.format(donation.getAmountCents());
+        this.dateText = donation.getDate() != null
+                ? dateFormat.format(donation.getDate().toDate())
+                : "Date not available";
+        this.campaignText = campaignTitle != null
+                ? campaignTitle
+                : "Campaign ID: " + donation.getCampaignId();
+    }
+
+    static DonationRow from(Donation donation, Money.Formatter currencyFormat, DateFormat dateFormat) {
+        return new DonationRow(donation, null, currencyFormat, dateFormat);
+    }
+
+    /**
+     * Row showing the campaign title, or the campaign id while the title is unknown
+     */
+    static DonationRow from(Donation donation, String campaignTitle, Money.Formatter currencyFormat,
+                            DateFormat dateFormat) {
+        return new DonationRow(donation, campaignTitle, currencyFormat, dateFormat);
+    }
+}
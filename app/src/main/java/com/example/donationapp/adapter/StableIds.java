@@ -0,0 +1,35 @@
+package com.example.donationapp.adapter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maps document ids to small unique longs so hash collisions can't confuse RecyclerView
+ * Ids of documents that left the list are released on each submit; a document that comes
+ * back gets a new id. Main thread only
+ */
+final class StableIds {
+    private final Map<String, Long> ids = new HashMap<>();
+    private long nextId;
+
+    long idFor(String documentId) {
+        Long id = ids.get(documentId);
+        if (id == null) {
+            id = nextId++;
+            ids.put(documentId, id);
+        }
+        return id;
+    }
+
+    /**
+     * Forget every document not in documentIds, the ids of the list just committed
+     */
+    void retainOnly(Set<String> documentIds) {
+        ids.keySet().retainAll(documentIds);
+    }
+
+    int size() {
+        return ids.size();
+    }
+}
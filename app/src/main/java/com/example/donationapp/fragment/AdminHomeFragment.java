@@ -2,6 +2,7 @@ package com.example.donationapp.fragment;
 
 import android.animation.ObjectAnimator;
 import android.content.Intent;
+import android.net.Uri;
 import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -11,6 +12,7 @@ import android.widget.TextView;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.widget.SearchView;
 import androidx.fragment.app.Fragment;
 import androidx.lifecycle.ViewModelProvider;
@@ -21,19 +23,27 @@ import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 import com.example.donationapp.R;
 import com.example.donationapp.adapter.CampaignAdapter;
 import com.example.donationapp.model.Campaign;
+import com.example.donationapp.repository.DonationExportRepository;
 import com.example.donationapp.util.DialogHelper;
+import com.example.donationapp.util.FirebaseHelper;
+import com.example.donationapp.util.ImageHelper;
 import com.example.donationapp.util.WindowInsetsHelper;
 import com.example.donationapp.view.AddCampaignActivity;
+import com.example.donationapp.view.AdminAnalyticsActivity;
 import com.example.donationapp.view.CampaignDetailActivity;
 import com.example.donationapp.view.EditCampaignActivity;
 import com.example.donationapp.viewmodel.CampaignViewModel;
+import com.google.android.material.appbar.MaterialToolbar;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 import com.google.android.material.progressindicator.CircularProgressIndicator;
 
+import java.io.File;
+
 /**
  * Admin Home Fragment - Displays campaigns with admin controls
  */
 public class AdminHomeFragment extends Fragment {
+    private static final int LOAD_MORE_THRESHOLD = 5;
     private RecyclerView campaignsRecyclerView;
     private CampaignAdapter campaignAdapter;
     private SwipeRefreshLayout swipeRefreshLayout;
@@ -44,6 +54,28 @@ public class AdminHomeFragment extends Fragment {
     private CircularProgressIndicator searchProgressIndicator;
     private CampaignViewModel campaignViewModel;
     private ObjectAnimator searchProgressAnimator;
+    private AlertDialog exportDialog;
+    private AlertDialog deleteDialog;
+    private final DonationExportRepository.Listener exportListener = new DonationExportRepository.Listener() {
+        @Override
+        public void onProgress(long rowsWritten) {
+            showExportProgress(getString(R.string.export_donations_progress, rowsWritten));
+        }
+
+        @Override
+        public void onComplete(File file, long rowsWritten) {
+            dismissExportDialog();
+            shareExport(file, rowsWritten);
+        }
+
+        @Override
+        public void onError(Exception e) {
+            dismissExportDialog();
+            DialogHelper.showErrorDialog(getContext(), getString(R.string.export_donations_title),
+                    FirebaseHelper.getInstance().getFirestoreErrorMessage(e) + "\n\n"
+                            + getString(R.string.export_donations_failed));
+        }
+    };
 
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container,
@@ -98,6 +130,7 @@ public class AdminHomeFragment extends Fragment {
 
             campaignsRecyclerView.setLayoutManager(new LinearLayoutManager(context));
             campaignsRecyclerView.setAdapter(campaignAdapter);
+            setupLoadMore();
 
             // Initialize ViewModel
             campaignViewModel = new ViewModelProvider(this).get(CampaignViewModel.class);
@@ -123,6 +156,22 @@ public class AdminHomeFragment extends Fragment {
                 });
             }
 
+            // Setup toolbar menu
+            MaterialToolbar toolbar = view.findViewById(R.id.toolbar);
+            if (toolbar != null) {
+                toolbar.inflateMenu(R.menu.admin_home);
+                toolbar.setOnMenuItemClickListener(item -> {
+                    if (item.getItemId() == R.id.action_analytics) {
+                        startActivity(new Intent(requireContext(), AdminAnalyticsActivity.class));
+                        return true;
+                    } else if (item.getItemId() == R.id.action_export_donations) {
+                        exportDonations();
+                        return true;
+                    }
+                    return false;
+                });
+            }
+
             // Setup search view
             setupSearchView();
 
@@ -133,6 +182,70 @@ public class AdminHomeFragment extends Fragment {
         }
     }
 
+    private void exportDonations() {
+        DonationExportRepository exportRepository = DonationExportRepository.getInstance();
+        boolean resuming = !exportRepository.isRunning() && exportRepository.hasUnfinishedExport(requireContext());
+        showExportProgress(getString(resuming ? R.string.export_donations_resuming
+                : R.string.export_donations_progress, 0));
+        exportRepository.export(requireContext().getApplicationContext(), exportListener);
+    }
+
+    private void showExportProgress(String message) {
+        if (exportDialog == null) {
+            exportDialog = DialogHelper.showLoadingDialog(getContext(), message);
+            if (exportDialog != null) {
+                // Closing the dialog only hides the progress; the export carries on
+                exportDialog.setCancelable(true);
+                exportDialog.setOnCancelListener(dialog -> {
+                    DonationExportRepository.getInstance().detach(exportListener);
+                    exportDialog = null;
+                });
+            }
+            return;
+        }
+        TextView messageView = exportDialog.findViewById(R.id.loading_message);
+        if (messageView != null) {
+            messageView.setText(message);
+        }
+    }
+
+    private void dismissExportDialog() {
+        if (exportDialog != null) {
+            exportDialog.dismiss();
+            exportDialog = null;
+        }
+    }
+
+    private void shareExport(File file, long rowsWritten) {
+        android.content.Context context = getContext();
+        if (context == null) {
+            return;
+        }
+        Uri uri = ImageHelper.getFileProviderUri(context, file);
+        Intent send = new Intent(Intent.ACTION_SEND)
+                .setType("text/csv")
+                .putExtra(Intent.EXTRA_STREAM, uri)
+                .addFlags(Intent.FLAG_GRANT_READ_URI_PERMISSION);
+        startActivity(Intent.createChooser(send, getString(R.string.export_donations_done, rowsWritten)));
+    }
+
+    private void setupLoadMore() {
+        // Fetch the next page as the user nears the end of the list
+        campaignsRecyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy <= 0 || campaignViewModel == null) {
+                    return;
+                }
+                LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+                if (layoutManager != null && layoutManager.findLastVisibleItemPosition()
+                        >= campaignAdapter.getItemCount() - LOAD_MORE_THRESHOLD) {
+                    campaignViewModel.loadMoreCampaigns();
+                }
+            }
+        });
+    }
+
     private void setupSearchView() {
         searchView.setOnQueryTextListener(new SearchView.OnQueryTextListener() {
             @Override
@@ -166,6 +279,33 @@ public class AdminHomeFragment extends Fragment {
         campaignViewModel.getIsLoading().observe(getViewLifecycleOwner(), isLoading -> {
             if (isLoading != null) {
                 progressBar.setVisibility(isLoading ? View.VISIBLE : View.GONE);
+                if (!isLoading) {
+                    // A refresh served from the live feed finishes without a new list
+                    swipeRefreshLayout.setRefreshing(false);
+                }
+            }
+        });
+
+        campaignViewModel.getDeletedDonations().observe(getViewLifecycleOwner(), deleted -> {
+            if (deleted == null) {
+                if (deleteDialog != null) {
+                    deleteDialog.dismiss();
+                    deleteDialog = null;
+                }
+                return;
+            }
+            String message = getString(R.string.delete_campaign_progress, deleted);
+            if (deleteDialog == null) {
+                deleteDialog = DialogHelper.showLoadingDialog(getContext(), message);
+                if (deleteDialog != null) {
+                    // Closing the dialog only hides the progress; the delete carries on
+                    deleteDialog.setCancelable(true);
+                }
+                return;
+            }
+            TextView messageView = deleteDialog.findViewById(R.id.loading_message);
+            if (messageView != null) {
+                messageView.setText(message);
             }
         });
 
@@ -250,6 +390,13 @@ public class AdminHomeFragment extends Fragment {
         if (searchProgressAnimator != null) {
             searchProgressAnimator.cancel();
         }
+        // The export keeps running; opening the menu item again picks its progress back up
+        DonationExportRepository.getInstance().detach(exportListener);
+        dismissExportDialog();
+        if (deleteDialog != null) {
+            deleteDialog.dismiss();
+            deleteDialog = null;
+        }
     }
 }
 
@@ -11,6 +11,8 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import com.example.donationapp.R;
+import com.example.donationapp.model.Money;
+import com.example.donationapp.repository.DonationRepository;
 import com.example.donationapp.util.DialogHelper;
 import com.example.donationapp.util.FirebaseHelper;
 import com.example.donationapp.util.Validator;
@@ -21,9 +23,6 @@ import com.google.android.material.textfield.TextInputEditText;
 import com.google.android.material.textfield.TextInputLayout;
 import com.google.firebase.auth.FirebaseUser;
 
-import java.text.NumberFormat;
-import java.util.Locale;
-
 /**
  * Bottom Sheet Dialog Fragment for making donations
  * Uses Material Design 3 components
@@ -31,9 +30,14 @@ import java.util.Locale;
 public class DonationBottomSheetFragment extends BottomSheetDialogFragment {
     private static final String ARG_CAMPAIGN_ID = "campaign_id";
     private static final String ARG_CAMPAIGN_TITLE = "campaign_title";
+    private static final String ARG_SHARD_COUNT = "shard_count";
+    private static final String STATE_DONATION_ID = "donation_id";
     
     private String campaignId;
     private String campaignTitle;
+    private int shardCount = 1;
+    // Idempotency key for this sheet's donation, kept across retries and configuration changes
+    private String donationId;
     
     private TextView campaignTitleText;
     private TextInputLayout amountLayout;
@@ -41,19 +45,20 @@ public class DonationBottomSheetFragment extends BottomSheetDialogFragment {
     private MaterialButton donateSubmitButton;
     private CircularProgressIndicator progressIndicator;
     private ObjectAnimator progressAnimator;
-    
-    private NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(Locale.US);
 
     /**
      * Create a new instance of DonationBottomSheetFragment
      * @param campaignId The ID of the campaign to donate to
      * @param campaignTitle Optional title of the campaign for display
+     * @param shardCount The campaign's counter shard count
      * @return New instance of DonationBottomSheetFragment
      */
-    public static DonationBottomSheetFragment newInstance(String campaignId, String campaignTitle) {
+    public static DonationBottomSheetFragment newInstance(String campaignId, String campaignTitle,
+                                                          int shardCount) {
         DonationBottomSheetFragment fragment = new DonationBottomSheetFragment();
         Bundle args = new Bundle();
         args.putString(ARG_CAMPAIGN_ID, campaignId);
+        args.putInt(ARG_SHARD_COUNT, shardCount);
         if (campaignTitle != null) {
             args.putString(ARG_CAMPAIGN_TITLE, campaignTitle);
         }
@@ -68,12 +73,24 @@ public class DonationBottomSheetFragment extends BottomSheetDialogFragment {
         if (getArguments() != null) {
             campaignId = getArguments().getString(ARG_CAMPAIGN_ID);
             campaignTitle = getArguments().getString(ARG_CAMPAIGN_TITLE);
+            shardCount = getArguments().getInt(ARG_SHARD_COUNT, 1);
         }
         
         if (campaignId == null) {
             dismiss();
             return;
         }
+
+        donationId = savedInstanceState != null ? savedInstanceState.getString(STATE_DONATION_ID) : null;
+        if (donationId == null) {
+            donationId = FirebaseHelper.getInstance().newDonationId();
+        }
+    }
+
+    @Override
+    public void onSaveInstanceState(@NonNull Bundle outState) {
+        super.onSaveInstanceState(outState);
+        outState.putString(STATE_DONATION_ID, donationId);
     }
 
     @Nullable
@@ -136,7 +153,7 @@ public class DonationBottomSheetFragment extends BottomSheetDialogFragment {
             return;
         }
         
-        double amount = Double.parseDouble(amountStr);
+        long amountCents = Money.parseCents(amountStr);
         
         // Check authentication
         FirebaseUser currentUser = FirebaseHelper.getInstance().getCurrentUser();
@@ -150,13 +167,17 @@ public class DonationBottomSheetFragment extends BottomSheetDialogFragment {
         // Show loading state
         setLoadingState(true);
         
-        // Create donation using transaction
-        FirebaseHelper.getInstance().createDonation(campaignId, amount, currentUser.getUid(),
-                aVoid -> {
+        // Journal the donation on the device, then send it (right away if online)
+        DonationRepository.getInstance(requireContext()).donate(donationId, campaignId, shardCount,
+                amountCents, currentUser.getUid(),
+                sent -> {
                     // Success
                     setLoadingState(false);
-                    DialogHelper.showSuccessDialog(requireContext(), "Success", 
-                            "Thank you for your donation of " + currencyFormat.format(amount) + "!",
+                    String message = sent
+                            ? "Thank you for your donation of " + Money.format(amountCents) + "!"
+                            : "Your donation of " + Money.format(amountCents)
+                                    + " is saved and will be sent when you're back online.";
+                    DialogHelper.showSuccessDialog(requireContext(), "Success", message,
                             () -> {
                                 dismiss();
                             });
@@ -178,8 +199,8 @@ public class DonationBottomSheetFragment extends BottomSheetDialogFragment {
     }
 
     private void validateAmount() {
-        String amountStr = amountEditText.getText().toString().trim();
-        String amountError = Validator.getDonationAmountError(amountStr);
+        // The parser skips surrounding whitespace, so validate the Editable without copying it
+        String amountError = Validator.getDonationAmountError(amountEditText.getText());
         amountLayout.setError(amountError);
     }
 
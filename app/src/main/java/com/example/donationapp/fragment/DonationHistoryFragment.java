@@ -20,23 +20,41 @@ import com.example.donationapp.model.Donation;
 import com.example.donationapp.util.DialogHelper;
 import com.example.donationapp.util.FirebaseHelper;
 import com.example.donationapp.util.WindowInsetsHelper;
+import com.google.firebase.Timestamp;
 import com.google.firebase.auth.FirebaseUser;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.QuerySnapshot;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Donation History Fragment - Displays user's donation history
+ * Loads one page at a time as the user scrolls; refresh only fetches donations newer than
+ * the newest one already loaded
  */
 public class DonationHistoryFragment extends Fragment {
+    private static final int PAGE_SIZE = 25;
+    // Start loading the next page when this many rows remain below the last visible one
+    private static final int LOAD_MORE_THRESHOLD = 8;
+
     private RecyclerView donationsRecyclerView;
     private DonationAdapter donationAdapter;
     private SwipeRefreshLayout swipeRefreshLayout;
     private ProgressBar progressBar;
     private TextView emptyStateText;
 
+    // Loaded pages survive the view being recreated (e.g. switching tabs)
+    private final List<Donation> donations = new ArrayList<>();
+    private String loadedUserId;
+    private DocumentSnapshot lastPageCursor;
+    private boolean hasMoreDonations = true;
+    private boolean isLoadingPage;
+    // Bumped when paging restarts so that responses for the old pages are dropped
+    private int pagingGeneration;
+
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container,
                              @Nullable Bundle savedInstanceState) {
@@ -60,16 +78,36 @@ public class DonationHistoryFragment extends Fragment {
         donationAdapter = new DonationAdapter();
         donationsRecyclerView.setLayoutManager(new LinearLayoutManager(requireContext()));
         donationsRecyclerView.setAdapter(donationAdapter);
+        setupLoadMore();
 
         // Setup SwipeRefreshLayout
-        swipeRefreshLayout.setOnRefreshListener(() -> {
-            loadDonations();
-        });
+        swipeRefreshLayout.setOnRefreshListener(this::refreshDonations);
 
         // Load donations
         loadDonations();
     }
 
+    private void setupLoadMore() {
+        // Fetch the next page as the user nears the end of the list
+        donationsRecyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy <= 0) {
+                    return;
+                }
+                LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+                if (layoutManager != null && layoutManager.findLastVisibleItemPosition()
+                        >= donations.size() - LOAD_MORE_THRESHOLD) {
+                    loadNextPage();
+                }
+            }
+        });
+    }
+
+    /**
+     * Show the pages already loaded for this user, topping them up with newer donations,
+     * or load the first page
+     */
     private void loadDonations() {
         FirebaseUser currentUser = FirebaseHelper.getInstance().getCurrentUser();
         if (currentUser == null) {
@@ -78,32 +116,155 @@ public class DonationHistoryFragment extends Fragment {
             return;
         }
 
-        progressBar.setVisibility(View.VISIBLE);
-        emptyStateText.setVisibility(View.GONE);
+        if (currentUser.getUid().equals(loadedUserId) && !donations.isEmpty()) {
+            showDonations();
+            refreshDonations();
+        } else {
+            loadFirstPage(currentUser.getUid());
+        }
+    }
+
+    private void loadFirstPage(String userId) {
+        int generation = ++pagingGeneration;
+        loadedUserId = userId;
+        lastPageCursor = null;
+        hasMoreDonations = true;
+        isLoadingPage = true;
+        if (donations.isEmpty()) {
+            progressBar.setVisibility(View.VISIBLE);
+            emptyStateText.setVisibility(View.GONE);
+        }
+
+        FirebaseHelper.getInstance().getUserDonationsPage(userId, null, PAGE_SIZE,
+                querySnapshot -> {
+                    if (generation != pagingGeneration) {
+                        return;
+                    }
+                    isLoadingPage = false;
+                    donations.clear();
+                    appendPage(querySnapshot);
+                    if (getView() != null) {
+                        showDonations();
+                        progressBar.setVisibility(View.GONE);
+                        swipeRefreshLayout.setRefreshing(false);
+                    }
+                },
+                exception -> {
+                    if (generation != pagingGeneration) {
+                        return;
+                    }
+                    isLoadingPage = false;
+                    if (getView() != null) {
+                        DialogHelper.showErrorDialog(requireContext(), "Error", "Failed to load donations");
+                        progressBar.setVisibility(View.GONE);
+                        swipeRefreshLayout.setRefreshing(false);
+                        updateEmptyState(donations.isEmpty());
+                    }
+                });
+    }
+
+    /**
+     * Load the page after the last one loaded
+     */
+    private void loadNextPage() {
+        if (!hasMoreDonations || isLoadingPage || lastPageCursor == null) {
+            return;
+        }
+        int generation = pagingGeneration;
+        isLoadingPage = true;
+        FirebaseHelper.getInstance().getUserDonationsPage(loadedUserId, lastPageCursor, PAGE_SIZE,
+                querySnapshot -> {
+                    if (generation != pagingGeneration) {
+                        return;
+                    }
+                    isLoadingPage = false;
+                    appendPage(querySnapshot);
+                    if (getView() != null) {
+                        showDonations();
+                    }
+                },
+                exception -> {
+                    if (generation == pagingGeneration) {
+                        // Scrolling again retries
+                        isLoadingPage = false;
+                    }
+                });
+    }
+
+    /**
+     * Fetch only donations newer than the newest one loaded and put them on top
+     * If a whole page of them came back there may be more, so paging starts over instead
+     */
+    private void refreshDonations() {
+        FirebaseUser currentUser = FirebaseHelper.getInstance().getCurrentUser();
+        if (currentUser == null || !currentUser.getUid().equals(loadedUserId)) {
+            if (currentUser != null) {
+                loadFirstPage(currentUser.getUid());
+            } else {
+                swipeRefreshLayout.setRefreshing(false);
+            }
+            return;
+        }
+        Timestamp newest = donations.isEmpty() ? null : donations.get(0).getDate();
+        if (newest == null) {
+            loadFirstPage(loadedUserId);
+            return;
+        }
 
-        FirebaseHelper.getInstance().getUserDonations(currentUser.getUid(),
+        int generation = pagingGeneration;
+        FirebaseHelper.getInstance().getUserDonationsNewerThan(loadedUserId, newest, PAGE_SIZE,
                 querySnapshot -> {
-                    List<Donation> donations = new ArrayList<>();
+                    if (generation != pagingGeneration) {
+                        return;
+                    }
+                    if (querySnapshot.size() >= PAGE_SIZE) {
+                        loadFirstPage(loadedUserId);
+                        return;
+                    }
+                    Set<String> loadedIds = new HashSet<>();
+                    for (Donation donation : donations) {
+                        loadedIds.add(donation.getId());
+                    }
+                    List<Donation> newer = new ArrayList<>();
                     for (DocumentSnapshot document : querySnapshot.getDocuments()) {
-                        Donation donation = document.toObject(Donation.class);
-                        if (donation != null) {
-                            donation.setId(document.getId());
-                            donations.add(donation);
+                        Donation donation = Donation.fromSnapshot(document);
+                        if (donation != null && !loadedIds.contains(donation.getId())) {
+                            newer.add(donation);
                         }
                     }
-                    donationAdapter.setDonations(donations);
-                    updateEmptyState(donations.isEmpty());
-                    progressBar.setVisibility(View.GONE);
-                    swipeRefreshLayout.setRefreshing(false);
+                    donations.addAll(0, newer);
+                    if (getView() != null) {
+                        showDonations();
+                        swipeRefreshLayout.setRefreshing(false);
+                    }
                 },
                 exception -> {
-                    DialogHelper.showErrorDialog(requireContext(), "Error", "Failed to load donations");
-                    progressBar.setVisibility(View.GONE);
-                    swipeRefreshLayout.setRefreshing(false);
-                    updateEmptyState(true);
+                    if (getView() != null) {
+                        DialogHelper.showErrorDialog(requireContext(), "Error", "Failed to load donations");
+                        swipeRefreshLayout.setRefreshing(false);
+                    }
                 });
     }
 
+    private void appendPage(QuerySnapshot querySnapshot) {
+        List<DocumentSnapshot> documents = querySnapshot.getDocuments();
+        for (DocumentSnapshot document : documents) {
+            Donation donation = Donation.fromSnapshot(document);
+            if (donation != null) {
+                donations.add(donation);
+            }
+        }
+        if (!documents.isEmpty()) {
+            lastPageCursor = documents.get(documents.size() - 1);
+        }
+        hasMoreDonations = documents.size() >= PAGE_SIZE;
+    }
+
+    private void showDonations() {
+        donationAdapter.setDonations(donations);
+        updateEmptyState(donations.isEmpty());
+    }
+
     private void updateEmptyState(boolean isEmpty) {
         if (isEmpty) {
             emptyStateText.setVisibility(View.VISIBLE);
@@ -22,7 +22,9 @@ import com.example.donationapp.R;
 import com.example.donationapp.adapter.CampaignAdapter;
 import com.example.donationapp.model.Campaign;
 import com.example.donationapp.util.DialogHelper;
+import com.example.donationapp.repository.CampaignRepository;
 import com.example.donationapp.util.FirebaseHelper;
+import com.example.donationapp.util.StartupTrace;
 import com.example.donationapp.util.WindowInsetsHelper;
 import com.example.donationapp.view.CampaignDetailActivity;
 import com.example.donationapp.viewmodel.CampaignViewModel;
@@ -33,6 +35,7 @@ import com.google.android.material.progressindicator.CircularProgressIndicator;
  * Home Fragment - Displays campaigns for regular users
  */
 public class HomeFragment extends Fragment {
+    private static final int LOAD_MORE_THRESHOLD = 5;
     private RecyclerView campaignsRecyclerView;
     private CampaignAdapter campaignAdapter;
     private SwipeRefreshLayout swipeRefreshLayout;
@@ -101,6 +104,7 @@ public class HomeFragment extends Fragment {
 
             campaignsRecyclerView.setLayoutManager(new LinearLayoutManager(context));
             campaignsRecyclerView.setAdapter(campaignAdapter);
+            setupLoadMore();
 
             // Initialize ViewModel
             campaignViewModel = new ViewModelProvider(this).get(CampaignViewModel.class);
@@ -118,6 +122,9 @@ public class HomeFragment extends Fragment {
             // Setup search view
             setupSearchView();
 
+            // Show the last persisted campaigns while the live listener connects
+            CampaignRepository.getInstance().restorePersistedFeed(context.getApplicationContext());
+
             // Load campaigns
             campaignViewModel.startListeningToCampaigns();
         } catch (Exception e) {
@@ -125,6 +132,23 @@ public class HomeFragment extends Fragment {
         }
     }
 
+    private void setupLoadMore() {
+        // Fetch the next page as the user nears the end of the list
+        campaignsRecyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy <= 0 || campaignViewModel == null) {
+                    return;
+                }
+                LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+                if (layoutManager != null && layoutManager.findLastVisibleItemPosition()
+                        >= campaignAdapter.getItemCount() - LOAD_MORE_THRESHOLD) {
+                    campaignViewModel.loadMoreCampaigns();
+                }
+            }
+        });
+    }
+
     private void setupSearchView() {
         searchView.setOnQueryTextListener(new SearchView.OnQueryTextListener() {
             @Override
@@ -149,7 +173,9 @@ public class HomeFragment extends Fragment {
     private void observeViewModel() {
         campaignViewModel.getCampaigns().observe(getViewLifecycleOwner(), campaigns -> {
             if (campaigns != null) {
-                campaignAdapter.setCampaigns(campaigns);
+                // Rows are built in the background; trace once they are committed and laid out
+                campaignAdapter.setCampaigns(campaigns, campaigns.isEmpty() ? null
+                        : () -> campaignsRecyclerView.post(() -> StartupTrace.firstRowRendered(getActivity())));
                 updateEmptyState(campaigns.isEmpty());
             }
             swipeRefreshLayout.setRefreshing(false);
@@ -158,6 +184,10 @@ public class HomeFragment extends Fragment {
         campaignViewModel.getIsLoading().observe(getViewLifecycleOwner(), isLoading -> {
             if (isLoading != null) {
                 progressBar.setVisibility(isLoading ? View.VISIBLE : View.GONE);
+                if (!isLoading) {
+                    // A refresh served from the live feed finishes without a new list
+                    swipeRefreshLayout.setRefreshing(false);
+                }
             }
         });
 
@@ -234,7 +264,8 @@ public class HomeFragment extends Fragment {
         com.example.donationapp.fragment.DonationBottomSheetFragment bottomSheet = 
                 com.example.donationapp.fragment.DonationBottomSheetFragment.newInstance(
                         campaign.getId(), 
-                        campaign.getTitle()
+                        campaign.getTitle(),
+                        campaign.getShardCount()
                 );
         bottomSheet.show(getParentFragmentManager(), "DonationBottomSheet");
     }
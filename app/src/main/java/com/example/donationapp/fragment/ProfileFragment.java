@@ -19,6 +19,7 @@ import androidx.fragment.app.Fragment;
 import androidx.lifecycle.ViewModelProvider;
 
 import com.example.donationapp.R;
+import com.example.donationapp.model.Money;
 import com.example.donationapp.model.User;
 import com.example.donationapp.util.DialogHelper;
 import com.example.donationapp.util.FirebaseHelper;
@@ -43,6 +44,7 @@ import java.util.Map;
 public class ProfileFragment extends Fragment {
     private ImageView profileImage;
     private TextView emailText;
+    private TextView donationStatsText;
     private TextInputLayout nameLayout;
     private TextInputLayout phoneLayout;
     private TextInputEditText nameEditText;
@@ -79,6 +81,7 @@ public class ProfileFragment extends Fragment {
         // Set default user icon initially
         profileImage.setImageResource(R.drawable.ic_profile);
         emailText = view.findViewById(R.id.email_text);
+        donationStatsText = view.findViewById(R.id.donation_stats_text);
         nameLayout = view.findViewById(R.id.name_layout);
         phoneLayout = view.findViewById(R.id.phone_layout);
         // Find child views within included layouts
@@ -145,6 +148,7 @@ public class ProfileFragment extends Fragment {
         if (currentUser != null) {
             emailText.setText(currentUser.getEmail());
             profileViewModel.loadUserProfile(currentUser.getUid());
+            profileViewModel.loadDonationStats(currentUser.getUid());
             // Mark that initial load is complete after a short delay
             view.postDelayed(() -> isInitialLoad = false, 500);
         }
@@ -157,6 +161,15 @@ public class ProfileFragment extends Fragment {
             }
         });
 
+        profileViewModel.getDonationStats().observe(getViewLifecycleOwner(), stats -> {
+            if (stats != null) {
+                donationStatsText.setText(getString(R.string.profile_donation_stats,
+                        new Money.Formatter().format(stats.getTotalDonatedCents()),
+                        stats.getDonationCount(), stats.getCampaignCount()));
+                donationStatsText.setVisibility(View.VISIBLE);
+            }
+        });
+
         profileViewModel.getIsLoading().observe(getViewLifecycleOwner(), isLoading -> {
             if (isLoading != null) {
                 progressBar.setVisibility(isLoading ? View.VISIBLE : View.GONE);
@@ -1,6 +1,8 @@
 package com.example.donationapp.model;
 
 import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.ServerTimestamp;
 
 import java.util.HashMap;
@@ -10,29 +12,64 @@ import java.util.Map;
  * Campaign model class representing a donation campaign
  */
 public class Campaign {
+    // Enough for the two description lines shown in campaign lists
+    public static final int DESCRIPTION_PREVIEW_LENGTH = 160;
+    // Upper bound for counter shards; each one is an extra read for the live total
+    public static final int MAX_SHARD_COUNT = 50;
+
     private String id;
     private String title;
     private String description;
-    private double goalAmount;
-    private double collectedAmount;
+    private long goalCents;
+    private long collectedCents;
     private String imageUrl;
     @ServerTimestamp
     private Timestamp createdAt;
     private String createdBy;
+    // Donations spread their increments over this many counter shards; 1 writes the campaign directly
+    private int shardCount;
 
     // Default constructor required for Firestore
     public Campaign() {
-        this.collectedAmount = 0.0;
+        this.collectedCents = 0;
+        this.shardCount = 1;
     }
 
-    public Campaign(String id, String title, String description, double goalAmount, String createdBy) {
+    public Campaign(String id, String title, String description, long goalCents, String createdBy) {
         this.id = id;
         this.title = title;
         this.description = description;
-        this.goalAmount = goalAmount;
-        this.collectedAmount = 0.0;
+        this.goalCents = goalCents;
+        this.collectedCents = 0;
         this.imageUrl = "";
         this.createdBy = createdBy;
+        this.shardCount = 1;
+    }
+
+    /**
+     * Read a campaign (or campaign summary) document field by field, without the reflective bean mapper
+     * Returns null if the document does not exist
+     */
+    public static Campaign fromSnapshot(DocumentSnapshot doc) {
+        if (!doc.exists()) {
+            return null;
+        }
+        return fromFields(doc.getId(), DocumentFields.of(doc));
+    }
+
+    static Campaign fromFields(String id, DocumentFields doc) {
+        Campaign campaign = new Campaign();
+        campaign.id = id;
+        campaign.title = doc.getString("title");
+        campaign.description = doc.getString("description");
+        campaign.goalCents = Money.read(doc, "goalCents", "goalAmount");
+        campaign.collectedCents = Money.read(doc, "collectedCents", "collectedAmount");
+        campaign.imageUrl = doc.getString("imageUrl");
+        campaign.createdAt = doc.getTimestamp("createdAt");
+        campaign.createdBy = doc.getString("createdBy");
+        Long shardCount = doc.getLong("shardCount");
+        campaign.shardCount = shardCount != null ? (int) Math.max(1, Math.min(shardCount, MAX_SHARD_COUNT)) : 1;
+        return campaign;
     }
 
     // Getters and Setters
@@ -60,20 +97,20 @@ public class Campaign {
         this.description = description;
     }
 
-    public double getGoalAmount() {
-        return goalAmount;
+    public long getGoalCents() {
+        return goalCents;
     }
 
-    public void setGoalAmount(double goalAmount) {
-        this.goalAmount = goalAmount;
+    public void setGoalCents(long goalCents) {
+        this.goalCents = goalCents;
     }
 
-    public double getCollectedAmount() {
-        return collectedAmount;
+    public long getCollectedCents() {
+        return collectedCents;
     }
 
-    public void setCollectedAmount(double collectedAmount) {
-        this.collectedAmount = collectedAmount;
+    public void setCollectedCents(long collectedCents) {
+        this.collectedCents = collectedCents;
     }
 
     public String getImageUrl() {
@@ -100,36 +137,108 @@ public class Campaign {
         this.createdBy = createdBy;
     }
 
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public void setShardCount(int shardCount) {
+        this.shardCount = shardCount;
+    }
+
     /**
      * Calculate progress percentage
      */
     public int getProgressPercentage() {
-        if (goalAmount <= 0) return 0;
-        double percentage = (collectedAmount / goalAmount) * 100;
-        return (int) Math.min(percentage, 100);
+        return progressPercentage(collectedCents, goalCents);
+    }
+
+    /**
+     * Progress percentage for a collected total that may include counter shards not yet rolled up
+     */
+    public static int progressPercentage(long collectedCents, long goalCents) {
+        if (goalCents <= 0) return 0;
+        return (int) Math.min(collectedCents * 100 / goalCents, 100);
     }
 
     /**
      * Check if campaign goal is reached
      */
     public boolean isGoalReached() {
-        return collectedAmount >= goalAmount;
+        return collectedCents >= goalCents;
     }
 
     /**
      * Convert Campaign object to Map for Firestore
+     * Amounts are stored as cents, mirrored to the legacy double fields for older app versions
      */
     public Map<String, Object> toMap() {
         Map<String, Object> map = new HashMap<>();
         map.put("id", id);
         map.put("title", title);
         map.put("description", description);
-        map.put("goalAmount", goalAmount);
-        map.put("collectedAmount", collectedAmount);
+        map.put("goalCents", goalCents);
+        map.put("goalAmount", Money.toDouble(goalCents));
+        map.put("collectedCents", collectedCents);
+        map.put("collectedAmount", Money.toDouble(collectedCents));
         map.put("imageUrl", imageUrl != null ? imageUrl : "");
-        map.put("createdAt", createdAt);
+        map.put("createdAt", createdAt != null ? createdAt : FieldValue.serverTimestamp());
         map.put("createdBy", createdBy);
+        map.put("shardCount", shardCount);
         return map;
     }
+
+    /**
+     * Convert Campaign object to its campaign_summaries projection
+     * The description is cut to a preview; the full text stays in the campaign document
+     */
+    public Map<String, Object> toSummaryMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", id);
+        map.put("title", title);
+        map.put("description", previewOf(description));
+        map.put("goalCents", goalCents);
+        map.put("goalAmount", Money.toDouble(goalCents));
+        map.put("collectedCents", collectedCents);
+        map.put("collectedAmount", Money.toDouble(collectedCents));
+        map.put("imageUrl", imageUrl != null ? imageUrl : "");
+        map.put("createdAt", createdAt != null ? createdAt : FieldValue.serverTimestamp());
+        map.put("createdBy", createdBy);
+        map.put("shardCount", shardCount); // Lists open the donation sheet straight from a summary
+        return map;
+    }
+
+    /**
+     * Project campaign field updates onto the summary fields they affect
+     */
+    public static Map<String, Object> toSummaryUpdates(Map<String, Object> updates) {
+        Map<String, Object> summaryUpdates = new HashMap<>();
+        for (Map.Entry<String, Object> entry : updates.entrySet()) {
+            String field = entry.getKey();
+            Object value = entry.getValue();
+            if ("description".equals(field) && value instanceof String) {
+                summaryUpdates.put(field, previewOf((String) value));
+            } else if ("title".equals(field) || "description".equals(field) || "imageUrl".equals(field)
+                    || "goalCents".equals(field) || "goalAmount".equals(field)
+                    || "collectedCents".equals(field) || "collectedAmount".equals(field)
+                    || "shardCount".equals(field)) {
+                summaryUpdates.put(field, value);
+            }
+        }
+        return summaryUpdates;
+    }
+
+    /**
+     * Shorten a description to DESCRIPTION_PREVIEW_LENGTH characters, ending in an ellipsis when cut
+     */
+    public static String previewOf(String description) {
+        if (description == null || description.length() <= DESCRIPTION_PREVIEW_LENGTH) {
+            return description;
+        }
+        int end = DESCRIPTION_PREVIEW_LENGTH - 1;
+        if (Character.isHighSurrogate(description.charAt(end - 1))) {
+            end--; // Don't split a surrogate pair
+        }
+        return description.substring(0, end).trim() + "\u2026";
+    }
 }
 
@@ -0,0 +1,42 @@
+package com.example.donationapp.model;
+
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentSnapshot;
+
+/**
+ * The typed field getters the models read documents with
+ * fromSnapshot() reads a DocumentSnapshot through this, so parsing can be tested with plain maps
+ */
+interface DocumentFields {
+    String getString(String field);
+
+    Long getLong(String field);
+
+    Double getDouble(String field);
+
+    Timestamp getTimestamp(String field);
+
+    static DocumentFields of(DocumentSnapshot doc) {
+        return new DocumentFields() {
+            @Override
+            public String getString(String field) {
+                return doc.getString(field);
+            }
+
+            @Override
+            public Long getLong(String field) {
+                return doc.getLong(field);
+            }
+
+            @Override
+            public Double getDouble(String field) {
+                return doc.getDouble(field);
+            }
+
+            @Override
+            public Timestamp getTimestamp(String field) {
+                return doc.getTimestamp(field);
+            }
+        };
+    }
+}
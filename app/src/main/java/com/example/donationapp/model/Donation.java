@@ -1,6 +1,8 @@
 package com.example.donationapp.model;
 
 import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.ServerTimestamp;
 
 import java.util.HashMap;
@@ -13,7 +15,7 @@ public class Donation {
     private String id;
     private String campaignId;
     private String userId;
-    private double amount;
+    private long amountCents;
     @ServerTimestamp
     private Timestamp date;
 
@@ -21,11 +23,32 @@ public class Donation {
     public Donation() {
     }
 
-    public Donation(String id, String campaignId, String userId, double amount) {
+    public Donation(String id, String campaignId, String userId, long amountCents) {
         this.id = id;
         this.campaignId = campaignId;
         this.userId = userId;
-        this.amount = amount;
+        this.amountCents = amountCents;
+    }
+
+    /**
+     * Read a donation document field by field, without the reflective bean mapper
+     * Returns null if the document does not exist
+     */
+    public static Donation fromSnapshot(DocumentSnapshot doc) {
+        if (!doc.exists()) {
+            return null;
+        }
+        return fromFields(doc.getId(), DocumentFields.of(doc));
+    }
+
+    static Donation fromFields(String id, DocumentFields doc) {
+        Donation donation = new Donation();
+        donation.id = id;
+        donation.campaignId = doc.getString("campaignId");
+        donation.userId = doc.getString("userId");
+        donation.amountCents = Money.read(doc, "amountCents", "amount");
+        donation.date = doc.getTimestamp("date");
+        return donation;
     }
 
     // Getters and Setters
@@ -53,12 +76,12 @@ public class Donation {
         this.userId = userId;
     }
 
-    public double getAmount() {
-        return amount;
+    public long getAmountCents() {
+        return amountCents;
     }
 
-    public void setAmount(double amount) {
-        this.amount = amount;
+    public void setAmountCents(long amountCents) {
+        this.amountCents = amountCents;
     }
 
     public Timestamp getDate() {
@@ -71,14 +94,19 @@ public class Donation {
 
     /**
      * Convert Donation object to Map for Firestore
+     * The amount is stored as cents, mirrored to the legacy double field for older app versions
+     * inUserStats marks donations written together with their user_stats increment, so the
+     * user stats backfill skips them
      */
     public Map<String, Object> toMap() {
         Map<String, Object> map = new HashMap<>();
         map.put("id", id);
         map.put("campaignId", campaignId);
         map.put("userId", userId);
-        map.put("amount", amount);
-        map.put("date", date);
+        map.put("amountCents", amountCents);
+        map.put("amount", Money.toDouble(amountCents));
+        map.put("date", date != null ? date : FieldValue.serverTimestamp());
+        map.put("inUserStats", true);
         return map;
     }
 }
@@ -0,0 +1,29 @@
+package com.example.donationapp.model;
+
+/**
+ * Number and sum of the donations matching an analytics query
+ */
+public final class DonationTotals {
+    private final long count;
+    private final long amountCents;
+    // False when computed by reading donations because aggregation queries were unavailable
+    private final boolean aggregated;
+
+    public DonationTotals(long count, long amountCents, boolean aggregated) {
+        this.count = count;
+        this.amountCents = amountCents;
+        this.aggregated = aggregated;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getAmountCents() {
+        return amountCents;
+    }
+
+    public boolean isAggregated() {
+        return aggregated;
+    }
+}
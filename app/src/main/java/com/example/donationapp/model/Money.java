@@ -0,0 +1,217 @@
+package com.example.donationapp.model;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+
+/**
+ * Money amounts as whole cents in a long
+ * Parsing and formatting work on CharSequence/StringBuilder so neither needs intermediate objects
+ */
+public final class Money {
+    // Returned by parseCents() for input that is not a valid amount
+    public static final long INVALID = Long.MIN_VALUE;
+    // Largest amount parseCents() accepts (ten quadrillion dollars), far from long overflow
+    public static final long MAX_CENTS = 1_000_000_000_000_000L;
+
+    private Money() {
+    }
+
+    /**
+     * Parse user input such as "12", "12.5", "$1,234.56" into cents
+     * Surrounding whitespace, a leading "$" and grouping commas are allowed; a comma must be
+     * followed by exactly three digits, so a comma used as a decimal separator ("1,50") is
+     * INVALID rather than read as thousands. More than two decimals, signs and any other
+     * characters make the input INVALID
+     */
+    public static long parseCents(CharSequence text) {
+        if (text == null) {
+            return INVALID;
+        }
+        int start = 0;
+        int end = text.length();
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        if (start < end && text.charAt(start) == '$') {
+            start++;
+        }
+
+        long dollars = 0;
+        int digits = 0;
+        int groupDigits = 0; // Digits since the last comma
+        boolean grouped = false;
+        int i = start;
+        for (; i < end; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                dollars = dollars * 10 + (c - '0');
+                if (dollars > MAX_CENTS / 100) {
+                    return INVALID;
+                }
+                digits++;
+                groupDigits++;
+            } else if (c == ',') {
+                // Grouping separator: one to three digits before the first, exactly three after each
+                if (groupDigits == 0 || groupDigits > 3 || (grouped && groupDigits != 3)) {
+                    return INVALID;
+                }
+                grouped = true;
+                groupDigits = 0;
+            } else {
+                break;
+            }
+        }
+        if (grouped && groupDigits != 3) {
+            return INVALID;
+        }
+
+        long cents = 0;
+        if (i < end && text.charAt(i) == '.') {
+            i++;
+            int fractionDigits = 0;
+            for (; i < end; i++) {
+                char c = text.charAt(i);
+                if (c < '0' || c > '9' || ++fractionDigits > 2) {
+                    return INVALID;
+                }
+                cents = cents * 10 + (c - '0');
+            }
+            if (fractionDigits == 1) {
+                cents *= 10;
+            }
+            digits += fractionDigits;
+        }
+
+        if (i != end || digits == 0) {
+            return INVALID;
+        }
+        return dollars * 100 + cents;
+    }
+
+    /**
+     * Convert a legacy double amount to cents, rounding to the nearest cent
+     */
+    public static long fromDouble(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    /**
+     * Cents as a double amount, for legacy fields and charts only
+     */
+    public static double toDouble(long cents) {
+        return cents / 100.0;
+    }
+
+    /**
+     * Read a cents field, falling back to the legacy double field for documents written
+     * before amounts were stored as cents
+     */
+    public static long read(DocumentSnapshot doc, String centsField, String legacyField) {
+        return read(DocumentFields.of(doc), centsField, legacyField);
+    }
+
+    static long read(DocumentFields doc, String centsField, String legacyField) {
+        Long cents = doc.getLong(centsField);
+        if (cents != null) {
+            return cents;
+        }
+        Double legacy = doc.getDouble(legacyField);
+        return legacy != null ? fromDouble(legacy) : 0;
+    }
+
+    /**
+     * Append cents as "$1,234.56" (or "-$1,234.56")
+     */
+    public static StringBuilder appendCurrency(StringBuilder out, long cents) {
+        if (cents < 0) {
+            out.append('-');
+            cents = -cents;
+        }
+        out.append('$');
+        appendGrouped(out, cents / 100);
+        return appendFraction(out, cents % 100);
+    }
+
+    /**
+     * Append cents as a plain decimal ("1234.56"), suitable for an input field
+     */
+    public static StringBuilder appendPlain(StringBuilder out, long cents) {
+        if (cents < 0) {
+            out.append('-');
+            cents = -cents;
+        }
+        out.append(cents / 100);
+        return appendFraction(out, cents % 100);
+    }
+
+    /**
+     * Format cents as "$1,234.56"
+     */
+    public static String format(long cents) {
+        return appendCurrency(new StringBuilder(16), cents).toString();
+    }
+
+    /**
+     * Format cents as a plain decimal ("1234.56")
+     */
+    public static String formatPlain(long cents) {
+        return appendPlain(new StringBuilder(16), cents).toString();
+    }
+
+    private static void appendGrouped(StringBuilder out, long dollars) {
+        if (dollars < 1000) {
+            out.append(dollars);
+            return;
+        }
+        appendGrouped(out, dollars / 1000);
+        out.append(',');
+        long group = dollars % 1000;
+        if (group < 100) {
+            out.append('0');
+        }
+        if (group < 10) {
+            out.append('0');
+        }
+        out.append(group);
+    }
+
+    private static StringBuilder appendFraction(StringBuilder out, long fraction) {
+        out.append('.');
+        if (fraction < 10) {
+            out.append('0');
+        }
+        return out.append(fraction);
+    }
+
+    /**
+     * Currency formatter that reuses one StringBuilder
+     * Not thread-safe; keep one per thread
+     */
+    public static final class Formatter {
+        private final StringBuilder builder = new StringBuilder(32);
+
+        /**
+         * Format as prefix + "$1,234.56"; the returned builder is only valid until the next call
+         */
+        public CharSequence formatInPlace(String prefix, long cents) {
+            builder.setLength(0);
+            if (prefix != null) {
+                builder.append(prefix);
+            }
+            return appendCurrency(builder, cents);
+        }
+
+        /**
+         * Format as prefix + "$1,234.56"
+         */
+        public String format(String prefix, long cents) {
+            return formatInPlace(prefix, cents).toString();
+        }
+
+        public String format(long cents) {
+            return format(null, cents);
+        }
+    }
+}
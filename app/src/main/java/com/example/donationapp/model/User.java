@@ -1,5 +1,7 @@
 package com.example.donationapp.model;
 
+import com.google.firebase.firestore.DocumentSnapshot;
+
 import java.util.HashMap;
 import java.util.Map;
 
@@ -27,6 +29,28 @@ public class User {
         this.phone = "";
     }
 
+    /**
+     * Read a user document field by field, without the reflective bean mapper
+     * Returns null if the document does not exist
+     */
+    public static User fromSnapshot(DocumentSnapshot doc) {
+        if (!doc.exists()) {
+            return null;
+        }
+        return fromFields(doc.getId(), DocumentFields.of(doc));
+    }
+
+    static User fromFields(String id, DocumentFields doc) {
+        User user = new User();
+        user.id = id;
+        user.name = doc.getString("name");
+        user.email = doc.getString("email");
+        user.role = doc.getString("role");
+        user.profileImage = doc.getString("profileImage");
+        user.phone = doc.getString("phone");
+        return user;
+    }
+
     // Getters and Setters
     public String getId() {
         return id;
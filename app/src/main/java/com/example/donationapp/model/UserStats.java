@@ -0,0 +1,103 @@
+package com.example.donationapp.model;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lifetime donation totals for one user, stored in user_stats/{userId}
+ * Maintained with increments in the same write as each donation; the supported campaigns are
+ * kept as a map of campaign id to true so recording one twice doesn't change the count
+ */
+public class UserStats {
+    private long totalDonatedCents;
+    private long donationCount;
+    private final Set<String> campaignIds = new LinkedHashSet<>();
+
+    public UserStats() {
+    }
+
+    /**
+     * Read a user_stats document; a user without one has not donated yet
+     */
+    @SuppressWarnings("unchecked")
+    public static UserStats fromSnapshot(DocumentSnapshot doc) {
+        UserStats stats = new UserStats();
+        if (!doc.exists()) {
+            return stats;
+        }
+        Long total = doc.getLong("totalDonatedCents");
+        Long count = doc.getLong("donationCount");
+        stats.totalDonatedCents = total != null ? total : 0;
+        stats.donationCount = count != null ? count : 0;
+        Object campaigns = doc.get("campaigns");
+        if (campaigns instanceof Map) {
+            stats.campaignIds.addAll(((Map<String, Object>) campaigns).keySet());
+        }
+        return stats;
+    }
+
+    /**
+     * Count one donation
+     */
+    public void add(String campaignId, long amountCents) {
+        totalDonatedCents += amountCents;
+        donationCount++;
+        if (campaignId != null) {
+            campaignIds.add(campaignId);
+        }
+    }
+
+    public long getTotalDonatedCents() {
+        return totalDonatedCents;
+    }
+
+    public long getDonationCount() {
+        return donationCount;
+    }
+
+    public int getCampaignCount() {
+        return campaignIds.size();
+    }
+
+    public boolean isEmpty() {
+        return donationCount == 0;
+    }
+
+    /**
+     * These totals as increments, to be written with SetOptions.merge()
+     */
+    public Map<String, Object> toIncrementMap() {
+        Map<String, Object> campaigns = new HashMap<>();
+        for (String campaignId : campaignIds) {
+            campaigns.put(campaignId, true);
+        }
+        Map<String, Object> map = new HashMap<>();
+        map.put("totalDonatedCents", FieldValue.increment(totalDonatedCents));
+        map.put("donationCount", FieldValue.increment(donationCount));
+        map.put("campaigns", campaigns);
+        map.put("updatedAt", FieldValue.serverTimestamp());
+        return map;
+    }
+
+    /**
+     * Increments for a single donation
+     */
+    public static Map<String, Object> incrementFor(String campaignId, long amountCents) {
+        UserStats stats = new UserStats();
+        stats.add(campaignId, amountCents);
+        return stats.toIncrementMap();
+    }
+
+    /**
+     * Ids of the campaigns this user has supported
+     */
+    public Set<String> getCampaignIds() {
+        return Collections.unmodifiableSet(campaignIds);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.donationapp.repository;
+
+import android.os.SystemClock;
+
+import com.example.donationapp.model.DonationTotals;
+import com.example.donationapp.util.FirebaseHelper;
+import com.example.donationapp.util.TtlCache;
+import com.google.android.gms.tasks.OnFailureListener;
+import com.google.android.gms.tasks.OnSuccessListener;
+
+import java.util.ArrayDeque;
+import java.util.Date;
+
+/**
+ * Donation totals for the admin analytics screen
+ * Each total is one server-side count()/sum() aggregation query, cached for a few minutes.
+ * When aggregation can't run the donations are read and summed on the device instead.
+ * Main thread only
+ */
+public class AnalyticsRepository {
+    private static final long CACHE_TTL_MS = 10 * 60 * 1000;
+    // Queries in flight at once; a screen of campaigns queues the rest
+    private static final int MAX_CONCURRENT_QUERIES = 8;
+    private static final long DAY_MS = 24 * 60 * 60 * 1000L;
+    private static AnalyticsRepository instance;
+
+    /**
+     * Date ranges offered on the analytics screen, ending now
+     */
+    public enum Range {
+        LAST_7_DAYS(7),
+        LAST_30_DAYS(30),
+        ALL_TIME(0);
+
+        private final int days;
+
+        Range(int days) {
+            this.days = days;
+        }
+
+        /**
+         * Start of the range, or null for all time
+         */
+        public Date since(long nowMs) {
+            return days == 0 ? null : new Date(nowMs - days * DAY_MS);
+        }
+    }
+
+    private final FirebaseHelper firebaseHelper;
+    private final TtlCache<String, DonationTotals> cache =
+            new TtlCache<>(CACHE_TTL_MS, SystemClock::elapsedRealtime);
+    private final ArrayDeque<Runnable> queued = new ArrayDeque<>();
+    private int running;
+
+    private AnalyticsRepository() {
+        firebaseHelper = FirebaseHelper.getInstance();
+    }
+
+    public static synchronized AnalyticsRepository getInstance() {
+        if (instance == null) {
+            instance = new AnalyticsRepository();
+        }
+        return instance;
+    }
+
+    /**
+     * Totals for one campaign, or for all campaigns if campaignId is null
+     * Served from the cache when fresh unless forceRefresh is set
+     */
+    public void loadTotals(String campaignId, Range range, boolean forceRefresh,
+                           OnSuccessListener<DonationTotals> onSuccess,
+                           OnFailureListener onFailure) {
+        String key = range.name() + "/" + (campaignId != null ? campaignId : "*");
+        if (!forceRefresh) {
+            DonationTotals cached = cache.get(key);
+            if (cached != null) {
+                onSuccess.onSuccess(cached);
+                return;
+            }
+        }
+        queued.add(() -> {
+            Date since = range.since(System.currentTimeMillis());
+            firebaseHelper.aggregateDonations(campaignId, since,
+                    totals -> {
+                        cache.put(key, totals);
+                        finished();
+                        onSuccess.onSuccess(totals);
+                    },
+                    e -> {
+                        if (!FirebaseHelper.isAggregationUnavailable(e)) {
+                            finished();
+                            onFailure.onFailure(e);
+                            return;
+                        }
+                        // Not cached: the next load tries aggregation again
+                        firebaseHelper.sumDonationsPaged(campaignId, since,
+                                totals -> {
+                                    finished();
+                                    onSuccess.onSuccess(totals);
+                                },
+                                pagedError -> {
+                                    finished();
+                                    onFailure.onFailure(pagedError);
+                                });
+                    });
+        });
+        runQueued();
+    }
+
+    /**
+     * Drop queued queries, e.g. when the screen that asked for them closes
+     */
+    public void cancelPending() {
+        queued.clear();
+    }
+
+    private void finished() {
+        running--;
+        runQueued();
+    }
+
+    private void runQueued() {
+        while (running < MAX_CONCURRENT_QUERIES && !queued.isEmpty()) {
+            running++;
+            queued.poll().run();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.donationapp.repository;
+
+import android.util.Log;
+
+import androidx.lifecycle.LiveData;
+
+import com.example.donationapp.model.Campaign;
+import com.example.donationapp.util.FirebaseHelper;
+import com.google.android.gms.tasks.OnFailureListener;
+import com.google.firebase.firestore.ListenerRegistration;
+
+/**
+ * Live view of a single campaign document
+ * The Firestore listener is only attached while the LiveData has active observers,
+ * so a screen observing it stops reading as soon as it leaves the STARTED state
+ */
+public class CampaignDocumentLiveData extends LiveData<Campaign> {
+    private static final String TAG = "CampaignDocumentLiveData";
+    private final String campaignId;
+    private final OnFailureListener onFailure;
+    private ListenerRegistration registration;
+
+    CampaignDocumentLiveData(String campaignId, Campaign cachedCampaign, OnFailureListener onFailure) {
+        this.campaignId = campaignId;
+        this.onFailure = onFailure;
+        if (cachedCampaign != null) {
+            // Render immediately from the copy we already hold
+            setValue(cachedCampaign);
+        }
+    }
+
+    public String getCampaignId() {
+        return campaignId;
+    }
+
+    @Override
+    protected void onActive() {
+        if (registration != null) {
+            return;
+        }
+        registration = FirebaseHelper.getInstance().listenToCampaign(campaignId, (doc, error) -> {
+            if (error != null) {
+                Log.e(TAG, "Error listening to campaign", error);
+                if (onFailure != null) {
+                    onFailure.onFailure(error);
+                }
+                return;
+            }
+            if (doc == null || !doc.exists()) {
+                if (onFailure != null) {
+                    onFailure.onFailure(new Exception("Campaign not found"));
+                }
+                return;
+            }
+            Campaign campaign = Campaign.fromSnapshot(doc);
+            if (campaign != null) {
+                setValue(campaign);
+            }
+        });
+    }
+
+    @Override
+    protected void onInactive() {
+        if (registration != null) {
+            registration.remove();
+            registration = null;
+        }
+    }
+}
@@ -0,0 +1,530 @@
+package com.example.donationapp.repository;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.example.donationapp.model.Campaign;
+import com.example.donationapp.util.CampaignFeedCache;
+import com.example.donationapp.util.CampaignListModel;
+import com.example.donationapp.util.CampaignSearchIndex;
+import com.example.donationapp.util.FirebaseHelper;
+import com.google.android.gms.tasks.OnFailureListener;
+import com.google.android.gms.tasks.OnSuccessListener;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Process-wide owner of the campaign feed
+ * Keeps a single Firestore listener shared by every screen, publishes immutable
+ * CampaignSnapshots, and stops listening a grace period after the last observer leaves
+ */
+public class CampaignRepository {
+    private static final String TAG = "CampaignRepository";
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    // Keeps the listener alive across quick screen switches and configuration changes
+    private static final long GRACE_PERIOD_MS = 30_000;
+    private static final String FEED_CACHE_FILE = "campaign_feed.bin";
+    // Amount and text changes reach the feed cache at most this often; new or reordered
+    // campaigns are written right away
+    private static final long PERSIST_DEBOUNCE_MS = 30_000;
+    private static CampaignRepository instance;
+
+    private final FirebaseHelper firebaseHelper;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final CampaignFeedLiveData feed = new CampaignFeedLiveData();
+    private final MutableLiveData<Exception> feedErrors = new MutableLiveData<>();
+    private final MutableLiveData<Boolean> isLoadingMore = new MutableLiveData<>(false);
+    private final Runnable stopListeningRunnable = this::stopListening;
+
+    private ListenerRegistration campaignsListener;
+    private final CampaignListModel campaignListModel = new CampaignListModel(); // Live first page
+    private List<Campaign> olderCampaigns = new ArrayList<>(); // Pages loaded after the first one
+    private Map<String, Campaign> olderCampaignsById = new HashMap<>();
+    private int pageSize = DEFAULT_PAGE_SIZE;
+    private DocumentSnapshot firstPageCursor; // Last document of the live first page
+    private DocumentSnapshot olderPagesCursor; // Last document of the most recent extra page
+    private boolean hasMoreCampaigns = true;
+    private boolean firstSnapshotPending;
+    private boolean lastSnapshotFromCache = true;
+
+    // Token index over the feed, only ever touched on searchExecutor
+    private final CampaignSearchIndex searchIndex = new CampaignSearchIndex();
+    private final ExecutorService searchExecutor = Executors.newSingleThreadExecutor();
+
+    // Last server-synced first page on disk, shown on cold start until the listener delivers
+    private CampaignFeedCache feedCache;
+    private final ExecutorService diskExecutor = Executors.newSingleThreadExecutor();
+    private boolean showingPersistedFeed;
+    private List<String> persistedIds; // First page ids in order, as last written (main thread)
+    private boolean persistScheduled;
+    private final Runnable persistLater = () -> {
+        persistScheduled = false;
+        writeFirstPage(campaignListModel.snapshot());
+    };
+
+    private CampaignRepository() {
+        firebaseHelper = FirebaseHelper.getInstance();
+    }
+
+    public static synchronized CampaignRepository getInstance() {
+        if (instance == null) {
+            instance = new CampaignRepository();
+        }
+        return instance;
+    }
+
+    /**
+     * Shared campaign feed; observing it keeps the Firestore listener running
+     */
+    public LiveData<CampaignSnapshot> getFeed() {
+        return feed;
+    }
+
+    /**
+     * Listener and paging errors; each error is delivered once and then cleared
+     */
+    public LiveData<Exception> getFeedErrors() {
+        return feedErrors;
+    }
+
+    public LiveData<Boolean> getIsLoadingMore() {
+        return isLoadingMore;
+    }
+
+    /**
+     * Set the number of campaigns per page (takes effect the next time listening starts)
+     */
+    public void setPageSize(int pageSize) {
+        if (pageSize > 0) {
+            this.pageSize = pageSize;
+        }
+    }
+
+    /**
+     * LiveData whose active-observer count doubles as the listener's reference count
+     */
+    private class CampaignFeedLiveData extends MutableLiveData<CampaignSnapshot> {
+        @Override
+        protected void onActive() {
+            mainHandler.removeCallbacks(stopListeningRunnable);
+            startListening();
+        }
+
+        @Override
+        protected void onInactive() {
+            mainHandler.postDelayed(stopListeningRunnable, GRACE_PERIOD_MS);
+        }
+    }
+
+    private void startListening() {
+        if (campaignsListener != null) {
+            return; // Already listening
+        }
+
+        // A new listener replays every document as ADDED, so start from an empty model
+        campaignListModel.reset(new ArrayList<>());
+        resetPaging();
+        firstSnapshotPending = true;
+
+        // Only the first page is live; older pages are fetched on demand
+        campaignsListener = firebaseHelper.listenToFirstCampaignsPage(pageSize, (snapshot, error) -> {
+            if (error != null) {
+                Log.e(TAG, "Error listening to campaigns", error);
+                publishError(error);
+                return;
+            }
+
+            if (snapshot != null) {
+                lastSnapshotFromCache = snapshot.getMetadata().isFromCache();
+                if (!lastSnapshotFromCache) {
+                    // The listener keeps the cached first page in sync with the server
+                    firebaseHelper.markFresh(firstPageCacheKey());
+                }
+                updateFirstPageCursor(snapshot);
+                // Only deserialize documents that actually changed
+                applyDocumentChanges(snapshot);
+                if (!lastSnapshotFromCache && !snapshot.getMetadata().hasPendingWrites()) {
+                    persistFirstPage();
+                }
+            }
+        });
+    }
+
+    private void stopListening() {
+        if (campaignsListener != null) {
+            campaignsListener.remove();
+            campaignsListener = null;
+            Log.d(TAG, "Campaign listener stopped after grace period");
+        }
+    }
+
+    /**
+     * Apply incremental document changes to the in-memory campaign model
+     */
+    private void applyDocumentChanges(QuerySnapshot snapshot) {
+        List<Campaign> indexUpdates = new ArrayList<>();
+        List<String> indexRemovals = new ArrayList<>();
+        boolean movedToOlderPages = false;
+        for (DocumentChange change : snapshot.getDocumentChanges()) {
+            DocumentSnapshot doc = change.getDocument();
+            String id = doc.getId();
+            switch (change.getType()) {
+                case ADDED: {
+                    Campaign campaign = toCampaign(doc);
+                    campaignListModel.add(id, campaign, change.getNewIndex());
+                    indexUpdates.add(campaign);
+                    break;
+                }
+                case MODIFIED: {
+                    Campaign campaign = toCampaign(doc);
+                    campaignListModel.modify(id, campaign, change.getOldIndex(), change.getNewIndex());
+                    indexUpdates.add(campaign);
+                    break;
+                }
+                case REMOVED:
+                    campaignListModel.remove(id, change.getOldIndex());
+                    if (olderCampaignsById.containsKey(id)) {
+                        break; // Still shown from the older page it was loaded with
+                    }
+                    if (olderPagesCursor != null && isPushedOffFirstPage(doc, snapshot)) {
+                        // A newer campaign pushed it past the live page; the older pages start
+                        // after the old cursor, so keep it at their front instead of losing it
+                        Campaign campaign = toCampaign(doc);
+                        olderCampaigns.add(0, campaign);
+                        olderCampaignsById.put(id, campaign);
+                        movedToOlderPages = true;
+                    } else {
+                        indexRemovals.add(id);
+                    }
+                    break;
+            }
+        }
+        updateSearchIndex(indexUpdates, indexRemovals);
+
+        if (firstSnapshotPending && showingPersistedFeed && snapshot.isEmpty()
+                && snapshot.getMetadata().isFromCache()) {
+            // Firestore's cache is cold; keep the persisted rows up until the server answers
+            return;
+        }
+        // The adapters diff each published list against the last one in the background
+        if (firstSnapshotPending || movedToOlderPages || !snapshot.getDocumentChanges().isEmpty()) {
+            firstSnapshotPending = false;
+            publishSnapshot();
+        }
+        // Otherwise it was a metadata-only snapshot, nothing to publish
+    }
+
+    /**
+     * Whether a document that left the live page still exists but now sorts after it
+     * A listener reports deletions and push-offs alike as REMOVED. A deleted row lets the page
+     * pull up a later one, so it sorts before the new last row, or the page is no longer full.
+     * A pushed-off row sorts after the last row of a full page. (A deletion of the last row in
+     * the same snapshot as a new campaign looks like a push-off; a refresh drops that row.)
+     */
+    private boolean isPushedOffFirstPage(DocumentSnapshot removed, QuerySnapshot snapshot) {
+        List<DocumentSnapshot> documents = snapshot.getDocuments();
+        if (documents.size() < pageSize) {
+            return false;
+        }
+        DocumentSnapshot last = documents.get(documents.size() - 1);
+        // Feed order is createdAt descending, ties broken by document id descending
+        int byDate = compareNullsFirst(removed.getTimestamp("createdAt"), last.getTimestamp("createdAt"));
+        if (byDate != 0) {
+            return byDate < 0;
+        }
+        return removed.getId().compareTo(last.getId()) < 0;
+    }
+
+    private static int compareNullsFirst(Timestamp a, Timestamp b) {
+        if (a == null || b == null) {
+            return a == null ? (b == null ? 0 : -1) : 1;
+        }
+        return a.compareTo(b);
+    }
+
+    /**
+     * Combine the live first page with any older pages and publish an immutable snapshot
+     */
+    private void publishSnapshot() {
+        List<Campaign> firstPage = campaignListModel.snapshot();
+        List<Campaign> combined = new ArrayList<>(firstPage.size() + olderCampaigns.size());
+        combined.addAll(firstPage);
+        for (Campaign campaign : olderCampaigns) {
+            // Skip campaigns that moved into the live page since they were loaded
+            if (campaignListModel.get(campaign.getId()) == null) {
+                combined.add(campaign);
+            }
+        }
+        showingPersistedFeed = false;
+        feed.setValue(new CampaignSnapshot(combined, hasMoreCampaigns));
+    }
+
+    /**
+     * Publish the last persisted first page if nothing live has been published yet
+     * Safe to call more than once; only the first call reads the file
+     */
+    public void restorePersistedFeed(Context context) {
+        if (feedCache != null) {
+            return;
+        }
+        feedCache = new CampaignFeedCache(new File(context.getFilesDir(), FEED_CACHE_FILE));
+        CampaignFeedCache cache = feedCache;
+        diskExecutor.execute(() -> {
+            List<Campaign> persisted;
+            try {
+                persisted = cache.read();
+            } catch (IOException e) {
+                Log.e(TAG, "Error reading persisted campaign feed", e);
+                return;
+            }
+            if (persisted.isEmpty()) {
+                return;
+            }
+            mainHandler.post(() -> {
+                if (feed.getValue() == null) {
+                    // Placeholder rows only: not indexed for search and never paged from
+                    showingPersistedFeed = true;
+                    feed.setValue(new CampaignSnapshot(persisted, false));
+                }
+            });
+        });
+    }
+
+    /**
+     * Write the live first page to disk for the next cold start
+     * Snapshots that only change amounts or text are coalesced, since every write is an fsync
+     */
+    private void persistFirstPage() {
+        if (feedCache == null) {
+            return; // Persistence not set up by the UI
+        }
+        List<Campaign> firstPage = campaignListModel.snapshot();
+        if (!idsOf(firstPage).equals(persistedIds)) {
+            mainHandler.removeCallbacks(persistLater);
+            persistScheduled = false;
+            writeFirstPage(firstPage);
+        } else if (!persistScheduled) {
+            persistScheduled = true;
+            mainHandler.postDelayed(persistLater, PERSIST_DEBOUNCE_MS);
+        }
+    }
+
+    private void writeFirstPage(List<Campaign> firstPage) {
+        CampaignFeedCache cache = feedCache;
+        persistedIds = idsOf(firstPage);
+        diskExecutor.execute(() -> {
+            try {
+                cache.write(firstPage);
+            } catch (IOException e) {
+                Log.e(TAG, "Error persisting campaign feed", e);
+            }
+        });
+    }
+
+    private static List<String> idsOf(List<Campaign> campaigns) {
+        List<String> ids = new ArrayList<>(campaigns.size());
+        for (Campaign campaign : campaigns) {
+            ids.add(campaign.getId());
+        }
+        return ids;
+    }
+
+    private void publishError(Exception exception) {
+        feedErrors.setValue(exception);
+        // One-shot: don't replay an old error to screens that start observing later
+        feedErrors.setValue(null);
+    }
+
+    private void updateFirstPageCursor(QuerySnapshot snapshot) {
+        List<DocumentSnapshot> documents = snapshot.getDocuments();
+        firstPageCursor = documents.isEmpty() ? null : documents.get(documents.size() - 1);
+        if (olderCampaigns.isEmpty()) {
+            hasMoreCampaigns = documents.size() >= pageSize;
+        }
+    }
+
+    private void resetPaging() {
+        olderCampaigns = new ArrayList<>();
+        olderCampaignsById = new HashMap<>();
+        olderPagesCursor = null;
+        firstPageCursor = null;
+        hasMoreCampaigns = true;
+        searchExecutor.execute(searchIndex::clear);
+    }
+
+    /**
+     * Load the next page of campaigns after the ones already in the feed
+     */
+    public void loadMoreCampaigns() {
+        if (!hasMoreCampaigns || Boolean.TRUE.equals(isLoadingMore.getValue())) {
+            return;
+        }
+        DocumentSnapshot cursor = olderPagesCursor != null ? olderPagesCursor : firstPageCursor;
+        if (cursor == null) {
+            return; // First page not delivered yet
+        }
+
+        isLoadingMore.setValue(true);
+        firebaseHelper.getCampaignsPage(cursor, pageSize,
+                querySnapshot -> {
+                    List<DocumentSnapshot> documents = querySnapshot.getDocuments();
+                    List<Campaign> indexUpdates = new ArrayList<>();
+                    for (DocumentSnapshot doc : documents) {
+                        Campaign campaign = toCampaign(doc);
+                        olderCampaigns.add(campaign);
+                        olderCampaignsById.put(campaign.getId(), campaign);
+                        if (campaignListModel.get(campaign.getId()) == null) {
+                            indexUpdates.add(campaign);
+                        }
+                    }
+                    updateSearchIndex(indexUpdates, new ArrayList<>());
+                    if (!documents.isEmpty()) {
+                        olderPagesCursor = documents.get(documents.size() - 1);
+                    }
+                    hasMoreCampaigns = documents.size() >= pageSize;
+                    publishSnapshot();
+                    isLoadingMore.setValue(false);
+                },
+                exception -> {
+                    Log.e(TAG, "Error loading more campaigns", exception);
+                    publishError(exception);
+                    isLoadingMore.setValue(false);
+                });
+    }
+
+    /**
+     * Reload the first page of campaigns once (non-real-time)
+     * While a server-synced listener is running the feed is already current, so this costs no reads
+     * unless forceServer is set; otherwise the cache is served first and revalidated after the TTL
+     */
+    public void refresh(boolean forceServer, OnSuccessListener<Void> onSuccess, OnFailureListener onFailure) {
+        if (!forceServer && campaignsListener != null && !lastSnapshotFromCache) {
+            if (onSuccess != null) {
+                onSuccess.onSuccess(null);
+            }
+            return;
+        }
+
+        firebaseHelper.getWithFreshness(
+                firebaseHelper.getCampaignFeedQuery().limit(pageSize),
+                firstPageCacheKey(),
+                forceServer,
+                querySnapshot -> {
+                    List<Campaign> campaignList = new ArrayList<>();
+                    resetPaging();
+                    if (querySnapshot != null && !querySnapshot.isEmpty()) {
+                        for (DocumentSnapshot doc : querySnapshot.getDocuments()) {
+                            campaignList.add(toCampaign(doc));
+                        }
+                        updateFirstPageCursor(querySnapshot);
+                    } else {
+                        hasMoreCampaigns = false;
+                    }
+                    campaignListModel.reset(campaignList);
+                    updateSearchIndex(campaignList, new ArrayList<>());
+                    publishSnapshot();
+                    if (onSuccess != null) {
+                        onSuccess.onSuccess(null);
+                    }
+                },
+                exception -> {
+                    Log.e(TAG, "Error refreshing campaigns", exception);
+                    if (onFailure != null) {
+                        onFailure.onFailure(exception);
+                    }
+                });
+    }
+
+    /**
+     * Get the full campaign document by ID
+     * The feed only holds summaries, so this always goes to Firestore (or its local cache)
+     */
+    public void loadCampaign(String campaignId,
+                             OnSuccessListener<Campaign> onSuccess,
+                             OnFailureListener onFailure) {
+        firebaseHelper.getCampaign(campaignId, onSuccess, onFailure);
+    }
+
+    /**
+     * Live subscription to one full campaign document
+     * Seeded from the feed's summary so the screen can draw at once; the full description follows
+     */
+    public CampaignDocumentLiveData observeCampaign(String campaignId, OnFailureListener onFailure) {
+        return new CampaignDocumentLiveData(campaignId, getCachedSummary(campaignId), onFailure);
+    }
+
+    /**
+     * Campaign summary from the in-memory feed, or null if absent or no longer kept fresh
+     */
+    public Campaign getCachedSummary(String campaignId) {
+        if (campaignsListener == null || campaignId == null) {
+            return null;
+        }
+        Campaign campaign = campaignListModel.get(campaignId);
+        return campaign != null ? campaign : olderCampaignsById.get(campaignId);
+    }
+
+    /**
+     * Search the feed's token index on the search executor
+     * onResults is called on that executor, and not at all if the search was cancelled
+     */
+    public void search(String query, BooleanSupplier isCancelled, OnSuccessListener<List<Campaign>> onResults) {
+        searchExecutor.execute(() -> {
+            if (isCancelled.getAsBoolean()) {
+                return; // Superseded before it started
+            }
+            List<Campaign> results = searchIndex.search(query, isCancelled);
+            if (results != null) {
+                onResults.onSuccess(results);
+            }
+        });
+    }
+
+    /**
+     * Queue index changes on the search executor so they are ordered with searches
+     */
+    private void updateSearchIndex(List<Campaign> updates, List<String> removals) {
+        if (updates.isEmpty() && removals.isEmpty()) {
+            return;
+        }
+        searchExecutor.execute(() -> {
+            for (String id : removals) {
+                searchIndex.remove(id);
+            }
+            for (Campaign campaign : updates) {
+                searchIndex.put(campaign);
+            }
+        });
+    }
+
+    private String firstPageCacheKey() {
+        return "campaigns/first/" + pageSize;
+    }
+
+    private Campaign toCampaign(DocumentSnapshot doc) {
+        Campaign campaign = Campaign.fromSnapshot(doc);
+        if (campaign == null) {
+            campaign = new Campaign();
+            campaign.setId(doc.getId());
+        }
+        return campaign;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.donationapp.repository;
+
+import com.example.donationapp.model.Campaign;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable view of the shared campaign feed published by CampaignRepository
+ */
+public final class CampaignSnapshot {
+    private final List<Campaign> campaigns;
+    private final boolean hasMore;
+
+    CampaignSnapshot(List<Campaign> campaigns, boolean hasMore) {
+        this.campaigns = Collections.unmodifiableList(new ArrayList<>(campaigns));
+        this.hasMore = hasMore;
+    }
+
+    /**
+     * Campaigns in feed order (live first page followed by any older pages)
+     */
+    public List<Campaign> getCampaigns() {
+        return campaigns;
+    }
+
+    public boolean hasMore() {
+        return hasMore;
+    }
+}
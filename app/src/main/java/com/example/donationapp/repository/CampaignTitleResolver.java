@@ -0,0 +1,131 @@
+package com.example.donationapp.repository;
+
+import com.example.donationapp.model.Campaign;
+import com.example.donationapp.util.CampaignTitleCache;
+import com.example.donationapp.util.FirebaseHelper;
+import com.google.firebase.firestore.DocumentSnapshot;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Process-wide lookup of campaign titles for screens that only hold campaign ids
+ * Titles come from the in-memory feed when it has them; the rest are fetched in chunks of
+ * up to 30 ids per query and kept in a bounded LRU. Main thread only
+ */
+public class CampaignTitleResolver {
+    private static final int MAX_CACHED_TITLES = 500;
+    private static CampaignTitleResolver instance;
+
+    private final FirebaseHelper firebaseHelper;
+    private final CampaignTitleCache cache = new CampaignTitleCache(MAX_CACHED_TITLES);
+    // Lookup each in-flight id belongs to, so overlapping requests share one query
+    private final Map<String, PendingLookup> inFlight = new HashMap<>();
+
+    private CampaignTitleResolver() {
+        firebaseHelper = FirebaseHelper.getInstance();
+    }
+
+    public static synchronized CampaignTitleResolver getInstance() {
+        if (instance == null) {
+            instance = new CampaignTitleResolver();
+        }
+        return instance;
+    }
+
+    /**
+     * Titles already known for the given ids; unknown and deleted campaigns are left out
+     */
+    public Map<String, String> getKnownTitles(Collection<String> campaignIds) {
+        Map<String, String> titles = new HashMap<>();
+        for (String campaignId : campaignIds) {
+            String title = getKnownTitle(campaignId);
+            if (title != null) {
+                titles.put(campaignId, title);
+            }
+        }
+        return titles;
+    }
+
+    /**
+     * Fetch titles for the ids not known yet
+     * onResolved runs each time one of the queries covering these ids completes or fails; it is
+     * not called at all if every title was already known
+     */
+    public void resolve(Collection<String> campaignIds, Runnable onResolved) {
+        Set<String> toFetch = new LinkedHashSet<>();
+        Set<PendingLookup> joined = new LinkedHashSet<>();
+        for (String campaignId : campaignIds) {
+            if (campaignId == null || getKnownTitle(campaignId) != null || cache.contains(campaignId)) {
+                continue;
+            }
+            PendingLookup pending = inFlight.get(campaignId);
+            if (pending != null) {
+                joined.add(pending);
+            } else {
+                toFetch.add(campaignId);
+            }
+        }
+        for (PendingLookup pending : joined) {
+            pending.callbacks.add(onResolved);
+        }
+        for (List<String> chunk : cache.unresolvedChunks(toFetch, FirebaseHelper.MAX_WHERE_IN_VALUES)) {
+            fetch(chunk, onResolved);
+        }
+    }
+
+    private String getKnownTitle(String campaignId) {
+        if (campaignId == null) {
+            return null;
+        }
+        // The live feed wins so a renamed campaign does not keep its old title from the LRU
+        Campaign summary = CampaignRepository.getInstance().getCachedSummary(campaignId);
+        if (summary != null && summary.getTitle() != null) {
+            cache.put(campaignId, summary.getTitle());
+            return summary.getTitle();
+        }
+        return cache.get(campaignId);
+    }
+
+    private void fetch(List<String> chunk, Runnable onResolved) {
+        PendingLookup pending = new PendingLookup();
+        pending.callbacks.add(onResolved);
+        for (String campaignId : chunk) {
+            inFlight.put(campaignId, pending);
+        }
+        firebaseHelper.getCampaignSummariesByIds(chunk,
+                querySnapshot -> {
+                    for (String campaignId : chunk) {
+                        inFlight.remove(campaignId);
+                        cache.put(campaignId, null); // Missing unless found below
+                    }
+                    for (DocumentSnapshot doc : querySnapshot.getDocuments()) {
+                        cache.put(doc.getId(), doc.getString("title"));
+                    }
+                    for (Runnable callback : pending.callbacks) {
+                        callback.run();
+                    }
+                },
+                exception -> {
+                    // Left unresolved, so the next request for these ids tries again; callers
+                    // still hear back and show their fallback (the campaign id) meanwhile
+                    for (String campaignId : chunk) {
+                        inFlight.remove(campaignId);
+                    }
+                    for (Runnable callback : pending.callbacks) {
+                        callback.run();
+                    }
+                });
+    }
+
+    /**
+     * One chunk query and everyone waiting on it
+     */
+    private static class PendingLookup {
+        final Set<Runnable> callbacks = new LinkedHashSet<>();
+    }
+}
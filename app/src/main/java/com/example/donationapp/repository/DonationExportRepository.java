@@ -0,0 +1,227 @@
+package com.example.donationapp.repository;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.example.donationapp.model.Donation;
+import com.example.donationapp.util.DonationCsvWriter;
+import com.example.donationapp.util.FirebaseHelper;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentSnapshot;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Admin export of every donation to files/exports/donations.csv
+ * Reads one page of donations at a time in date order and hands it to DonationCsvWriter on a
+ * disk thread before asking for the next, so only a single page is ever held in memory.
+ * The writer checkpoints after each page; an export interrupted by process death or an error
+ * resumes from its last page the next time it is started. Donations stored with a null date
+ * come first and are exported with an empty date. Main thread only
+ */
+public class DonationExportRepository {
+    private static final String TAG = "DonationExportRepo";
+    private static final int PAGE_SIZE = 500;
+    private static final String EXPORT_DIR = "exports";
+    private static final String EXPORT_FILE = "donations.csv";
+    private static DonationExportRepository instance;
+
+    /**
+     * Export progress, delivered on the main thread
+     */
+    public interface Listener {
+        void onProgress(long rowsWritten);
+
+        void onComplete(File file, long rowsWritten);
+
+        void onError(Exception e);
+    }
+
+    private final FirebaseHelper firebaseHelper;
+    private final ExecutorService diskExecutor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private DonationCsvWriter writer; // Only used on diskExecutor
+    private Listener listener;
+    private boolean running;
+
+    private DonationExportRepository() {
+        firebaseHelper = FirebaseHelper.getInstance();
+    }
+
+    public static synchronized DonationExportRepository getInstance() {
+        if (instance == null) {
+            instance = new DonationExportRepository();
+        }
+        return instance;
+    }
+
+    public static File getExportFile(Context context) {
+        return new File(new File(context.getFilesDir(), EXPORT_DIR), EXPORT_FILE);
+    }
+
+    /**
+     * Whether an earlier export stopped before finishing and will be resumed
+     */
+    public boolean hasUnfinishedExport(Context context) {
+        return DonationCsvWriter.isUnfinished(getExportFile(context));
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Resume the unfinished export, or start a new one replacing the last finished file
+     * If an export is already running, the listener takes over its progress reports
+     */
+    public void export(Context context, Listener listener) {
+        this.listener = listener;
+        if (running) {
+            return;
+        }
+        running = true;
+        File file = getExportFile(context);
+        diskExecutor.execute(() -> {
+            try {
+                writer = open(file);
+                long rows = writer.getRowsWritten();
+                Timestamp afterDate = cursorDate(writer);
+                String afterId = writer.getCursorDonationId();
+                mainHandler.post(() -> {
+                    notifyProgress(rows);
+                    fetchPage(afterDate, afterId);
+                });
+            } catch (IOException e) {
+                fail(e);
+            }
+        });
+    }
+
+    /**
+     * Stop delivering progress to this listener; the export keeps running
+     */
+    public void detach(Listener listener) {
+        if (this.listener == listener) {
+            this.listener = null;
+        }
+    }
+
+    private static DonationCsvWriter open(File file) throws IOException {
+        File dir = file.getParentFile();
+        if (dir != null && !dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Could not create " + dir);
+        }
+        if (!DonationCsvWriter.isUnfinished(file)) {
+            DonationCsvWriter.discard(file);
+            return new DonationCsvWriter(file);
+        }
+        try {
+            return new DonationCsvWriter(file);
+        } catch (IOException e) {
+            // The file no longer matches its checkpoint; start over rather than fail every time
+            Log.e(TAG, "Could not resume export, starting over", e);
+            DonationCsvWriter.discard(file);
+            return new DonationCsvWriter(file);
+        }
+    }
+
+    private void fetchPage(Timestamp afterDate, String afterId) {
+        firebaseHelper.getDonationsExportPage(afterDate, afterId, PAGE_SIZE,
+                querySnapshot -> {
+                    List<Donation> page = new ArrayList<>(querySnapshot.size());
+                    for (DocumentSnapshot doc : querySnapshot.getDocuments()) {
+                        Donation donation = Donation.fromSnapshot(doc);
+                        if (donation != null) {
+                            page.add(donation);
+                        }
+                    }
+                    boolean lastPage = querySnapshot.size() < PAGE_SIZE;
+                    diskExecutor.execute(() -> writePage(page, lastPage));
+                },
+                e -> diskExecutor.execute(() -> fail(e)));
+    }
+
+    /**
+     * Runs on diskExecutor: append a page, checkpoint it and ask for the next one
+     */
+    private void writePage(List<Donation> page, boolean lastPage) {
+        try {
+            for (Donation donation : page) {
+                Timestamp date = donation.getDate();
+                if (date != null) {
+                    writer.writeRow(donation.getId(), date.getSeconds(), date.getNanoseconds(),
+                            donation.getCampaignId(), donation.getUserId(), donation.getAmountCents());
+                } else {
+                    writer.writeUndatedRow(donation.getId(), donation.getCampaignId(),
+                            donation.getUserId(), donation.getAmountCents());
+                }
+            }
+            long rows = writer.getRowsWritten();
+            if (lastPage) {
+                writer.finish();
+                writer.close();
+                File file = writer.getFile();
+                writer = null;
+                mainHandler.post(() -> {
+                    running = false;
+                    if (listener != null) {
+                        listener.onComplete(file, rows);
+                    }
+                });
+                return;
+            }
+            if (!writer.hasCursor()) {
+                // Every query result is written, so a full page always moves the cursor
+                throw new IOException("Export page did not advance the cursor");
+            }
+            writer.endPage();
+            Timestamp afterDate = cursorDate(writer);
+            String afterId = writer.getCursorDonationId();
+            mainHandler.post(() -> {
+                notifyProgress(rows);
+                fetchPage(afterDate, afterId);
+            });
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private static Timestamp cursorDate(DonationCsvWriter writer) {
+        return writer.isCursorDated()
+                ? new Timestamp(writer.getCursorSeconds(), writer.getCursorNanos()) : null;
+    }
+
+    /**
+     * Runs on diskExecutor: close the writer, keeping its checkpoint for the next attempt
+     */
+    private void fail(Exception e) {
+        Log.e(TAG, "Donation export stopped", e);
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException closeError) {
+                Log.e(TAG, "Error closing export", closeError);
+            }
+            writer = null;
+        }
+        mainHandler.post(() -> {
+            running = false;
+            if (listener != null) {
+                listener.onError(e);
+            }
+        });
+    }
+
+    private void notifyProgress(long rows) {
+        if (listener != null) {
+            listener.onProgress(rows);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.donationapp.repository;
+
+import android.util.Log;
+
+import com.example.donationapp.util.DonationOutbox;
+import com.google.android.gms.tasks.OnFailureListener;
+import com.google.android.gms.tasks.OnSuccessListener;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.Predicate;
+
+/**
+ * Sends one user's journaled donations in batches and settles each of them
+ * A committed batch is marked done in the journal. A batch the rules reject is halved until
+ * each rejected donation is alone; one that already exists was committed before the process
+ * died, so it counts as sent; a sharded one is sent again unsharded in case the campaign's
+ * shard count was lowered; any other is dropped. Donations settled by this process are
+ * remembered, so a journal that can't record them is not sent again on every flush.
+ * DonationRepository supplies the threads and the network
+ */
+class DonationFlusher {
+    private static final String TAG = "DonationFlusher";
+    // Security rules match each campaign total, counter shard and bucket increment to one donation, so
+    // a batch holds one donation per campaign. The rules read up to five documents per donation
+    // and a batched write may make 20 reads
+    static final int MAX_DONATIONS_PER_BATCH = 3;
+
+    /**
+     * The Firestore calls a flush makes
+     */
+    interface Sender {
+        void commitDonationBatch(List<DonationOutbox.Entry> batch,
+                                 OnSuccessListener<Void> onSuccess,
+                                 OnFailureListener onFailure);
+
+        void donationExists(String donationId,
+                            OnSuccessListener<Boolean> onSuccess,
+                            OnFailureListener onFailure);
+    }
+
+    /**
+     * Outcome of a flush, delivered on the main executor
+     */
+    interface Callback {
+        /**
+         * The donation reached Firestore (rejection null) or was dropped
+         */
+        void onSettled(DonationOutbox.Entry entry, Exception rejection);
+
+        /**
+         * A transient error stopped the flush; the rest stays journaled
+         */
+        void onRetryLater();
+
+        /**
+         * Every donation was handled; sentAny is true if there were any to send
+         */
+        void onFinished(boolean sentAny);
+    }
+
+    private final DonationOutbox outbox;
+    private final Sender sender;
+    private final Executor diskExecutor;
+    private final Executor mainExecutor;
+    private final Predicate<Exception> isRejection;
+    // Entries settled by this process, by seq, in case the journal failed to record them
+    // (diskExecutor only)
+    private final Set<Long> settled = new HashSet<>();
+
+    DonationFlusher(DonationOutbox outbox, Sender sender, Executor diskExecutor, Executor mainExecutor,
+                    Predicate<Exception> isRejection) {
+        this.outbox = outbox;
+        this.sender = sender;
+        this.diskExecutor = diskExecutor;
+        this.mainExecutor = mainExecutor;
+        this.isRejection = isRejection;
+    }
+
+    /**
+     * Send userId's pending donations; another account's wait until that account signs in again
+     */
+    void flush(String userId, Callback callback) {
+        diskExecutor.execute(() -> {
+            List<DonationOutbox.Entry> pending = new ArrayList<>();
+            for (DonationOutbox.Entry entry : outbox.pending()) {
+                if (userId.equals(entry.getUserId()) && !settled.contains(entry.getSeq())) {
+                    pending.add(entry);
+                }
+            }
+            mainExecutor.execute(() -> flushFrom(pending, 0, callback));
+        });
+    }
+
+    /**
+     * Commit pending[start..] one batch at a time
+     */
+    private void flushFrom(List<DonationOutbox.Entry> pending, int start, Callback callback) {
+        if (start >= pending.size()) {
+            callback.onFinished(!pending.isEmpty());
+            return;
+        }
+        int end = batchEnd(pending, start);
+        sendRange(pending, start, end, callback, () -> flushFrom(pending, end, callback));
+    }
+
+    /**
+     * Commit pending[start..end) as one batch, then run next
+     * A rejected batch is split in half until the rejected donations are isolated; the batches
+     * after it are full size again
+     */
+    private void sendRange(List<DonationOutbox.Entry> pending, int start, int end, Callback callback,
+                           Runnable next) {
+        List<DonationOutbox.Entry> batch = pending.subList(start, end);
+        sender.commitDonationBatch(batch,
+                aVoid -> markDone(batch, null, callback, next),
+                e -> {
+                    if (!isRejection.test(e)) {
+                        callback.onRetryLater();
+                    } else if (batch.size() > 1) {
+                        int mid = (start + end) >>> 1;
+                        sendRange(pending, start, mid, callback,
+                                () -> sendRange(pending, mid, end, callback, next));
+                    } else {
+                        resolveRejection(batch, e, callback, next);
+                    }
+                });
+    }
+
+    /**
+     * A single donation was denied: it is either a replay of one already recorded (the rules
+     * only allow creating donations), a sharded write to a campaign no longer sharded, or a
+     * real rejection that is dropped
+     */
+    private void resolveRejection(List<DonationOutbox.Entry> batch, Exception rejection, Callback callback,
+                                  Runnable next) {
+        DonationOutbox.Entry entry = batch.get(0);
+        String donationId = entry.getDonationId();
+        sender.donationExists(donationId,
+                exists -> {
+                    if (exists) {
+                        Log.d(TAG, "Donation " + donationId + " was already recorded");
+                        markDone(batch, null, callback, next);
+                    } else if (entry.getShardCount() > 1) {
+                        // The shard count came from the campaign the donor had loaded; an admin
+                        // may have lowered it since, and then the rules want the campaign total
+                        sendUnsharded(batch, callback, next);
+                    } else {
+                        Log.e(TAG, "Donation " + donationId + " rejected, dropping it", rejection);
+                        markDone(batch, rejection, callback, next);
+                    }
+                },
+                e -> callback.onRetryLater());
+    }
+
+    private void sendUnsharded(List<DonationOutbox.Entry> batch, Callback callback, Runnable next) {
+        DonationOutbox.Entry entry = batch.get(0);
+        sender.commitDonationBatch(Collections.singletonList(entry.unsharded()),
+                aVoid -> markDone(batch, null, callback, next),
+                e -> {
+                    if (!isRejection.test(e)) {
+                        callback.onRetryLater();
+                    } else {
+                        Log.e(TAG, "Donation " + entry.getDonationId() + " rejected, dropping it", e);
+                        markDone(batch, e, callback, next);
+                    }
+                });
+    }
+
+    /**
+     * End of the batch starting at start: at most MAX_DONATIONS_PER_BATCH donations, to
+     * distinct campaigns
+     */
+    static int batchEnd(List<DonationOutbox.Entry> pending, int start) {
+        Set<String> campaigns = new HashSet<>();
+        int end = start;
+        while (end < pending.size() && end - start < MAX_DONATIONS_PER_BATCH
+                && campaigns.add(pending.get(end).getCampaignId())) {
+            end++;
+        }
+        return end;
+    }
+
+    private void markDone(List<DonationOutbox.Entry> batch, Exception rejection, Callback callback,
+                          Runnable next) {
+        diskExecutor.execute(() -> {
+            for (DonationOutbox.Entry entry : batch) {
+                settled.add(entry.getSeq());
+            }
+            try {
+                outbox.markDone(batch);
+            } catch (IOException e) {
+                // Sent again after a restart, where the replay is recognised as already recorded
+                Log.e(TAG, "Error marking donations done", e);
+            }
+            mainExecutor.execute(() -> {
+                for (DonationOutbox.Entry entry : batch) {
+                    callback.onSettled(entry, rejection);
+                }
+                next.run();
+            });
+        });
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.donationapp.repository;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.example.donationapp.util.DonationOutbox;
+import com.example.donationapp.util.FirebaseHelper;
+import com.google.android.gms.tasks.OnFailureListener;
+import com.google.android.gms.tasks.OnSuccessListener;
+import com.google.firebase.auth.FirebaseUser;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Durable path for new donations
+ * Each donation is journaled to a DonationOutbox before it touches the network; the journal is
+ * drained in batched writes whenever the device is online, including after process death
+ */
+public class DonationRepository {
+    private static final String TAG = "DonationRepository";
+    private static final String OUTBOX_FILE = "donation_outbox.log";
+    // Automatic retry after transient errors; safe because donation writes are idempotent
+    private static final long INITIAL_RETRY_DELAY_MS = 2_000;
+    private static final long MAX_RETRY_DELAY_MS = 5 * 60 * 1000;
+    private static DonationRepository instance;
+
+    private final FirebaseHelper firebaseHelper;
+    private final ConnectivityManager connectivityManager;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ExecutorService diskExecutor = Executors.newSingleThreadExecutor();
+    // Callers waiting for their donation to reach Firestore, by donation id (main thread only)
+    private final Map<String, Callbacks> waiting = new HashMap<>();
+    private DonationOutbox outbox; // Opened on diskExecutor; null if the journal can't be opened
+    private DonationFlusher flusher; // diskExecutor only; null with outbox
+    private boolean flushing; // Main thread only
+    private long retryDelayMs = INITIAL_RETRY_DELAY_MS;
+    private final Runnable retryFlush = this::flush;
+    private final DonationFlusher.Callback flushCallback = new DonationFlusher.Callback() {
+        @Override
+        public void onSettled(DonationOutbox.Entry entry, Exception rejection) {
+            Callbacks callbacks = waiting.remove(entry.getDonationId());
+            if (callbacks != null) {
+                callbacks.deliver(rejection);
+            }
+        }
+
+        @Override
+        public void onRetryLater() {
+            retryLater();
+        }
+
+        @Override
+        public void onFinished(boolean sentAny) {
+            flushing = false;
+            retryDelayMs = INITIAL_RETRY_DELAY_MS;
+            if (sentAny) {
+                flush(); // Donations journaled while this flush ran
+            }
+        }
+    };
+
+    private DonationRepository(Context context) {
+        firebaseHelper = FirebaseHelper.getInstance();
+        connectivityManager = context.getSystemService(ConnectivityManager.class);
+        File file = new File(context.getFilesDir(), OUTBOX_FILE);
+        diskExecutor.execute(() -> {
+            try {
+                outbox = new DonationOutbox(file);
+                flusher = new DonationFlusher(outbox, firebaseSender(), diskExecutor, mainHandler::post,
+                        DonationRepository::isRejection);
+            } catch (IOException e) {
+                Log.e(TAG, "Error opening donation outbox", e);
+            }
+        });
+        connectivityManager.registerDefaultNetworkCallback(new ConnectivityManager.NetworkCallback() {
+            @Override
+            public void onAvailable(@NonNull Network network) {
+                mainHandler.post(DonationRepository.this::flush);
+            }
+        });
+    }
+
+    public static synchronized DonationRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new DonationRepository(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Journal a donation and send it
+     * donationId is the idempotency key from FirebaseHelper.newDonationId(), created once per
+     * donation attempt and reused when the user taps Donate again; it is counted at most once.
+     * onSuccess receives true once Firestore has the donation, or false when it is saved on the
+     * device and will be sent later; onFailure means it was not saved, or Firestore rejected it
+     */
+    public void donate(String donationId, String campaignId, int shardCount, long amountCents,
+                       String userId,
+                       OnSuccessListener<Boolean> onSuccess,
+                       OnFailureListener onFailure) {
+        diskExecutor.execute(() -> {
+            try {
+                if (outbox == null) {
+                    throw new IOException("Donation outbox unavailable");
+                }
+                outbox.append(donationId, campaignId, shardCount, userId, amountCents);
+            } catch (IOException e) {
+                Log.e(TAG, "Error journaling donation", e);
+                mainHandler.post(() -> {
+                    if (onFailure != null) {
+                        onFailure.onFailure(e);
+                    }
+                });
+                return;
+            }
+            mainHandler.post(() -> {
+                if (!isOnline()) {
+                    if (onSuccess != null) {
+                        onSuccess.onSuccess(false);
+                    }
+                    return;
+                }
+                waiting.put(donationId, new Callbacks(onSuccess, onFailure));
+                if (flushing) {
+                    // The running flush picks up new entries when it finishes
+                    return;
+                }
+                flush();
+            });
+        });
+    }
+
+    /**
+     * Send the signed-in user's journaled donations; does nothing offline or while a flush runs
+     */
+    public void flush() {
+        FirebaseUser user = firebaseHelper.getCurrentUser();
+        if (flushing || user == null || !isOnline()) {
+            return;
+        }
+        mainHandler.removeCallbacks(retryFlush);
+        flushing = true;
+        String userId = user.getUid();
+        diskExecutor.execute(() -> {
+            if (flusher == null) {
+                mainHandler.post(() -> flushing = false);
+                return;
+            }
+            flusher.flush(userId, flushCallback);
+        });
+    }
+
+    /**
+     * Stop this flush and try again with exponential backoff; entries stay journaled
+     */
+    private void retryLater() {
+        flushing = false;
+        notifyQueued();
+        // Jitter keeps many devices from retrying in lockstep after an outage
+        long delay = retryDelayMs / 2 + (long) (Math.random() * retryDelayMs / 2);
+        mainHandler.postDelayed(retryFlush, delay);
+        retryDelayMs = Math.min(retryDelayMs * 2, MAX_RETRY_DELAY_MS);
+    }
+
+    private DonationFlusher.Sender firebaseSender() {
+        return new DonationFlusher.Sender() {
+            @Override
+            public void commitDonationBatch(List<DonationOutbox.Entry> batch,
+                                            OnSuccessListener<Void> onSuccess,
+                                            OnFailureListener onFailure) {
+                firebaseHelper.commitDonationBatch(batch, onSuccess, onFailure);
+            }
+
+            @Override
+            public void donationExists(String donationId,
+                                       OnSuccessListener<Boolean> onSuccess,
+                                       OnFailureListener onFailure) {
+                firebaseHelper.donationExists(donationId, onSuccess, onFailure);
+            }
+        };
+    }
+
+    /**
+     * Tell every waiting caller their donation is saved but not sent yet
+     */
+    private void notifyQueued() {
+        List<Callbacks> callbacks = new ArrayList<>(waiting.values());
+        waiting.clear();
+        for (Callbacks callback : callbacks) {
+            if (callback.onSuccess != null) {
+                callback.onSuccess.onSuccess(false);
+            }
+        }
+    }
+
+    /**
+     * Errors that retrying can't fix, such as rules rejecting the donation or a deleted campaign
+     */
+    private static boolean isRejection(Exception e) {
+        if (!(e instanceof FirebaseFirestoreException)) {
+            return false;
+        }
+        FirebaseFirestoreException.Code code = ((FirebaseFirestoreException) e).getCode();
+        return code == FirebaseFirestoreException.Code.PERMISSION_DENIED
+                || code == FirebaseFirestoreException.Code.NOT_FOUND
+                || code == FirebaseFirestoreException.Code.INVALID_ARGUMENT;
+    }
+
+    private boolean isOnline() {
+        Network network = connectivityManager.getActiveNetwork();
+        NetworkCapabilities capabilities = network != null
+                ? connectivityManager.getNetworkCapabilities(network) : null;
+        return capabilities != null && capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET);
+    }
+
+    private static final class Callbacks {
+        final OnSuccessListener<Boolean> onSuccess;
+        final OnFailureListener onFailure;
+
+        Callbacks(OnSuccessListener<Boolean> onSuccess, OnFailureListener onFailure) {
+            this.onSuccess = onSuccess;
+            this.onFailure = onFailure;
+        }
+
+        void deliver(Exception rejection) {
+            if (rejection == null) {
+                if (onSuccess != null) {
+                    onSuccess.onSuccess(true);
+                }
+            } else if (onFailure != null) {
+                onFailure.onFailure(rejection);
+            }
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.donationapp.util;
+
+import com.example.donationapp.model.Campaign;
+import com.google.firebase.Timestamp;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary snapshot of the last rendered campaign page, used to paint the
+ * home list on cold start before Firebase has answered
+ *
+ * Layout (big-endian):
+ *   header   MAGIC, VERSION, record count, string table offset (4 x int)
+ *   records  RECORD_SIZE bytes each: id, title, description, imageUrl, createdBy
+ *            string refs (int), goalCents, collectedCents (long),
+ *            createdAt seconds (long) and nanos (int)
+ *   strings  length-prefixed UTF-8, referenced by offset from the table start (-1 = null)
+ */
+public class CampaignFeedCache {
+    private static final int MAGIC = 0x43464431; // "CFD1"
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 16;
+    private static final int RECORD_SIZE = 5 * 4 + 2 * 8 + 8 + 4;
+    private static final int NO_STRING = -1;
+    private static final int NO_NANOS = -1;
+
+    private final File file;
+
+    public CampaignFeedCache(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Write campaigns to the cache file, replacing it atomically
+     */
+    public void write(List<Campaign> campaigns) throws IOException {
+        StringTable strings = new StringTable();
+        int[][] refs = new int[campaigns.size()][];
+        for (int i = 0; i < campaigns.size(); i++) {
+            Campaign campaign = campaigns.get(i);
+            refs[i] = new int[] {
+                    strings.add(campaign.getId()),
+                    strings.add(campaign.getTitle()),
+                    strings.add(campaign.getDescription()),
+                    strings.add(campaign.getImageUrl()),
+                    strings.add(campaign.getCreatedBy())
+            };
+        }
+
+        int stringTableOffset = HEADER_SIZE + campaigns.size() * RECORD_SIZE;
+        ByteBuffer buffer = ByteBuffer.allocate(stringTableOffset + strings.size());
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(campaigns.size()).putInt(stringTableOffset);
+        for (int i = 0; i < campaigns.size(); i++) {
+            Campaign campaign = campaigns.get(i);
+            for (int ref : refs[i]) {
+                buffer.putInt(ref);
+            }
+            buffer.putLong(campaign.getGoalCents());
+            buffer.putLong(campaign.getCollectedCents());
+            Timestamp createdAt = campaign.getCreatedAt();
+            buffer.putLong(createdAt != null ? createdAt.getSeconds() : 0);
+            buffer.putInt(createdAt != null ? createdAt.getNanoseconds() : NO_NANOS);
+        }
+        strings.writeTo(buffer);
+        buffer.flip();
+
+        File temp = new File(file.getPath() + ".tmp");
+        try (RandomAccessFile out = new RandomAccessFile(temp, "rw");
+             FileChannel channel = out.getChannel()) {
+            channel.truncate(0);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+        if (!temp.renameTo(file)) {
+            throw new IOException("Could not replace " + file);
+        }
+    }
+
+    /**
+     * Read campaigns back with a single memory-mapped read
+     * Returns an empty list if the file is missing or not in the expected format
+     */
+    public List<Campaign> read() throws IOException {
+        List<Campaign> campaigns = new ArrayList<>();
+        if (!file.exists() || file.length() < HEADER_SIZE) {
+            return campaigns;
+        }
+
+        MappedByteBuffer buffer;
+        try (RandomAccessFile in = new RandomAccessFile(file, "r");
+             FileChannel channel = in.getChannel()) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            return campaigns;
+        }
+        int count = buffer.getInt();
+        int stringTableOffset = buffer.getInt();
+        if (count < 0 || stringTableOffset != HEADER_SIZE + (long) count * RECORD_SIZE
+                || stringTableOffset > buffer.limit()) {
+            return campaigns; // Truncated or corrupt
+        }
+
+        try {
+            readRecords(buffer, count, stringTableOffset, campaigns);
+        } catch (CorruptCacheException e) {
+            campaigns.clear();
+        }
+        return campaigns;
+    }
+
+    private static void readRecords(ByteBuffer buffer, int count, int stringTableOffset,
+                                    List<Campaign> campaigns) throws CorruptCacheException {
+        for (int i = 0; i < count; i++) {
+            int recordStart = HEADER_SIZE + i * RECORD_SIZE;
+            buffer.position(recordStart);
+            Campaign campaign = new Campaign();
+            campaign.setId(readString(buffer, stringTableOffset, buffer.getInt(recordStart)));
+            campaign.setTitle(readString(buffer, stringTableOffset, buffer.getInt(recordStart + 4)));
+            campaign.setDescription(readString(buffer, stringTableOffset, buffer.getInt(recordStart + 8)));
+            campaign.setImageUrl(readString(buffer, stringTableOffset, buffer.getInt(recordStart + 12)));
+            campaign.setCreatedBy(readString(buffer, stringTableOffset, buffer.getInt(recordStart + 16)));
+            campaign.setGoalCents(buffer.getLong(recordStart + 20));
+            campaign.setCollectedCents(buffer.getLong(recordStart + 28));
+            int nanos = buffer.getInt(recordStart + 44);
+            if (nanos != NO_NANOS) {
+                campaign.setCreatedAt(new Timestamp(buffer.getLong(recordStart + 36), nanos));
+            }
+            campaigns.add(campaign);
+        }
+    }
+
+    /**
+     * Read a string from the table; throws CorruptCacheException if ref or its length point
+     * outside the file
+     */
+    private static String readString(ByteBuffer buffer, int tableOffset, int ref) throws CorruptCacheException {
+        if (ref == NO_STRING) {
+            return null;
+        }
+        long position = (long) tableOffset + ref;
+        if (ref < 0 || position + 4 > buffer.limit()) {
+            throw new CorruptCacheException();
+        }
+        int length = buffer.getInt((int) position);
+        if (length < 0 || position + 4 + length > buffer.limit()) {
+            throw new CorruptCacheException();
+        }
+        byte[] bytes = new byte[length];
+        ByteBuffer view = buffer.duplicate();
+        view.position((int) position + 4);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A string reference in the file points outside it
+     */
+    private static class CorruptCacheException extends Exception {
+    }
+
+    /**
+     * Deduplicating table of length-prefixed UTF-8 strings
+     */
+    private static class StringTable {
+        private final Map<String, Integer> offsets = new HashMap<>();
+        private final List<byte[]> entries = new ArrayList<>();
+        private int size;
+
+        int add(String value) {
+            if (value == null) {
+                return NO_STRING;
+            }
+            Integer existing = offsets.get(value);
+            if (existing != null) {
+                return existing;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            int offset = size;
+            offsets.put(value, offset);
+            entries.add(bytes);
+            size += 4 + bytes.length;
+            return offset;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void writeTo(ByteBuffer buffer) {
+            for (byte[] bytes : entries) {
+                buffer.putInt(bytes.length);
+                buffer.put(bytes);
+            }
+        }
+    }
+}
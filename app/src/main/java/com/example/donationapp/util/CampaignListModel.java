@@ -0,0 +1,115 @@
+package com.example.donationapp.util;
+
+import com.example.donationapp.model.Campaign;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ordered, id-indexed in-memory copy of the campaigns query
+ * Applies Firestore document changes (ADDED/MODIFIED/REMOVED) incrementally
+ * so only changed documents need to be deserialized on each snapshot
+ */
+public class CampaignListModel {
+    private final List<Campaign> campaigns = new ArrayList<>();
+    private final Map<String, Campaign> campaignsById = new HashMap<>();
+
+    /**
+     * Insert a campaign at the given position
+     */
+    public void add(String id, Campaign campaign, int newIndex) {
+        if (campaignsById.containsKey(id)) {
+            // Duplicate ADDED (e.g. after a full reload) - treat as modification
+            modify(id, campaign, indexOf(id), newIndex);
+            return;
+        }
+        int index = clamp(newIndex, campaigns.size());
+        campaigns.add(index, campaign);
+        campaignsById.put(id, campaign);
+    }
+
+    /**
+     * Replace a campaign, moving it if its position changed
+     */
+    public void modify(String id, Campaign campaign, int oldIndex, int newIndex) {
+        if (!campaignsById.containsKey(id)) {
+            add(id, campaign, newIndex);
+            return;
+        }
+        int from = resolveIndex(id, oldIndex);
+        if (from == newIndex) {
+            campaigns.set(from, campaign);
+        } else {
+            campaigns.remove(from);
+            campaigns.add(clamp(newIndex, campaigns.size()), campaign);
+        }
+        campaignsById.put(id, campaign);
+    }
+
+    /**
+     * Remove a campaign
+     */
+    public void remove(String id, int oldIndex) {
+        if (!campaignsById.containsKey(id)) {
+            return;
+        }
+        int from = resolveIndex(id, oldIndex);
+        campaigns.remove(from);
+        campaignsById.remove(id);
+    }
+
+    /**
+     * Replace the whole model (used for one-shot full loads)
+     */
+    public void reset(List<Campaign> newCampaigns) {
+        campaigns.clear();
+        campaignsById.clear();
+        for (Campaign campaign : newCampaigns) {
+            campaigns.add(campaign);
+            campaignsById.put(campaign.getId(), campaign);
+        }
+    }
+
+    public Campaign get(String id) {
+        return campaignsById.get(id);
+    }
+
+    public int size() {
+        return campaigns.size();
+    }
+
+    /**
+     * Immutable view of the current ordering for publishing to observers
+     */
+    public List<Campaign> snapshot() {
+        return Collections.unmodifiableList(new ArrayList<>(campaigns));
+    }
+
+    private int resolveIndex(String id, int hint) {
+        // Trust the index Firestore reported, but fall back to a scan if it disagrees
+        if (hint >= 0 && hint < campaigns.size()) {
+            Campaign atHint = campaigns.get(hint);
+            if (atHint != null && id.equals(atHint.getId())) {
+                return hint;
+            }
+        }
+        return indexOf(id);
+    }
+
+    private int indexOf(String id) {
+        for (int i = 0; i < campaigns.size(); i++) {
+            if (id.equals(campaigns.get(i).getId())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int clamp(int index, int size) {
+        if (index < 0) return size;
+        return Math.min(index, size);
+    }
+}
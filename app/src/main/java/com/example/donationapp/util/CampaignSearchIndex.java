@@ -0,0 +1,188 @@
+package com.example.donationapp.util;
+
+import com.example.donationapp.model.Campaign;
+import com.google.firebase.Timestamp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.BooleanSupplier;
+
+/**
+ * In-memory inverted index over campaign title and description tokens
+ * Supports prefix search so each keystroke costs work proportional to the matches,
+ * not to the total amount of campaign text
+ * Not thread-safe: confine all calls to a single thread (CampaignViewModel uses its search executor)
+ */
+public class CampaignSearchIndex {
+    // Newest first, matching the feed order; pending server timestamps sort to the top
+    private static final Comparator<Campaign> FEED_ORDER = (a, b) -> {
+        Timestamp left = a.getCreatedAt();
+        Timestamp right = b.getCreatedAt();
+        if (left == null && right == null) return 0;
+        if (left == null) return -1;
+        if (right == null) return 1;
+        return right.compareTo(left);
+    };
+
+    private final TreeMap<String, Set<String>> postings = new TreeMap<>();
+    private final Map<String, Campaign> campaignsById = new HashMap<>();
+    private final Map<String, Set<String>> tokensById = new HashMap<>();
+    // Ids read from posting lists by all searches, a machine-independent measure of search work
+    private long visitedIds;
+
+    /**
+     * Add or replace a campaign in the index
+     */
+    public void put(Campaign campaign) {
+        String id = campaign.getId();
+        if (id == null) {
+            return;
+        }
+        Set<String> tokens = new LinkedHashSet<>();
+        tokenize(campaign.getTitle(), tokens);
+        tokenize(campaign.getDescription(), tokens);
+
+        Set<String> previous = tokensById.get(id);
+        if (previous != null && !previous.equals(tokens)) {
+            removePostings(id, previous);
+            previous = null;
+        }
+        if (previous == null) {
+            for (String token : tokens) {
+                Set<String> ids = postings.get(token);
+                if (ids == null) {
+                    ids = new HashSet<>();
+                    postings.put(token, ids);
+                }
+                ids.add(id);
+            }
+            tokensById.put(id, tokens);
+        }
+        // Text unchanged (e.g. only collectedAmount moved) - just swap the object
+        campaignsById.put(id, campaign);
+    }
+
+    /**
+     * Remove a campaign from the index
+     */
+    public void remove(String id) {
+        Set<String> tokens = tokensById.remove(id);
+        if (tokens != null) {
+            removePostings(id, tokens);
+        }
+        campaignsById.remove(id);
+    }
+
+    public void clear() {
+        postings.clear();
+        campaignsById.clear();
+        tokensById.clear();
+    }
+
+    public int size() {
+        return campaignsById.size();
+    }
+
+    long visitedIds() {
+        return visitedIds;
+    }
+
+    /**
+     * Find campaigns where every query word is a prefix of some word in the title or description
+     * Results are returned newest first
+     */
+    public List<Campaign> search(String query) {
+        return search(query, () -> false);
+    }
+
+    /**
+     * Same as {@link #search(String)}, but gives up and returns null as soon as isCancelled reports true
+     */
+    public List<Campaign> search(String query, BooleanSupplier isCancelled) {
+        Set<String> queryTokens = new LinkedHashSet<>();
+        tokenize(query, queryTokens);
+        if (queryTokens.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Set<String> matches = null;
+        for (String token : queryTokens) {
+            Set<String> tokenMatches = idsWithPrefix(token, isCancelled);
+            if (tokenMatches == null) {
+                return null;
+            }
+            if (matches == null) {
+                matches = tokenMatches;
+            } else {
+                matches.retainAll(tokenMatches);
+            }
+            if (matches.isEmpty()) {
+                return Collections.emptyList();
+            }
+        }
+
+        List<Campaign> results = new ArrayList<>(matches.size());
+        for (String id : matches) {
+            results.add(campaignsById.get(id));
+        }
+        if (isCancelled.getAsBoolean()) {
+            return null;
+        }
+        Collections.sort(results, FEED_ORDER);
+        return results;
+    }
+
+    private Set<String> idsWithPrefix(String prefix, BooleanSupplier isCancelled) {
+        Set<String> ids = new HashSet<>();
+        SortedMap<String, Set<String>> range = postings.subMap(prefix, prefix + Character.MAX_VALUE);
+        for (Set<String> postingIds : range.values()) {
+            if (isCancelled.getAsBoolean()) {
+                return null;
+            }
+            ids.addAll(postingIds);
+            visitedIds += postingIds.size();
+        }
+        return ids;
+    }
+
+    private void removePostings(String id, Set<String> tokens) {
+        for (String token : tokens) {
+            Set<String> ids = postings.get(token);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(token);
+                }
+            }
+        }
+    }
+
+    /**
+     * Split text into distinct lower-case letter/digit runs
+     */
+    static void tokenize(String text, Set<String> out) {
+        if (text == null) {
+            return;
+        }
+        StringBuilder token = new StringBuilder();
+        int length = text.length();
+        for (int i = 0; i <= length; i++) {
+            char c = i < length ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                token.append(Character.toLowerCase(c));
+            } else if (token.length() > 0) {
+                out.add(token.toString());
+                token.setLength(0);
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.donationapp.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bounded least-recently-used map of campaign id to title
+ * A campaign that no longer exists is remembered with a null title so it is not looked up again.
+ * Not thread-safe; owned by the main thread
+ */
+public class CampaignTitleCache {
+    private final Map<String, String> titles;
+
+    public CampaignTitleCache(int maxEntries) {
+        titles = new LinkedHashMap<String, String>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Whether the id has been resolved, to a title or to "missing"
+     */
+    public boolean contains(String campaignId) {
+        return titles.containsKey(campaignId);
+    }
+
+    /**
+     * Title for the id, or null if unknown or missing; marks the id as recently used
+     */
+    public String get(String campaignId) {
+        return titles.get(campaignId);
+    }
+
+    public void put(String campaignId, String title) {
+        titles.put(campaignId, title);
+    }
+
+    public int size() {
+        return titles.size();
+    }
+
+    /**
+     * Distinct ids that are not resolved yet, in first-seen order, split into chunks of at most chunkSize
+     */
+    public List<List<String>> unresolvedChunks(Collection<String> campaignIds, int chunkSize) {
+        Set<String> unresolved = new LinkedHashSet<>();
+        for (String campaignId : campaignIds) {
+            if (campaignId != null && !titles.containsKey(campaignId)) {
+                unresolved.add(campaignId);
+            }
+        }
+        List<List<String>> chunks = new ArrayList<>();
+        List<String> chunk = new ArrayList<>(chunkSize);
+        for (String campaignId : unresolved) {
+            chunk.add(campaignId);
+            if (chunk.size() == chunkSize) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.donationapp.util;
+
+/**
+ * Ids of the per-hour and per-day donation bucket documents under campaigns/{id}/donation_buckets
+ * An id is a prefix plus the zero-padded number of whole hours or days since the epoch (UTC),
+ * so ids sort by time and a time window is a document id range. Buckets of sharded campaigns
+ * get a "_s{shard}" suffix, which still sorts inside the bucket's range
+ */
+public final class DonationBuckets {
+    public static final long HOUR_MS = 60 * 60 * 1000L;
+    public static final long DAY_MS = 24 * HOUR_MS;
+    private static final String HOUR_PREFIX = "h_";
+    private static final String DAY_PREFIX = "d_";
+    private static final int INDEX_DIGITS = 8;
+
+    private DonationBuckets() {
+    }
+
+    /**
+     * Id of the hour bucket containing the given time
+     */
+    public static String hourId(long millis) {
+        return id(HOUR_PREFIX, Math.floorDiv(millis, HOUR_MS));
+    }
+
+    /**
+     * Id of the day bucket (UTC) containing the given time
+     */
+    public static String dayId(long millis) {
+        return id(DAY_PREFIX, Math.floorDiv(millis, DAY_MS));
+    }
+
+    /**
+     * Id of the bucket containing the given time at hour or day granularity
+     */
+    public static String bucketId(boolean hourly, long millis) {
+        return hourly ? hourId(millis) : dayId(millis);
+    }
+
+    /**
+     * The id of one shard of a bucket; shardCount <= 1 leaves the id unchanged
+     */
+    public static String shardId(String bucketId, int shard, int shardCount) {
+        return shardCount > 1 ? bucketId + "_s" + shard : bucketId;
+    }
+
+    /**
+     * Start time of the bucket with the given (possibly sharded) id, or -1 if it is not a bucket id
+     */
+    public static long startOf(String bucketId) {
+        long size;
+        if (bucketId.startsWith(HOUR_PREFIX)) {
+            size = HOUR_MS;
+        } else if (bucketId.startsWith(DAY_PREFIX)) {
+            size = DAY_MS;
+        } else {
+            return -1;
+        }
+        long index = 0;
+        int digits = 0;
+        for (int i = 2; i < bucketId.length() && bucketId.charAt(i) != '_'; i++) {
+            char c = bucketId.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            index = index * 10 + (c - '0');
+            digits++;
+        }
+        return digits == INDEX_DIGITS ? index * size : -1;
+    }
+
+    private static String id(String prefix, long index) {
+        StringBuilder id = new StringBuilder(prefix.length() + INDEX_DIGITS).append(prefix);
+        String digits = Long.toString(index);
+        for (int i = digits.length(); i < INDEX_DIGITS; i++) {
+            id.append('0');
+        }
+        return id.append(digits).toString();
+    }
+}
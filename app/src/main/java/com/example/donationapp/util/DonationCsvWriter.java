@@ -0,0 +1,293 @@
+package com.example.donationapp.util;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Writes a donation export as CSV through one fixed-size buffer, one page at a time
+ * After each page the file is forced to disk and a small checkpoint (file length, rows written
+ * and the cursor of the last row) replaces the previous one. Opening an unfinished export
+ * cuts the file back to the last checkpoint, so a page interrupted by process death is
+ * written again rather than twice. Memory use does not depend on the number of rows
+ *
+ * Donations without a date (written before dates were required) sort first and are exported
+ * with an empty date; the cursor records whether the last row had one
+ *
+ * Checkpoint file: version, complete flag, file length, rows, cursor dated flag, cursor seconds,
+ * cursor nanos, cursor donation id (DataOutputStream encoding)
+ */
+public class DonationCsvWriter {
+    public static final String HEADER = "donation_id,date,campaign_id,user_id,amount";
+    private static final int CHECKPOINT_VERSION = 2;
+    static final int BUFFER_BYTES = 64 * 1024;
+
+    private final File file;
+    private final File checkpointFile;
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private final StringBuilder row = new StringBuilder(256);
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'", Locale.ROOT);
+    private long rowsWritten;
+    private boolean complete;
+    private boolean cursorDated;
+    private long cursorSeconds;
+    private int cursorNanos;
+    private String cursorDonationId;
+
+    /**
+     * Open the export at file, resuming from its checkpoint if there is one
+     * A completed export is left as is; start a new one with discard() first
+     */
+    public DonationCsvWriter(File file) throws IOException {
+        this.file = file;
+        checkpointFile = new File(file.getPath() + ".checkpoint");
+        dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        // java.nio.file needs API 26; the channel keeps the file open after the wrapper is dropped
+        channel = new RandomAccessFile(file, "rw").getChannel();
+        long length = readCheckpoint();
+        if (length < 0) {
+            channel.truncate(0);
+            append(HEADER);
+            append("\n");
+            checkpoint();
+        } else {
+            channel.truncate(length);
+            channel.position(length);
+        }
+    }
+
+    /**
+     * Delete an export and its checkpoint, e.g. before starting over
+     */
+    public static void discard(File file) {
+        file.delete();
+        new File(file.getPath() + ".checkpoint").delete();
+    }
+
+    /**
+     * Whether an export was started at file and has not finished
+     */
+    public static boolean isUnfinished(File file) {
+        File checkpoint = new File(file.getPath() + ".checkpoint");
+        if (!checkpoint.exists()) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new FileInputStream(checkpoint))) {
+            return in.readInt() == CHECKPOINT_VERSION && !in.readBoolean();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Whether a page has been checkpointed; if not, the export starts from the first donation
+     */
+    public boolean hasCursor() {
+        return cursorDonationId != null;
+    }
+
+    /**
+     * Whether the last exported row had a date; if not, the cursor date is null
+     */
+    public boolean isCursorDated() {
+        return cursorDated;
+    }
+
+    public long getCursorSeconds() {
+        return cursorSeconds;
+    }
+
+    public int getCursorNanos() {
+        return cursorNanos;
+    }
+
+    public String getCursorDonationId() {
+        return cursorDonationId;
+    }
+
+    /**
+     * Add one donation to the current page
+     */
+    public void writeRow(String donationId, long dateSeconds, int dateNanos, String campaignId,
+                         String userId, long amountCents) throws IOException {
+        row.setLength(0);
+        appendField(donationId).append(',');
+        row.append(dateFormat.format(new Date(dateSeconds * 1000))).append(',');
+        appendRest(campaignId, userId, amountCents);
+        cursorDated = true;
+        cursorSeconds = dateSeconds;
+        cursorNanos = dateNanos;
+        cursorDonationId = donationId;
+    }
+
+    /**
+     * Add one donation that has no date to the current page
+     */
+    public void writeUndatedRow(String donationId, String campaignId, String userId,
+                                long amountCents) throws IOException {
+        row.setLength(0);
+        appendField(donationId).append(',').append(',');
+        appendRest(campaignId, userId, amountCents);
+        cursorDated = false;
+        cursorSeconds = 0;
+        cursorNanos = 0;
+        cursorDonationId = donationId;
+    }
+
+    private void appendRest(String campaignId, String userId, long amountCents) throws IOException {
+        appendField(campaignId).append(',');
+        appendField(userId).append(',');
+        if (amountCents < 0) {
+            row.append('-');
+            amountCents = -amountCents;
+        }
+        long cents = amountCents % 100;
+        row.append(amountCents / 100).append('.').append(cents < 10 ? "0" : "").append(cents).append('\n');
+        append(row);
+        rowsWritten++;
+    }
+
+    /**
+     * Make the rows written so far durable and move the resume point past them
+     */
+    public void endPage() throws IOException {
+        checkpoint();
+    }
+
+    /**
+     * Mark the export finished; it will no longer be resumed
+     */
+    public void finish() throws IOException {
+        complete = true;
+        checkpoint();
+    }
+
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private StringBuilder appendField(String value) {
+        if (value == null) {
+            return row;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            return row.append(value);
+        }
+        row.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                row.append('"');
+            }
+            row.append(c);
+        }
+        return row.append('"');
+    }
+
+    /**
+     * Encode text into the buffer, draining it to the channel whenever it fills up
+     */
+    private void append(CharSequence text) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(text);
+        encoder.reset();
+        while (true) {
+            CoderResult result = encoder.encode(chars, buffer, true);
+            if (result.isOverflow()) {
+                drain();
+            } else if (result.isUnderflow()) {
+                break;
+            } else {
+                result.throwException();
+            }
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void checkpoint() throws IOException {
+        drain();
+        channel.force(false);
+        File temp = new File(checkpointFile.getPath() + ".tmp");
+        try (FileOutputStream stream = new FileOutputStream(temp);
+             DataOutputStream out = new DataOutputStream(stream)) {
+            out.writeInt(CHECKPOINT_VERSION);
+            out.writeBoolean(complete);
+            out.writeLong(channel.position());
+            out.writeLong(rowsWritten);
+            out.writeBoolean(cursorDated);
+            out.writeLong(cursorSeconds);
+            out.writeInt(cursorNanos);
+            out.writeUTF(cursorDonationId != null ? cursorDonationId : "");
+            out.flush();
+            stream.getFD().sync();
+        }
+        if (!temp.renameTo(checkpointFile)) {
+            throw new IOException("Could not replace " + checkpointFile);
+        }
+    }
+
+    /**
+     * Load the checkpoint; returns the checkpointed file length, or -1 to start a new export
+     */
+    private long readCheckpoint() throws IOException {
+        if (!checkpointFile.exists()) {
+            return -1;
+        }
+        try (DataInputStream in = new DataInputStream(new FileInputStream(checkpointFile))) {
+            if (in.readInt() != CHECKPOINT_VERSION) {
+                return -1;
+            }
+            complete = in.readBoolean();
+            long length = in.readLong();
+            rowsWritten = in.readLong();
+            cursorDated = in.readBoolean();
+            cursorSeconds = in.readLong();
+            cursorNanos = in.readInt();
+            String donationId = in.readUTF();
+            cursorDonationId = donationId.isEmpty() ? null : donationId;
+            if (length > channel.size()) {
+                throw new IOException("Export is shorter than its checkpoint");
+            }
+            return length;
+        }
+    }
+}
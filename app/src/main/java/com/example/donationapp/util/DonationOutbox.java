@@ -0,0 +1,311 @@
+package com.example.donationapp.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of donations that have not reached Firestore yet
+ * Every append is forced to disk before it returns, so a donation the user was told about
+ * survives network loss and process death; entries stay pending until marked done
+ *
+ * Record framing (big-endian): payload length (int), payload, CRC32 of payload (int)
+ *   ENTRY payload  type, seq, createdAt millis, amountCents, shardCount (short),
+ *                  donationId, campaignId, userId (short length + UTF-8 each)
+ *   DONE payload   type, seq
+ * A torn or corrupt record at the tail (crash mid-append) is cut off on load
+ */
+public class DonationOutbox {
+    private static final byte TYPE_ENTRY = 1;
+    private static final byte TYPE_DONE = 2;
+    private static final int FRAME_OVERHEAD = 4 + 4;
+    private static final int MAX_PAYLOAD = 4096;
+    // Rewrite the journal with only pending entries once it grows past this
+    private static final long COMPACT_THRESHOLD_BYTES = 64 * 1024;
+
+    private final File file;
+    private final Map<Long, Entry> pending = new LinkedHashMap<>();
+    private FileChannel channel;
+    private long nextSeq = 1;
+
+    /**
+     * Open the journal, replaying it to find the entries still pending
+     */
+    public DonationOutbox(File file) throws IOException {
+        this.file = file;
+        channel = open(file);
+        replay();
+    }
+
+    /**
+     * Journal a donation and force it to disk
+     * A donation id that is already pending is not journaled twice; the existing entry is returned
+     */
+    public synchronized Entry append(String donationId, String campaignId, int shardCount,
+                                     String userId, long amountCents) throws IOException {
+        for (Entry existing : pending.values()) {
+            if (existing.donationId.equals(donationId)) {
+                return existing;
+            }
+        }
+        Entry entry = new Entry(nextSeq++, System.currentTimeMillis(), donationId, campaignId,
+                shardCount, userId, amountCents);
+        ByteBuffer frame = frame(encode(entry));
+        channel.position(channel.size());
+        writeFully(frame);
+        channel.force(false);
+        pending.put(entry.seq, entry);
+        return entry;
+    }
+
+    /**
+     * Pending entries in the order they were appended
+     */
+    public synchronized List<Entry> pending() {
+        return new ArrayList<>(pending.values());
+    }
+
+    public synchronized boolean isEmpty() {
+        return pending.isEmpty();
+    }
+
+    /**
+     * Record that entries were committed (or rejected for good) with one write and one fsync
+     */
+    public synchronized void markDone(Collection<Entry> entries) throws IOException {
+        int count = 0;
+        for (Entry entry : entries) {
+            if (pending.containsKey(entry.seq)) {
+                count++;
+            }
+        }
+        if (count == 0) {
+            return;
+        }
+        ByteBuffer frames = ByteBuffer.allocate(count * (FRAME_OVERHEAD + 9));
+        for (Entry entry : entries) {
+            if (pending.remove(entry.seq) != null) {
+                ByteBuffer payload = ByteBuffer.allocate(9);
+                payload.put(TYPE_DONE).putLong(entry.seq).flip();
+                frames.put(frame(payload));
+            }
+        }
+        frames.flip();
+        channel.position(channel.size());
+        writeFully(frames);
+        channel.force(false);
+
+        if (pending.isEmpty()) {
+            channel.truncate(0);
+            channel.force(true);
+        } else if (channel.size() > COMPACT_THRESHOLD_BYTES) {
+            compact();
+        }
+    }
+
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Size of the journal file in bytes
+     */
+    public synchronized long sizeBytes() throws IOException {
+        return channel.size();
+    }
+
+    private void replay() throws IOException {
+        long size = channel.size();
+        ByteBuffer buffer = ByteBuffer.allocate((int) size);
+        channel.position(0);
+        while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+            // Keep reading
+        }
+        buffer.flip();
+
+        long validEnd = 0;
+        CRC32 crc = new CRC32();
+        while (buffer.remaining() >= FRAME_OVERHEAD) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            if (length <= 0 || length > MAX_PAYLOAD || buffer.remaining() < length + 4) {
+                break;
+            }
+            ByteBuffer payload = buffer.slice();
+            payload.limit(length);
+            buffer.position(buffer.position() + length);
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != buffer.getInt()) {
+                break;
+            }
+            if (!apply(payload)) {
+                buffer.position(start);
+                break;
+            }
+            validEnd = buffer.position();
+        }
+        if (validEnd < size) {
+            channel.truncate(validEnd);
+            channel.force(true);
+        }
+    }
+
+    private boolean apply(ByteBuffer payload) {
+        byte type = payload.get();
+        long seq = payload.getLong();
+        nextSeq = Math.max(nextSeq, seq + 1);
+        if (type == TYPE_DONE) {
+            pending.remove(seq);
+            return true;
+        }
+        if (type != TYPE_ENTRY) {
+            return false;
+        }
+        long createdAt = payload.getLong();
+        long amountCents = payload.getLong();
+        int shardCount = payload.getShort();
+        String donationId = readString(payload);
+        String campaignId = readString(payload);
+        String userId = readString(payload);
+        pending.put(seq, new Entry(seq, createdAt, donationId, campaignId, shardCount, userId, amountCents));
+        return true;
+    }
+
+    /**
+     * Rewrite the journal with only pending entries, replacing it atomically
+     */
+    private void compact() throws IOException {
+        File temp = new File(file.getPath() + ".tmp");
+        try (RandomAccessFile raf = new RandomAccessFile(temp, "rw")) {
+            raf.setLength(0);
+            FileChannel out = raf.getChannel();
+            for (Entry entry : pending.values()) {
+                ByteBuffer frame = frame(encode(entry));
+                while (frame.hasRemaining()) {
+                    out.write(frame);
+                }
+            }
+            out.force(true);
+        }
+        channel.close();
+        if (!temp.renameTo(file)) {
+            channel = open(file);
+            throw new IOException("Could not replace " + file);
+        }
+        channel = open(file);
+    }
+
+    private static FileChannel open(File file) throws IOException {
+        // java.nio.file needs API 26; the channel keeps the file open after the wrapper is dropped
+        return new RandomAccessFile(file, "rw").getChannel();
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static ByteBuffer encode(Entry entry) {
+        byte[] donationId = entry.donationId.getBytes(StandardCharsets.UTF_8);
+        byte[] campaignId = entry.campaignId.getBytes(StandardCharsets.UTF_8);
+        byte[] userId = entry.userId.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer payload = ByteBuffer.allocate(1 + 8 + 8 + 8 + 2
+                + 2 + donationId.length + 2 + campaignId.length + 2 + userId.length);
+        payload.put(TYPE_ENTRY)
+                .putLong(entry.seq)
+                .putLong(entry.createdAtMillis)
+                .putLong(entry.amountCents)
+                .putShort((short) entry.shardCount);
+        payload.putShort((short) donationId.length).put(donationId);
+        payload.putShort((short) campaignId.length).put(campaignId);
+        payload.putShort((short) userId.length).put(userId);
+        payload.flip();
+        return payload;
+    }
+
+    private static ByteBuffer frame(ByteBuffer payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_OVERHEAD + payload.remaining());
+        frame.putInt(payload.remaining()).put(payload).putInt((int) crc.getValue());
+        frame.flip();
+        return frame;
+    }
+
+    private static String readString(ByteBuffer payload) {
+        byte[] bytes = new byte[payload.getShort()];
+        payload.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * One journaled donation
+     */
+    public static final class Entry {
+        private final long seq;
+        private final long createdAtMillis;
+        private final String donationId;
+        private final String campaignId;
+        private final int shardCount;
+        private final String userId;
+        private final long amountCents;
+
+        Entry(long seq, long createdAtMillis, String donationId, String campaignId, int shardCount,
+              String userId, long amountCents) {
+            this.seq = seq;
+            this.createdAtMillis = createdAtMillis;
+            this.donationId = donationId;
+            this.campaignId = campaignId;
+            this.shardCount = shardCount;
+            this.userId = userId;
+            this.amountCents = amountCents;
+        }
+
+        public long getSeq() {
+            return seq;
+        }
+
+        public long getCreatedAtMillis() {
+            return createdAtMillis;
+        }
+
+        public String getDonationId() {
+            return donationId;
+        }
+
+        public String getCampaignId() {
+            return campaignId;
+        }
+
+        public int getShardCount() {
+            return shardCount;
+        }
+
+        public String getUserId() {
+            return userId;
+        }
+
+        public long getAmountCents() {
+            return amountCents;
+        }
+
+        /**
+         * The same entry sent as if its campaign were not sharded, e.g. after an admin lowered
+         * the shard count; marking it done marks this entry done
+         */
+        public Entry unsharded() {
+            return new Entry(seq, createdAtMillis, donationId, campaignId, 1, userId, amountCents);
+        }
+    }
+}
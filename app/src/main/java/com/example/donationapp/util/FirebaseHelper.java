@@ -1,28 +1,53 @@
 package com.example.donationapp.util;
 
+import android.os.SystemClock;
 import android.util.Log;
 
 import com.example.donationapp.model.Campaign;
 import com.example.donationapp.model.Donation;
+import com.example.donationapp.model.DonationTotals;
+import com.example.donationapp.model.Money;
 import com.example.donationapp.model.User;
+import com.example.donationapp.model.UserStats;
 import com.google.android.gms.tasks.OnCompleteListener;
 import com.google.android.gms.tasks.OnFailureListener;
 import com.google.android.gms.tasks.OnSuccessListener;
 import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
 import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.Timestamp;
 import com.google.firebase.auth.FirebaseUser;
+import com.google.firebase.firestore.AggregateField;
+import com.google.firebase.firestore.AggregateSource;
 import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.EventListener;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.FirebaseFirestoreSettings;
+import com.google.firebase.firestore.PersistentCacheSettings;
 import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
 import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.Source;
 import com.google.firebase.firestore.Transaction;
+import com.google.firebase.firestore.WriteBatch;
 import com.google.firebase.storage.FirebaseStorage;
 import com.google.firebase.storage.StorageReference;
 import com.google.firebase.storage.UploadTask;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Centralized Firebase operations helper class
@@ -31,13 +56,37 @@ import java.util.Map;
 public class FirebaseHelper {
     private static final String TAG = "FirebaseHelper";
     private static FirebaseHelper instance;
+    public static final long DEFAULT_CACHE_SIZE_BYTES = 100L * 1024 * 1024;
+    public static final long DEFAULT_FRESHNESS_TTL_MS = 5 * 60 * 1000;
+    // Firestore rejects batches with more writes than this
+    public static final int MAX_BATCH_WRITES = 500;
+    // Firestore rejects whereIn filters with more values than this
+    public static final int MAX_WHERE_IN_VALUES = 30;
+    // Subcollection of campaigns/{id} holding counter shards ("0" .. shardCount - 1)
+    private static final String COUNTER_SHARDS = "counter_shards";
+    // Subcollection of campaigns/{id} with per-hour and per-day totals (see DonationBuckets)
+    private static final String DONATION_BUCKETS = "donation_buckets";
+    // Donations read per page by backfillUserStats(); one batch holds their users' increments
+    private static final int USER_STATS_BACKFILL_PAGE_SIZE = 200;
+    // Donations read per page when totals are computed on the device
+    private static final int DONATION_TOTALS_PAGE_SIZE = 500;
+    private static long cacheSizeBytes = DEFAULT_CACHE_SIZE_BYTES;
     private FirebaseAuth auth;
     private FirebaseFirestore firestore;
     private FirebaseStorage storage;
+    private long freshnessTtlMs = DEFAULT_FRESHNESS_TTL_MS;
+    private DonationWriteMode donationWriteMode = DonationWriteMode.INCREMENT_BATCH;
+    private final Map<String, Long> lastServerFetchTimes = new HashMap<>();
 
     private FirebaseHelper() {
         auth = FirebaseAuth.getInstance();
         firestore = FirebaseFirestore.getInstance();
+        // Settings must be applied before Firestore is used for anything else
+        firestore.setFirestoreSettings(new FirebaseFirestoreSettings.Builder()
+                .setLocalCacheSettings(PersistentCacheSettings.newBuilder()
+                        .setSizeBytes(cacheSizeBytes)
+                        .build())
+                .build());
         storage = FirebaseStorage.getInstance();
     }
 
@@ -48,6 +97,17 @@ public class FirebaseHelper {
         return instance;
     }
 
+    /**
+     * Set the size of Firestore's persistent disk cache
+     * Must be called before the first getInstance(), e.g. from Application.onCreate()
+     */
+    public static synchronized void setCacheSizeBytes(long sizeBytes) {
+        if (instance != null) {
+            throw new IllegalStateException("Cache size must be set before FirebaseHelper is first used");
+        }
+        cacheSizeBytes = sizeBytes;
+    }
+
     // ==================== Authentication Methods ====================
 
     /**
@@ -172,9 +232,8 @@ public class FirebaseHelper {
                     if (task.isSuccessful()) {
                         DocumentSnapshot doc = task.getResult();
                         if (doc != null && doc.exists()) {
-                            User user = doc.toObject(User.class);
+                            User user = User.fromSnapshot(doc);
                             if (user != null) {
-                                user.setId(doc.getId());
                                 if (onSuccess != null) {
                                     onSuccess.onSuccess(user);
                                 }
@@ -219,23 +278,24 @@ public class FirebaseHelper {
     // ==================== Campaign Methods ====================
 
     /**
-     * Create a new campaign
+     * Create a new campaign together with its list summary
      */
     public void createCampaign(Campaign campaign,
                               OnSuccessListener<String> onSuccess,
                               OnFailureListener onFailure) {
-        firestore.collection("campaigns")
-                .add(campaign.toMap())
-                .addOnSuccessListener(documentReference -> {
-                    String campaignId = documentReference.getId();
-                    // Update campaign with its ID
-                    documentReference.update("id", campaignId)
-                            .addOnSuccessListener(aVoid -> {
-                                Log.d(TAG, "Campaign created with ID: " + campaignId);
-                                if (onSuccess != null) {
-                                    onSuccess.onSuccess(campaignId);
-                                }
-                            });
+        DocumentReference campaignRef = firestore.collection("campaigns").document();
+        String campaignId = campaignRef.getId();
+        campaign.setId(campaignId);
+
+        WriteBatch batch = firestore.batch();
+        batch.set(campaignRef, campaign.toMap());
+        batch.set(firestore.collection("campaign_summaries").document(campaignId), campaign.toSummaryMap());
+        batch.commit()
+                .addOnSuccessListener(aVoid -> {
+                    Log.d(TAG, "Campaign created with ID: " + campaignId);
+                    if (onSuccess != null) {
+                        onSuccess.onSuccess(campaignId);
+                    }
                 })
                 .addOnFailureListener(e -> {
                     Log.e(TAG, "Error creating campaign", e);
@@ -246,12 +306,25 @@ public class FirebaseHelper {
     }
 
     /**
-     * Get all campaigns
+     * Base query for the campaign feed, newest first
+     * Reads the campaign_summaries projection; full documents are only read by the detail screen
      */
-    public void getAllCampaigns(OnSuccessListener<QuerySnapshot> onSuccess,
-                               OnFailureListener onFailure) {
-        firestore.collection("campaigns")
-                .orderBy("createdAt", com.google.firebase.firestore.Query.Direction.DESCENDING)
+    public Query getCampaignFeedQuery() {
+        return firestore.collection("campaign_summaries")
+                .orderBy("createdAt", Query.Direction.DESCENDING);
+    }
+
+    /**
+     * Get one page of campaigns, starting after the given cursor (null for the first page)
+     */
+    public void getCampaignsPage(DocumentSnapshot startAfter, int pageSize,
+                                OnSuccessListener<QuerySnapshot> onSuccess,
+                                OnFailureListener onFailure) {
+        Query query = getCampaignFeedQuery();
+        if (startAfter != null) {
+            query = query.startAfter(startAfter);
+        }
+        query.limit(pageSize)
                 .get()
                 .addOnSuccessListener(querySnapshot -> {
                     if (onSuccess != null) {
@@ -259,7 +332,40 @@ public class FirebaseHelper {
                     }
                 })
                 .addOnFailureListener(e -> {
-                    Log.e(TAG, "Error getting campaigns", e);
+                    Log.e(TAG, "Error getting campaigns page", e);
+                    if (onFailure != null) {
+                        onFailure.onFailure(e);
+                    }
+                });
+    }
+
+    /**
+     * Listen in real-time to the first page of campaigns only
+     */
+    public ListenerRegistration listenToFirstCampaignsPage(int pageSize,
+                                                           EventListener<QuerySnapshot> listener) {
+        return getCampaignFeedQuery()
+                .limit(pageSize)
+                .addSnapshotListener(listener);
+    }
+
+    /**
+     * Get the summaries of up to MAX_WHERE_IN_VALUES campaigns with one query
+     * Campaigns that don't exist are simply absent from the result
+     */
+    public void getCampaignSummariesByIds(List<String> campaignIds,
+                                          OnSuccessListener<QuerySnapshot> onSuccess,
+                                          OnFailureListener onFailure) {
+        firestore.collection("campaign_summaries")
+                .whereIn(FieldPath.documentId(), campaignIds)
+                .get()
+                .addOnSuccessListener(querySnapshot -> {
+                    if (onSuccess != null) {
+                        onSuccess.onSuccess(querySnapshot);
+                    }
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Error getting campaign summaries", e);
                     if (onFailure != null) {
                         onFailure.onFailure(e);
                     }
@@ -279,9 +385,8 @@ public class FirebaseHelper {
                     if (task.isSuccessful()) {
                         DocumentSnapshot doc = task.getResult();
                         if (doc != null && doc.exists()) {
-                            Campaign campaign = doc.toObject(Campaign.class);
+                            Campaign campaign = Campaign.fromSnapshot(doc);
                             if (campaign != null) {
-                                campaign.setId(doc.getId());
                                 if (onSuccess != null) {
                                     onSuccess.onSuccess(campaign);
                                 }
@@ -301,14 +406,30 @@ public class FirebaseHelper {
     }
 
     /**
-     * Update campaign
+     * Listen in real-time to a single campaign document
+     */
+    public ListenerRegistration listenToCampaign(String campaignId,
+                                                 EventListener<DocumentSnapshot> listener) {
+        return firestore.collection("campaigns")
+                .document(campaignId)
+                .addSnapshotListener(listener);
+    }
+
+    /**
+     * Update campaign and the summary fields the update touches
      */
     public void updateCampaign(String campaignId, Map<String, Object> updates,
                               OnSuccessListener<Void> onSuccess,
                               OnFailureListener onFailure) {
-        firestore.collection("campaigns")
-                .document(campaignId)
-                .update(updates)
+        WriteBatch batch = firestore.batch();
+        batch.update(firestore.collection("campaigns").document(campaignId), updates);
+        Map<String, Object> summaryUpdates = Campaign.toSummaryUpdates(updates);
+        if (!summaryUpdates.isEmpty()) {
+            // Merge so the write succeeds for campaigns whose summary was never backfilled
+            batch.set(firestore.collection("campaign_summaries").document(campaignId),
+                    summaryUpdates, SetOptions.merge());
+        }
+        batch.commit()
                 .addOnSuccessListener(aVoid -> {
                     Log.d(TAG, "Campaign updated successfully");
                     if (onSuccess != null) {
@@ -324,18 +445,158 @@ public class FirebaseHelper {
     }
 
     /**
-     * Delete campaign
+     * Delete a campaign together with its donations, donation buckets, counter shards and image
+     * The first batch hides the campaign (summary and shards deleted) and marks the campaign
+     * document deleting; the document itself goes last, so an interrupted delete can be found
+     * and finished by resumeCampaignDeletions(). Donations and buckets are deleted a page of
+     * 500 at a time, each page in one batch. onProgress receives the donations deleted so far,
+     * onSuccess the total
      */
-    public void deleteCampaign(String campaignId,
-                              OnSuccessListener<Void> onSuccess,
-                              OnFailureListener onFailure) {
+    public void deleteCampaign(String campaignId, String imageUrl,
+                               OnSuccessListener<Long> onProgress,
+                               OnSuccessListener<Long> onSuccess,
+                               OnFailureListener onFailure) {
+        DocumentReference campaignRef = firestore.collection("campaigns").document(campaignId);
+        WriteBatch batch = firestore.batch();
+        batch.set(campaignRef, Collections.singletonMap("deleting", true), SetOptions.merge());
+        batch.delete(firestore.collection("campaign_summaries").document(campaignId));
+        deleteCounterShards(batch, campaignRef);
+        batch.commit()
+                .addOnSuccessListener(aVoid -> deleteImageForCampaign(imageUrl, () ->
+                        deletePages(firestore.collection("donations").whereEqualTo("campaignId", campaignId),
+                                0, onProgress,
+                                donations -> deletePages(campaignRef.collection(DONATION_BUCKETS), 0, null,
+                                        buckets -> finishCampaignDelete(campaignRef, donations,
+                                                onSuccess, onFailure),
+                                        onFailure),
+                                onFailure)))
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Error starting campaign delete", e);
+                    if (onFailure != null) {
+                        onFailure.onFailure(e);
+                    }
+                });
+    }
+
+    /**
+     * Finish campaign deletes that were interrupted, e.g. by the app being closed mid-way
+     * onSuccess receives the number of campaigns finished
+     */
+    public void resumeCampaignDeletions(OnSuccessListener<Integer> onSuccess,
+                                        OnFailureListener onFailure) {
         firestore.collection("campaigns")
-                .document(campaignId)
-                .delete()
+                .whereEqualTo("deleting", true)
+                .get(Source.SERVER)
+                .addOnSuccessListener(querySnapshot ->
+                        resumeCampaignDeletions(querySnapshot.getDocuments(), 0, onSuccess, onFailure))
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Error finding interrupted campaign deletes", e);
+                    if (onFailure != null) {
+                        onFailure.onFailure(e);
+                    }
+                });
+    }
+
+    private void resumeCampaignDeletions(List<DocumentSnapshot> campaigns, int index,
+                                         OnSuccessListener<Integer> onSuccess,
+                                         OnFailureListener onFailure) {
+        if (index == campaigns.size()) {
+            if (onSuccess != null) {
+                onSuccess.onSuccess(campaigns.size());
+            }
+            return;
+        }
+        DocumentSnapshot campaign = campaigns.get(index);
+        deleteCampaign(campaign.getId(), campaign.getString("imageUrl"), null,
+                deleted -> resumeCampaignDeletions(campaigns, index + 1, onSuccess, onFailure),
+                onFailure);
+    }
+
+    private void deleteCounterShards(WriteBatch batch, DocumentReference campaignRef) {
+        // Shard ids are known, so no read is needed; deleting a missing document is a no-op
+        for (int shard = 0; shard < Campaign.MAX_SHARD_COUNT; shard++) {
+            batch.delete(campaignRef.collection(COUNTER_SHARDS).document(String.valueOf(shard)));
+        }
+    }
+
+    /**
+     * Delete a campaign's image; failures only skip the image, since Storage may be disabled
+     * or the image already gone when a delete is resumed
+     */
+    private void deleteImageForCampaign(String imageUrl, Runnable next) {
+        try {
+            deleteImage(imageUrl, aVoid -> next.run(), e -> {
+                Log.w(TAG, "Error deleting campaign image, continuing", e);
+                next.run();
+            });
+        } catch (IllegalArgumentException e) {
+            Log.w(TAG, "Campaign image is not a Storage URL: " + imageUrl, e);
+            next.run();
+        }
+    }
+
+    /**
+     * Delete everything the query matches, a page of MAX_BATCH_WRITES documents per batch
+     * Always reads the first page of what is left, so no cursor is needed and a restarted
+     * delete simply carries on; onSuccess receives the number deleted
+     */
+    private void deletePages(Query query, long deleted,
+                             OnSuccessListener<Long> onProgress,
+                             OnSuccessListener<Long> onSuccess,
+                             OnFailureListener onFailure) {
+        query.limit(MAX_BATCH_WRITES)
+                .get(Source.SERVER)
+                .addOnSuccessListener(page -> {
+                    if (page.isEmpty()) {
+                        if (onSuccess != null) {
+                            onSuccess.onSuccess(deleted);
+                        }
+                        return;
+                    }
+                    WriteBatch batch = firestore.batch();
+                    for (DocumentSnapshot doc : page.getDocuments()) {
+                        batch.delete(doc.getReference());
+                    }
+                    long total = deleted + page.size();
+                    batch.commit()
+                            .addOnSuccessListener(aVoid -> {
+                                if (onProgress != null) {
+                                    onProgress.onSuccess(total);
+                                }
+                                if (page.size() < MAX_BATCH_WRITES) {
+                                    if (onSuccess != null) {
+                                        onSuccess.onSuccess(total);
+                                    }
+                                } else {
+                                    deletePages(query, total, onProgress, onSuccess, onFailure);
+                                }
+                            })
+                            .addOnFailureListener(e -> {
+                                Log.e(TAG, "Error deleting page", e);
+                                if (onFailure != null) {
+                                    onFailure.onFailure(e);
+                                }
+                            });
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Error reading page to delete", e);
+                    if (onFailure != null) {
+                        onFailure.onFailure(e);
+                    }
+                });
+    }
+
+    private void finishCampaignDelete(DocumentReference campaignRef, long donations,
+                                      OnSuccessListener<Long> onSuccess,
+                                      OnFailureListener onFailure) {
+        WriteBatch batch = firestore.batch();
+        batch.delete(campaignRef);
+        deleteCounterShards(batch, campaignRef); // Any a late donation wrote meanwhile
+        batch.commit()
                 .addOnSuccessListener(aVoid -> {
-                    Log.d(TAG, "Campaign deleted successfully");
+                    Log.d(TAG, "Campaign deleted with " + donations + " donations");
                     if (onSuccess != null) {
-                        onSuccess.onSuccess(null);
+                        onSuccess.onSuccess(donations);
                     }
                 })
                 .addOnFailureListener(e -> {
@@ -346,35 +607,485 @@ public class FirebaseHelper {
                 });
     }
 
+    /**
+     * Write a campaign_summaries document for every existing campaign, and integer-cents amounts
+     * for campaigns that only have the legacy double fields
+     * One-off migration for campaigns created before either existed; onSuccess receives the count
+     */
+    public void backfillCampaignDocuments(OnSuccessListener<Integer> onSuccess,
+                                         OnFailureListener onFailure) {
+        firestore.collection("campaigns")
+                .get()
+                .addOnSuccessListener(querySnapshot -> {
+                    List<DocumentSnapshot> documents = querySnapshot.getDocuments();
+                    List<Task<Void>> commits = new ArrayList<>();
+                    WriteBatch batch = firestore.batch();
+                    int batchSize = 0;
+                    for (DocumentSnapshot doc : documents) {
+                        Campaign campaign = Campaign.fromSnapshot(doc);
+                        if (campaign == null) {
+                            continue;
+                        }
+                        Map<String, Object> summary = campaign.toSummaryMap();
+                        if (campaign.getCreatedAt() == null) {
+                            summary.put("createdAt", null); // Keep legacy campaigns where the feed sorted them
+                        }
+                        batch.set(firestore.collection("campaign_summaries").document(doc.getId()), summary);
+                        batchSize++;
+                        if (doc.getLong("collectedCents") == null) {
+                            // FieldValue.increment on a missing field starts from zero
+                            batch.update(doc.getReference(),
+                                    "goalCents", campaign.getGoalCents(),
+                                    "collectedCents", campaign.getCollectedCents());
+                            batchSize++;
+                        }
+                        if (batchSize >= MAX_BATCH_WRITES - 1) {
+                            commits.add(batch.commit());
+                            batch = firestore.batch();
+                            batchSize = 0;
+                        }
+                    }
+                    if (batchSize > 0) {
+                        commits.add(batch.commit());
+                    }
+                    Tasks.whenAll(commits)
+                            .addOnSuccessListener(aVoid -> {
+                                Log.d(TAG, "Backfilled " + documents.size() + " campaigns");
+                                if (onSuccess != null) {
+                                    onSuccess.onSuccess(documents.size());
+                                }
+                            })
+                            .addOnFailureListener(e -> {
+                                Log.e(TAG, "Error backfilling campaigns", e);
+                                if (onFailure != null) {
+                                    onFailure.onFailure(e);
+                                }
+                            });
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Error reading campaigns for backfill", e);
+                    if (onFailure != null) {
+                        onFailure.onFailure(e);
+                    }
+                });
+    }
+
+    // ==================== Counter Shard Methods ====================
+
+    /**
+     * Listen in real-time to a campaign's counter shards
+     * The live total is the campaign's collectedCents plus the shards' collectedCents
+     */
+    public ListenerRegistration listenToCounterShards(String campaignId,
+                                                      EventListener<QuerySnapshot> listener) {
+        return firestore.collection("campaigns")
+                .document(campaignId)
+                .collection(COUNTER_SHARDS)
+                .addSnapshotListener(listener);
+    }
+
+    /**
+     * Sum the collectedCents balances of a counter shard query
+     */
+    public static long sumCounterShards(QuerySnapshot shards) {
+        long total = 0;
+        for (DocumentSnapshot shard : shards.getDocuments()) {
+            Long balance = shard.getLong("collectedCents");
+            if (balance != null) {
+                total += balance;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * A counter shard increment; security rules check donationId names a donation created in
+     * the same batch for this shard and amount
+     */
+    private static Map<String, Object> shardIncrement(String donationId, long amountCents) {
+        Map<String, Object> shard = new HashMap<>();
+        shard.put("collectedCents", FieldValue.increment(amountCents));
+        shard.put("donationId", donationId);
+        return shard;
+    }
+
+    /**
+     * Move every non-zero counter shard balance into its campaign and summary totals
+     * Shards are drained with negative increments rather than reset, so donations landing
+     * meanwhile are kept and campaign total + shard balances never changes; onSuccess receives
+     * the number of campaigns rolled up, onFailure is called only if every campaign failed
+     */
+    public void rollUpCounterShards(OnSuccessListener<Integer> onSuccess,
+                                   OnFailureListener onFailure) {
+        firestore.collectionGroup(COUNTER_SHARDS)
+                .whereNotEqualTo("collectedCents", 0)
+                .get()
+                .addOnSuccessListener(querySnapshot -> {
+                    Map<DocumentReference, List<DocumentSnapshot>> shardsByCampaign = new HashMap<>();
+                    for (DocumentSnapshot shard : querySnapshot.getDocuments()) {
+                        DocumentReference campaignRef = shard.getReference().getParent().getParent();
+                        if (campaignRef == null) {
+                            continue;
+                        }
+                        List<DocumentSnapshot> shards = shardsByCampaign.get(campaignRef);
+                        if (shards == null) {
+                            shards = new ArrayList<>();
+                            shardsByCampaign.put(campaignRef, shards);
+                        }
+                        shards.add(shard);
+                    }
+
+                    List<Task<Void>> commits = new ArrayList<>();
+                    for (Map.Entry<DocumentReference, List<DocumentSnapshot>> entry : shardsByCampaign.entrySet()) {
+                        // One batch per campaign (at most MAX_SHARD_COUNT + 2 writes): a campaign's
+                        // shards and totals move together, and a campaign whose documents are gone
+                        // (e.g. mid-delete) fails on its own
+                        WriteBatch batch = firestore.batch();
+                        long total = 0;
+                        for (DocumentSnapshot shard : entry.getValue()) {
+                            Long balance = shard.getLong("collectedCents");
+                            if (balance == null) {
+                                continue;
+                            }
+                            total += balance;
+                            batch.update(shard.getReference(), "collectedCents", FieldValue.increment(-balance));
+                        }
+                        DocumentReference campaignRef = entry.getKey();
+                        DocumentReference summaryRef = firestore.collection("campaign_summaries")
+                                .document(campaignRef.getId());
+                        batch.update(campaignRef, "collectedCents", FieldValue.increment(total),
+                                "collectedAmount", FieldValue.increment(Money.toDouble(total)));
+                        batch.update(summaryRef, "collectedCents", FieldValue.increment(total),
+                                "collectedAmount", FieldValue.increment(Money.toDouble(total)));
+                        commits.add(batch.commit().addOnFailureListener(e ->
+                                Log.e(TAG, "Error rolling up counter shards of " + campaignRef.getId(), e)));
+                    }
+                    Tasks.whenAllComplete(commits)
+                            .addOnSuccessListener(tasks -> {
+                                int rolledUp = 0;
+                                Exception error = null;
+                                for (Task<?> task : tasks) {
+                                    if (task.isSuccessful()) {
+                                        rolledUp++;
+                                    } else if (error == null) {
+                                        error = task.getException();
+                                    }
+                                }
+                                if (rolledUp == 0 && error != null) {
+                                    if (onFailure != null) {
+                                        onFailure.onFailure(error);
+                                    }
+                                } else if (onSuccess != null) {
+                                    onSuccess.onSuccess(rolledUp);
+                                }
+                            });
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Error reading counter shards", e);
+                    if (onFailure != null) {
+                        onFailure.onFailure(e);
+                    }
+                });
+    }
+
+    // ==================== Donation Bucket Methods ====================
+
+    /**
+     * Increments of the hour and day buckets for one donation made at the given time
+     * Sharded campaigns spread their buckets over shards too, so a hot campaign's current
+     * bucket is not a single hot document. Security rules only accept a bucket increment whose
+     * donation is created in the same batch and names the bucket, so the bucket ids are put in
+     * donationData as hourBucket and dayBucket
+     */
+    private Map<DocumentReference, Map<String, Object>> bucketIncrements(String campaignId, int shardCount,
+                                                                       long millis, String donationId,
+                                                                       long amountCents,
+                                                                       Map<String, Object> donationData) {
+        Map<DocumentReference, Map<String, Object>> increments = new LinkedHashMap<>();
+        for (boolean hourly : new boolean[] {true, false}) {
+            DocumentReference ref = bucketRef(campaignId, hourly, millis, shardCount);
+            increments.put(ref, bucketIncrement(DonationBuckets.startOf(ref.getId()), hourly,
+                    donationId, amountCents));
+            donationData.put(hourly ? "hourBucket" : "dayBucket", ref.getId());
+        }
+        return increments;
+    }
+
+    private DocumentReference bucketRef(String campaignId, boolean hourly, long millis, int shardCount) {
+        String bucketId = DonationBuckets.bucketId(hourly, millis);
+        if (shardCount > 1) {
+            bucketId = DonationBuckets.shardId(bucketId,
+                    ThreadLocalRandom.current().nextInt(shardCount), shardCount);
+        }
+        return firestore.collection("campaigns").document(campaignId)
+                .collection(DONATION_BUCKETS).document(bucketId);
+    }
+
+    private static Map<String, Object> bucketIncrement(long startMillis, boolean hourly,
+                                                       String donationId, long amountCents) {
+        Map<String, Object> bucket = new HashMap<>();
+        bucket.put("granularity", hourly ? "hour" : "day");
+        bucket.put("start", new Timestamp(new Date(startMillis)));
+        bucket.put("collectedCents", FieldValue.increment(amountCents));
+        bucket.put("donationCount", FieldValue.increment(1));
+        bucket.put("donationId", donationId);
+        return bucket;
+    }
+
+    /**
+     * Get a campaign's hour or day buckets that start in [fromMillis, toMillis)
+     * A document id range, so no index is needed; reads one small document per bucket
+     * (per shard for sharded campaigns) that received donations
+     */
+    public void getDonationBuckets(String campaignId, boolean hourly, long fromMillis, long toMillis,
+                                   OnSuccessListener<QuerySnapshot> onSuccess,
+                                   OnFailureListener onFailure) {
+        firestore.collection("campaigns")
+                .document(campaignId)
+                .collection(DONATION_BUCKETS)
+                .orderBy(FieldPath.documentId())
+                .startAt(DonationBuckets.bucketId(hourly, fromMillis))
+                .endBefore(DonationBuckets.bucketId(hourly, toMillis))
+                .get()
+                .addOnSuccessListener(querySnapshot -> {
+                    if (onSuccess != null) {
+                        onSuccess.onSuccess(querySnapshot);
+                    }
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Error getting donation buckets", e);
+                    if (onFailure != null) {
+                        onFailure.onFailure(e);
+                    }
+                });
+    }
+
     // ==================== Donation Methods ====================
 
     /**
-     * Create donation and update campaign collected amount atomically using transaction
+     * How createDonation() updates the campaign total
+     */
+    public enum DonationWriteMode {
+        // Read the campaign in a transaction and write back the new total
+        TRANSACTION,
+        // Blind FieldValue.increment in a WriteBatch; security rules check the campaign exists
+        INCREMENT_BATCH
+    }
+
+    public void setDonationWriteMode(DonationWriteMode mode) {
+        this.donationWriteMode = mode;
+    }
+
+    /**
+     * Create donation and add its amount to the campaign total and the user's stats atomically
+     * donationId is the idempotency key (see newDonationId()): a donation that already exists is
+     * never counted again, so callers may retry freely. With shardCount > 1 the amount goes to a
+     * random counter shard instead of the campaign document (see rollUpCounterShards());
+     * TRANSACTION mode always writes the campaign
      */
-    public void createDonation(String campaignId, double amount, String userId,
+    public void createDonation(String donationId, String campaignId, int shardCount, long amountCents,
+                              String userId,
                               OnSuccessListener<Void> onSuccess,
                               OnFailureListener onFailure) {
+        if (donationWriteMode == DonationWriteMode.TRANSACTION) {
+            createDonationWithTransaction(donationId, campaignId, amountCents, userId, onSuccess, onFailure);
+        } else {
+            createDonationWithIncrement(donationId, campaignId, shardCount, amountCents, userId,
+                    onSuccess, onFailure);
+        }
+    }
+
+    /**
+     * One WriteBatch with no reads: never retries, and is queued locally while offline
+     * The update fails (and with it the donation) if the campaign or its summary doesn't exist.
+     * Security rules only allow creating donations, so re-sending an existing donation id is
+     * denied as a whole and its increments are never applied twice
+     */
+    private void createDonationWithIncrement(String donationId, String campaignId, int shardCount,
+                                             long amountCents, String userId,
+                                             OnSuccessListener<Void> onSuccess,
+                                             OnFailureListener onFailure) {
+        DocumentReference campaignRef = firestore.collection("campaigns").document(campaignId);
+        DocumentReference summaryRef = firestore.collection("campaign_summaries").document(campaignId);
+        DocumentReference donationRef = firestore.collection("donations").document(donationId);
+        Donation donation = new Donation(donationId, campaignId, userId, amountCents);
+
+        WriteBatch batch = firestore.batch();
+        Map<String, Object> donationData = donation.toMap();
+        batch.set(firestore.collection("user_stats").document(userId),
+                UserStats.incrementFor(campaignId, amountCents), SetOptions.merge());
+        for (Map.Entry<DocumentReference, Map<String, Object>> bucket : bucketIncrements(campaignId, shardCount,
+                System.currentTimeMillis(), donationId, amountCents, donationData).entrySet()) {
+            batch.set(bucket.getKey(), bucket.getValue(), SetOptions.merge());
+        }
+        if (shardCount > 1) {
+            // A single document sustains about one write per second; spread hot campaigns out
+            String shard = String.valueOf(ThreadLocalRandom.current().nextInt(shardCount));
+            donationData.put("shard", shard);
+            batch.set(campaignRef.collection(COUNTER_SHARDS).document(shard),
+                    shardIncrement(donationId, amountCents), SetOptions.merge());
+        } else {
+            batch.update(campaignRef, "collectedCents", FieldValue.increment(amountCents),
+                    "collectedAmount", FieldValue.increment(Money.toDouble(amountCents)));
+            batch.update(summaryRef, "collectedCents", FieldValue.increment(amountCents),
+                    "collectedAmount", FieldValue.increment(Money.toDouble(amountCents)));
+        }
+        batch.set(donationRef, donationData);
+        batch.commit()
+                .addOnSuccessListener(aVoid -> {
+                    Log.d(TAG, "Donation created successfully");
+                    if (onSuccess != null) {
+                        onSuccess.onSuccess(null);
+                    }
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Error creating donation", e);
+                    if (onFailure != null) {
+                        onFailure.onFailure(e);
+                    }
+                });
+    }
+
+    /**
+     * Generate a donation document id locally, without a round trip
+     */
+    public String newDonationId() {
+        return firestore.collection("donations").document().getId();
+    }
+
+    /**
+     * Check on the server whether a donation id has been recorded
+     * Tells an idempotent replay (denied because the donation exists) from a real rejection
+     */
+    public void donationExists(String donationId,
+                               OnSuccessListener<Boolean> onSuccess,
+                               OnFailureListener onFailure) {
+        firestore.collection("donations")
+                .document(donationId)
+                .get(Source.SERVER)
+                .addOnSuccessListener(doc -> {
+                    if (onSuccess != null) {
+                        onSuccess.onSuccess(doc.exists());
+                    }
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Error checking donation", e);
+                    if (onFailure != null) {
+                        onFailure.onFailure(e);
+                    }
+                });
+    }
+
+    /**
+     * Commit journaled donations in one WriteBatch, adding each user's share once
+     * Security rules match every campaign total, counter shard and bucket increment to a single
+     * donation, so callers pass at most one donation per campaign (see DonationFlusher); a batch
+     * that breaks this is denied. Like createDonation(), the whole batch is denied if any
+     * donation id already exists
+     */
+    public void commitDonationBatch(List<DonationOutbox.Entry> entries,
+                                    OnSuccessListener<Void> onSuccess,
+                                    OnFailureListener onFailure) {
+        Map<String, UserStats> statsByUser = new LinkedHashMap<>();
+        WriteBatch batch = firestore.batch();
+        for (DonationOutbox.Entry entry : entries) {
+            String campaignId = entry.getCampaignId();
+            long cents = entry.getAmountCents();
+            Donation donation = new Donation(entry.getDonationId(), campaignId, entry.getUserId(), cents);
+            donation.setDate(new Timestamp(new Date(entry.getCreatedAtMillis()))); // When the user donated
+            Map<String, Object> donationData = donation.toMap();
+            UserStats stats = statsByUser.get(entry.getUserId());
+            if (stats == null) {
+                stats = new UserStats();
+                statsByUser.put(entry.getUserId(), stats);
+            }
+            stats.add(campaignId, cents);
+            for (Map.Entry<DocumentReference, Map<String, Object>> bucket : bucketIncrements(campaignId,
+                    entry.getShardCount(), entry.getCreatedAtMillis(), entry.getDonationId(), cents,
+                    donationData).entrySet()) {
+                batch.set(bucket.getKey(), bucket.getValue(), SetOptions.merge());
+            }
+            DocumentReference campaignRef = firestore.collection("campaigns").document(campaignId);
+            if (entry.getShardCount() > 1) {
+                String shard = String.valueOf(ThreadLocalRandom.current().nextInt(entry.getShardCount()));
+                donationData.put("shard", shard);
+                batch.set(campaignRef.collection(COUNTER_SHARDS).document(shard),
+                        shardIncrement(entry.getDonationId(), cents), SetOptions.merge());
+            } else {
+                batch.update(campaignRef, "collectedCents", FieldValue.increment(cents),
+                        "collectedAmount", FieldValue.increment(Money.toDouble(cents)));
+                batch.update(firestore.collection("campaign_summaries").document(campaignId),
+                        "collectedCents", FieldValue.increment(cents),
+                        "collectedAmount", FieldValue.increment(Money.toDouble(cents)));
+            }
+            batch.set(firestore.collection("donations").document(entry.getDonationId()), donationData);
+        }
+        for (Map.Entry<String, UserStats> userStats : statsByUser.entrySet()) {
+            batch.set(firestore.collection("user_stats").document(userStats.getKey()),
+                    userStats.getValue().toIncrementMap(), SetOptions.merge());
+        }
+        batch.commit()
+                .addOnSuccessListener(aVoid -> {
+                    Log.d(TAG, "Committed " + entries.size() + " donations");
+                    if (onSuccess != null) {
+                        onSuccess.onSuccess(null);
+                    }
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Error committing donations", e);
+                    if (onFailure != null) {
+                        onFailure.onFailure(e);
+                    }
+                });
+    }
+
+    /**
+     * Read-modify-write transaction: retries under contention and cannot commit offline
+     */
+    private void createDonationWithTransaction(String donationId, String campaignId, long amountCents,
+                                               String userId,
+                                               OnSuccessListener<Void> onSuccess,
+                                               OnFailureListener onFailure) {
         DocumentReference campaignRef = firestore.collection("campaigns").document(campaignId);
-        DocumentReference donationRef = firestore.collection("donations").document();
+        DocumentReference summaryRef = firestore.collection("campaign_summaries").document(campaignId);
+        DocumentReference donationRef = firestore.collection("donations").document(donationId);
 
         firestore.runTransaction((Transaction.Function<Void>) transaction -> {
+            if (transaction.get(donationRef).exists()) {
+                return null; // Already recorded by an earlier attempt
+            }
+
             // Get current campaign data
             DocumentSnapshot campaignDoc = transaction.get(campaignRef);
             if (!campaignDoc.exists()) {
                 throw new RuntimeException("Campaign not found");
             }
 
-            Double currentCollected = campaignDoc.getDouble("collectedAmount");
-            if (currentCollected == null) {
-                currentCollected = 0.0;
-            }
+            // All reads must happen before any writes in a transaction
+            boolean hasSummary = transaction.get(summaryRef).exists();
+
+            // Integer cents so totals don't drift; legacy documents only have the double field
+            long collectedCents = Money.read(campaignDoc, "collectedCents", "collectedAmount") + amountCents;
 
             // Update campaign collected amount
-            transaction.update(campaignRef, "collectedAmount", currentCollected + amount);
+            transaction.update(campaignRef, "collectedCents", collectedCents,
+                    "collectedAmount", Money.toDouble(collectedCents));
+            if (hasSummary) {
+                // Summaries missing until the admin backfill runs are created there
+                transaction.update(summaryRef, "collectedCents", collectedCents,
+                        "collectedAmount", Money.toDouble(collectedCents));
+            }
 
             // Create donation document
-            Donation donation = new Donation(donationRef.getId(), campaignId, userId, amount);
-            transaction.set(donationRef, donation.toMap());
+            Donation donation = new Donation(donationId, campaignId, userId, amountCents);
+            Map<String, Object> donationData = donation.toMap();
+            transaction.set(firestore.collection("user_stats").document(userId),
+                    UserStats.incrementFor(campaignId, amountCents), SetOptions.merge());
+            for (Map.Entry<DocumentReference, Map<String, Object>> bucket : bucketIncrements(campaignId, 1,
+                    System.currentTimeMillis(), donationId, amountCents, donationData).entrySet()) {
+                transaction.set(bucket.getKey(), bucket.getValue(), SetOptions.merge());
+            }
+            transaction.set(donationRef, donationData);
 
             return null;
         }).addOnSuccessListener(aVoid -> {
@@ -391,22 +1102,393 @@ public class FirebaseHelper {
     }
 
     /**
-     * Get donations by user ID
+     * Base query for a user's donation history, newest first
      */
-    public void getUserDonations(String userId,
-                                OnSuccessListener<QuerySnapshot> onSuccess,
-                                OnFailureListener onFailure) {
-        firestore.collection("donations")
+    public Query getUserDonationsQuery(String userId) {
+        return firestore.collection("donations")
                 .whereEqualTo("userId", userId)
-                .orderBy("date", com.google.firebase.firestore.Query.Direction.DESCENDING)
+                .orderBy("date", Query.Direction.DESCENDING);
+    }
+
+    /**
+     * Get one page of a user's donations, starting after the given cursor (null for the first page)
+     */
+    public void getUserDonationsPage(String userId, DocumentSnapshot startAfter, int pageSize,
+                                     OnSuccessListener<QuerySnapshot> onSuccess,
+                                     OnFailureListener onFailure) {
+        Query query = getUserDonationsQuery(userId);
+        if (startAfter != null) {
+            query = query.startAfter(startAfter);
+        }
+        query.limit(pageSize)
+                .get()
+                .addOnSuccessListener(querySnapshot -> {
+                    if (onSuccess != null) {
+                        onSuccess.onSuccess(querySnapshot);
+                    }
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Error getting donations page", e);
+                    if (onFailure != null) {
+                        onFailure.onFailure(e);
+                    }
+                });
+    }
+
+    /**
+     * Get up to limit of a user's donations made after the given date, newest first
+     * Used to top up a cached history without reading it again
+     */
+    public void getUserDonationsNewerThan(String userId, Timestamp newest, int limit,
+                                          OnSuccessListener<QuerySnapshot> onSuccess,
+                                          OnFailureListener onFailure) {
+        getUserDonationsQuery(userId)
+                .whereGreaterThan("date", newest)
+                .limit(limit)
+                .get()
+                .addOnSuccessListener(querySnapshot -> {
+                    if (onSuccess != null) {
+                        onSuccess.onSuccess(querySnapshot);
+                    }
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Error getting new donations", e);
+                    if (onFailure != null) {
+                        onFailure.onFailure(e);
+                    }
+                });
+    }
+
+    // ==================== User Stats Methods ====================
+
+    /**
+     * Get a user's lifetime donation totals with a single document read
+     */
+    public void getUserStats(String userId,
+                             OnSuccessListener<UserStats> onSuccess,
+                             OnFailureListener onFailure) {
+        firestore.collection("user_stats")
+                .document(userId)
+                .get()
+                .addOnSuccessListener(doc -> {
+                    if (onSuccess != null) {
+                        onSuccess.onSuccess(UserStats.fromSnapshot(doc));
+                    }
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Error getting user stats", e);
+                    if (onFailure != null) {
+                        onFailure.onFailure(e);
+                    }
+                });
+    }
+
+    /**
+     * Add donations written before user_stats existed to their users' totals
+     * One-off migration that pages through donations by id. Each page's increments commit in
+     * one transaction with the cursor in migrations/user_stats, so an interrupted run resumes
+     * where it stopped. A device that finds the cursor moved by another device stops instead of
+     * counting the same page twice. Donations marked inUserStats were counted when written.
+     * onSuccess receives the number of donations counted by this run
+     */
+    public void backfillUserStats(OnSuccessListener<Integer> onSuccess,
+                                  OnFailureListener onFailure) {
+        DocumentReference progressRef = firestore.collection("migrations").document("user_stats");
+        progressRef.get(Source.SERVER)
+                .addOnSuccessListener(progress -> {
+                    if (Boolean.TRUE.equals(progress.getBoolean("complete"))) {
+                        if (onSuccess != null) {
+                            onSuccess.onSuccess(0);
+                        }
+                        return;
+                    }
+                    backfillUserStatsPage(progressRef, progress.getString("lastDonationId"), 0,
+                            onSuccess, onFailure);
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Error reading user stats backfill progress", e);
+                    if (onFailure != null) {
+                        onFailure.onFailure(e);
+                    }
+                });
+    }
+
+    private void backfillUserStatsPage(DocumentReference progressRef, String lastDonationId, int counted,
+                                       OnSuccessListener<Integer> onSuccess,
+                                       OnFailureListener onFailure) {
+        Query query = firestore.collection("donations").orderBy(FieldPath.documentId());
+        if (lastDonationId != null) {
+            query = query.startAfter(lastDonationId);
+        }
+        query.limit(USER_STATS_BACKFILL_PAGE_SIZE)
+                .get(Source.SERVER)
+                .addOnSuccessListener(page -> {
+                    List<DocumentSnapshot> documents = page.getDocuments();
+                    Map<String, UserStats> statsByUser = new HashMap<>();
+                    int pageCounted = 0;
+                    for (DocumentSnapshot doc : documents) {
+                        Donation donation = Donation.fromSnapshot(doc);
+                        if (donation == null || donation.getUserId() == null
+                                || Boolean.TRUE.equals(doc.getBoolean("inUserStats"))) {
+                            continue;
+                        }
+                        UserStats stats = statsByUser.get(donation.getUserId());
+                        if (stats == null) {
+                            stats = new UserStats();
+                            statsByUser.put(donation.getUserId(), stats);
+                        }
+                        stats.add(donation.getCampaignId(), donation.getAmountCents());
+                        pageCounted++;
+                    }
+                    boolean lastPage = documents.size() < USER_STATS_BACKFILL_PAGE_SIZE;
+                    String nextCursor = documents.isEmpty()
+                            ? lastDonationId : documents.get(documents.size() - 1).getId();
+                    int total = counted + pageCounted;
+
+                    firestore.runTransaction((Transaction.Function<Boolean>) transaction -> {
+                        DocumentSnapshot progress = transaction.get(progressRef);
+                        if (!Objects.equals(progress.getString("lastDonationId"), lastDonationId)
+                                || Boolean.TRUE.equals(progress.getBoolean("complete"))) {
+                            return false; // Another device counted this page
+                        }
+                        for (Map.Entry<String, UserStats> userStats : statsByUser.entrySet()) {
+                            transaction.set(firestore.collection("user_stats").document(userStats.getKey()),
+                                    userStats.getValue().toIncrementMap(), SetOptions.merge());
+                        }
+                        Map<String, Object> cursor = new HashMap<>();
+                        cursor.put("lastDonationId", nextCursor);
+                        cursor.put("complete", lastPage);
+                        cursor.put("updatedAt", FieldValue.serverTimestamp());
+                        transaction.set(progressRef, cursor);
+                        return true;
+                    }).addOnSuccessListener(advanced -> {
+                        if (advanced && !lastPage) {
+                            backfillUserStatsPage(progressRef, nextCursor, total, onSuccess, onFailure);
+                            return;
+                        }
+                        Log.d(TAG, "Backfilled user stats from " + total + " donations");
+                        if (onSuccess != null) {
+                            onSuccess.onSuccess(advanced ? total : counted);
+                        }
+                    }).addOnFailureListener(e -> {
+                        Log.e(TAG, "Error writing user stats backfill", e);
+                        if (onFailure != null) {
+                            onFailure.onFailure(e);
+                        }
+                    });
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Error reading donations for user stats backfill", e);
+                    if (onFailure != null) {
+                        onFailure.onFailure(e);
+                    }
+                });
+    }
+
+    // ==================== Analytics Methods ====================
+
+    /**
+     * Donations to one campaign (or all campaigns if campaignId is null) made at or after since
+     * (or ever if since is null)
+     * Filtering by campaign and date needs the composite index described in the README
+     */
+    public Query getDonationsSinceQuery(String campaignId, Date since) {
+        Query query = firestore.collection("donations");
+        if (campaignId != null) {
+            query = query.whereEqualTo("campaignId", campaignId);
+        }
+        if (since != null) {
+            query = query.whereGreaterThanOrEqualTo("date", new Timestamp(since));
+        }
+        return query;
+    }
+
+    /**
+     * Count and sum donations on the server with one aggregation query
+     * Billed as one read per 1,000 donations counted instead of one read per donation.
+     * Sums the legacy "amount" field, which every donation carries, so older donations without
+     * amountCents are included
+     */
+    public void aggregateDonations(String campaignId, Date since,
+                                   OnSuccessListener<DonationTotals> onSuccess,
+                                   OnFailureListener onFailure) {
+        AggregateField.SumAggregateField amountSum = AggregateField.sum("amount");
+        getDonationsSinceQuery(campaignId, since)
+                .aggregate(AggregateField.count(), amountSum)
+                .get(AggregateSource.SERVER)
+                .addOnSuccessListener(snapshot -> {
+                    Double amount = snapshot.getDouble(amountSum);
+                    if (onSuccess != null) {
+                        onSuccess.onSuccess(new DonationTotals(snapshot.getCount(),
+                                amount != null ? Math.round(amount * 100) : 0, true));
+                    }
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Error aggregating donations", e);
+                    if (onFailure != null) {
+                        onFailure.onFailure(e);
+                    }
+                });
+    }
+
+    /**
+     * Count and sum donations by reading them in pages on the device
+     * Fallback for when aggregation queries can't run (offline, or not supported by the backend);
+     * costs one read per donation, or none for donations served from the local cache
+     */
+    public void sumDonationsPaged(String campaignId, Date since,
+                                  OnSuccessListener<DonationTotals> onSuccess,
+                                  OnFailureListener onFailure) {
+        Query query = getDonationsSinceQuery(campaignId, since);
+        // A range filter must be the first ordering; the snapshot cursor breaks ties by id
+        query = since != null ? query.orderBy("date") : query.orderBy(FieldPath.documentId());
+        sumDonationsPage(query, null, 0, 0, onSuccess, onFailure);
+    }
+
+    private void sumDonationsPage(Query query, DocumentSnapshot startAfter, long count, long amountCents,
+                                  OnSuccessListener<DonationTotals> onSuccess,
+                                  OnFailureListener onFailure) {
+        Query page = startAfter != null ? query.startAfter(startAfter) : query;
+        page.limit(DONATION_TOTALS_PAGE_SIZE)
                 .get()
                 .addOnSuccessListener(querySnapshot -> {
+                    List<DocumentSnapshot> documents = querySnapshot.getDocuments();
+                    long pageCents = 0;
+                    for (DocumentSnapshot doc : documents) {
+                        pageCents += Money.read(doc, "amountCents", "amount");
+                    }
+                    long totalCount = count + documents.size();
+                    long totalCents = amountCents + pageCents;
+                    if (documents.size() == DONATION_TOTALS_PAGE_SIZE) {
+                        sumDonationsPage(query, documents.get(documents.size() - 1), totalCount, totalCents,
+                                onSuccess, onFailure);
+                    } else if (onSuccess != null) {
+                        onSuccess.onSuccess(new DonationTotals(totalCount, totalCents, false));
+                    }
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Error reading donations for totals", e);
+                    if (onFailure != null) {
+                        onFailure.onFailure(e);
+                    }
+                });
+    }
+
+    /**
+     * Whether an aggregation query failed because aggregation can't run right now, as opposed
+     * to being denied; paged reads may still work (from the local cache when offline)
+     */
+    public static boolean isAggregationUnavailable(Exception e) {
+        if (!(e instanceof FirebaseFirestoreException)) {
+            return false;
+        }
+        FirebaseFirestoreException.Code code = ((FirebaseFirestoreException) e).getCode();
+        return code == FirebaseFirestoreException.Code.UNAVAILABLE
+                || code == FirebaseFirestoreException.Code.UNIMPLEMENTED
+                || code == FirebaseFirestoreException.Code.DEADLINE_EXCEEDED;
+    }
+
+    // ==================== Export Methods ====================
+
+    /**
+     * Get the next page of all donations in date order, for the admin CSV export
+     * The cursor is the date and id of the last donation already exported (null id for the
+     * first page), so an export can resume from values saved on disk; the document id breaks
+     * ties between donations made in the same instant. Donations stored with a null date sort
+     * first, and afterDate is null while the cursor is among them
+     */
+    public void getDonationsExportPage(Timestamp afterDate, String afterDonationId, int pageSize,
+                                       OnSuccessListener<QuerySnapshot> onSuccess,
+                                       OnFailureListener onFailure) {
+        Query query = firestore.collection("donations")
+                .orderBy("date", Query.Direction.ASCENDING)
+                .orderBy(FieldPath.documentId(), Query.Direction.ASCENDING);
+        if (afterDonationId != null) {
+            query = query.startAfter(afterDate, afterDonationId);
+        }
+        query.limit(pageSize)
+                .get(Source.SERVER)
+                .addOnSuccessListener(querySnapshot -> {
+                    if (onSuccess != null) {
+                        onSuccess.onSuccess(querySnapshot);
+                    }
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Error getting donations export page", e);
+                    if (onFailure != null) {
+                        onFailure.onFailure(e);
+                    }
+                });
+    }
+
+    // ==================== Cache Freshness Methods ====================
+
+    /**
+     * Set how long server results are considered fresh before cache reads are revalidated
+     */
+    public void setFreshnessTtl(long ttlMs) {
+        freshnessTtlMs = ttlMs;
+    }
+
+    /**
+     * Whether the data for the given key was fetched from the server within the TTL
+     */
+    public boolean isFresh(String cacheKey) {
+        Long lastFetch = lastServerFetchTimes.get(cacheKey);
+        return lastFetch != null && SystemClock.elapsedRealtime() - lastFetch < freshnessTtlMs;
+    }
+
+    /**
+     * Record that the data for the given key was just confirmed by the server
+     * (e.g. by a listener snapshot that was not served from cache)
+     */
+    public void markFresh(String cacheKey) {
+        lastServerFetchTimes.put(cacheKey, SystemClock.elapsedRealtime());
+    }
+
+    /**
+     * Run a query cache-first
+     * Serves Source.CACHE immediately and only goes to the server when the cache is empty,
+     * the data is older than the TTL, or forceServer is set.
+     * onSuccess may be called twice: once with cached data and again with fresh server data
+     */
+    public void getWithFreshness(Query query, String cacheKey, boolean forceServer,
+                                 OnSuccessListener<QuerySnapshot> onSuccess,
+                                 OnFailureListener onFailure) {
+        if (forceServer) {
+            getFromServer(query, cacheKey, false, onSuccess, onFailure);
+            return;
+        }
+
+        query.get(Source.CACHE).addOnCompleteListener(task -> {
+            QuerySnapshot cached = task.isSuccessful() ? task.getResult() : null;
+            boolean servedFromCache = cached != null && !cached.isEmpty();
+            if (servedFromCache && onSuccess != null) {
+                onSuccess.onSuccess(cached);
+            }
+            if (!servedFromCache || !isFresh(cacheKey)) {
+                getFromServer(query, cacheKey, servedFromCache, onSuccess, onFailure);
+            }
+        });
+    }
+
+    private void getFromServer(Query query, String cacheKey, boolean alreadyServed,
+                               OnSuccessListener<QuerySnapshot> onSuccess,
+                               OnFailureListener onFailure) {
+        query.get(Source.SERVER)
+                .addOnSuccessListener(querySnapshot -> {
+                    markFresh(cacheKey);
                     if (onSuccess != null) {
                         onSuccess.onSuccess(querySnapshot);
                     }
                 })
                 .addOnFailureListener(e -> {
-                    Log.e(TAG, "Error getting donations", e);
+                    if (alreadyServed) {
+                        // Cached data is already on screen; keep it rather than showing an error
+                        Log.w(TAG, "Revalidation failed for " + cacheKey, e);
+                        return;
+                    }
+                    Log.e(TAG, "Error getting " + cacheKey + " from server", e);
                     if (onFailure != null) {
                         onFailure.onFailure(e);
                     }
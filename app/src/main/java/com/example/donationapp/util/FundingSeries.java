@@ -0,0 +1,74 @@
+package com.example.donationapp.util;
+
+import java.util.Arrays;
+
+/**
+ * Downsamples donation buckets into a fixed number of chart points
+ * All state lives in arrays allocated once, so reloading a window allocates nothing:
+ * reset() clears the slots, add() drops each bucket's amount into the slot covering its start,
+ * and finish() turns the slots into a running total for the funding-over-time line
+ */
+public class FundingSeries {
+    public static final int DEFAULT_POINTS = 90;
+
+    private final long[] slotCents;
+    private final float[] cumulative;
+    private long windowStartMs;
+    private long windowEndMs;
+
+    public FundingSeries() {
+        this(DEFAULT_POINTS);
+    }
+
+    public FundingSeries(int points) {
+        slotCents = new long[points];
+        cumulative = new float[points];
+    }
+
+    public int size() {
+        return slotCents.length;
+    }
+
+    /**
+     * Start a new window [windowStartMs, windowEndMs)
+     */
+    public void reset(long windowStartMs, long windowEndMs) {
+        this.windowStartMs = windowStartMs;
+        this.windowEndMs = Math.max(windowEndMs, windowStartMs + 1);
+        Arrays.fill(slotCents, 0);
+        Arrays.fill(cumulative, 0);
+    }
+
+    /**
+     * Add a bucket's amount; buckets starting outside the window are ignored
+     */
+    public void add(long bucketStartMs, long cents) {
+        if (bucketStartMs < windowStartMs || bucketStartMs >= windowEndMs) {
+            return;
+        }
+        // Scaled in double: the product of a long time offset and the point count can overflow
+        int slot = (int) ((double) (bucketStartMs - windowStartMs) * slotCents.length
+                / (windowEndMs - windowStartMs));
+        slotCents[Math.min(slot, slotCents.length - 1)] += cents;
+    }
+
+    /**
+     * Compute the running total in dollars at the end of each slot
+     * Returns the internal array, valid until the next reset()
+     */
+    public float[] finish() {
+        long running = 0;
+        for (int i = 0; i < slotCents.length; i++) {
+            running += slotCents[i];
+            cumulative[i] = running / 100f;
+        }
+        return cumulative;
+    }
+
+    /**
+     * Amount added in one slot, in cents
+     */
+    public long slotCents(int slot) {
+        return slotCents[slot];
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.donationapp.util;
+
+import android.app.Activity;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+
+/**
+ * Cold start milestones, logged under the "StartupTrace" tag as milliseconds since process start
+ */
+public final class StartupTrace {
+    private static final String TAG = "StartupTrace";
+    private static boolean firstRowReported;
+
+    private StartupTrace() {
+    }
+
+    /**
+     * Log a startup milestone
+     */
+    public static void mark(String milestone) {
+        Log.i(TAG, milestone + ": " + sinceProcessStart() + " ms");
+    }
+
+    /**
+     * Record the first campaign row drawn in this process and report the activity fully drawn
+     * Later calls are ignored
+     */
+    public static void firstRowRendered(Activity activity) {
+        if (firstRowReported) {
+            return;
+        }
+        firstRowReported = true;
+        mark("First campaign row rendered");
+        if (activity != null) {
+            // Shows up as "Fully drawn" in logcat and in startup traces
+            activity.reportFullyDrawn();
+        }
+    }
+
+    private static long sinceProcessStart() {
+        return SystemClock.elapsedRealtime() - Process.getStartElapsedRealtime();
+    }
+}
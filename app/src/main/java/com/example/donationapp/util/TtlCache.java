@@ -0,0 +1,53 @@
+package com.example.donationapp.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Map whose entries expire a fixed time after they were put
+ * The clock is injectable so expiry can be tested; not thread-safe
+ */
+public class TtlCache<K, V> {
+    private final long ttlMs;
+    private final LongSupplier clock;
+    private final Map<K, Entry<V>> entries = new HashMap<>();
+
+    public TtlCache(long ttlMs, LongSupplier clock) {
+        this.ttlMs = ttlMs;
+        this.clock = clock;
+    }
+
+    /**
+     * Value for the key, or null if absent or expired
+     */
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (clock.getAsLong() - entry.storedAt >= ttlMs) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.value;
+    }
+
+    public void put(K key, V value) {
+        entries.put(key, new Entry<>(value, clock.getAsLong()));
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long storedAt;
+
+        Entry(V value, long storedAt) {
+            this.value = value;
+            this.storedAt = storedAt;
+        }
+    }
+}
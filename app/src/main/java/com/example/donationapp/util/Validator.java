@@ -3,6 +3,9 @@ package com.example.donationapp.util;
 import android.text.TextUtils;
 import android.util.Patterns;
 
+import com.example.donationapp.model.Campaign;
+import com.example.donationapp.model.Money;
+
 import java.util.regex.Pattern;
 
 /**
@@ -11,9 +14,15 @@ import java.util.regex.Pattern;
  */
 public class Validator {
     private static final int MIN_PASSWORD_LENGTH = 6;
-    private static final double MIN_DONATION_AMOUNT = 0.01;
-    private static final double MAX_DONATION_AMOUNT = 1000000.0;
-    private static final double MIN_CAMPAIGN_GOAL = 1.0;
+    private static final long MIN_DONATION_CENTS = 1;
+    private static final long MAX_DONATION_CENTS = 100_000_000;
+    private static final long MIN_CAMPAIGN_GOAL_CENTS = 100;
+    // Built once so validating on every keystroke doesn't format strings
+    private static final String MIN_DONATION_ERROR = "Minimum donation amount is " + Money.format(MIN_DONATION_CENTS);
+    private static final String MAX_DONATION_ERROR = "Maximum donation amount is " + Money.format(MAX_DONATION_CENTS);
+    private static final String MIN_GOAL_ERROR = "Minimum goal amount is " + Money.format(MIN_CAMPAIGN_GOAL_CENTS);
+    private static final String MAX_GOAL_ERROR = "Maximum goal amount is " + Money.format(MAX_DONATION_CENTS);
+    private static final String SHARD_COUNT_ERROR = "Shard count must be between 1 and " + Campaign.MAX_SHARD_COUNT;
 
     /**
      * Validate email format
@@ -115,87 +124,71 @@ public class Validator {
     /**
      * Validate donation amount
      */
-    public static boolean isValidDonationAmount(double amount) {
-        return amount >= MIN_DONATION_AMOUNT && amount <= MAX_DONATION_AMOUNT;
+    public static boolean isValidDonationAmount(long cents) {
+        return cents >= MIN_DONATION_CENTS && cents <= MAX_DONATION_CENTS;
     }
 
     /**
      * Validate donation amount string
      */
-    public static boolean isValidDonationAmount(String amountStr) {
-        if (TextUtils.isEmpty(amountStr)) {
-            return false;
-        }
-        try {
-            double amount = Double.parseDouble(amountStr);
-            return isValidDonationAmount(amount);
-        } catch (NumberFormatException e) {
-            return false;
-        }
+    public static boolean isValidDonationAmount(CharSequence amountStr) {
+        long cents = Money.parseCents(amountStr);
+        return cents != Money.INVALID && isValidDonationAmount(cents);
     }
 
     /**
      * Get donation amount validation error message
      */
-    public static String getDonationAmountError(String amountStr) {
-        if (TextUtils.isEmpty(amountStr)) {
+    public static String getDonationAmountError(CharSequence amountStr) {
+        if (amountStr == null || TextUtils.getTrimmedLength(amountStr) == 0) {
             return "Amount is required";
         }
-        try {
-            double amount = Double.parseDouble(amountStr);
-            if (amount < MIN_DONATION_AMOUNT) {
-                return "Minimum donation amount is $" + String.format("%.2f", MIN_DONATION_AMOUNT);
-            }
-            if (amount > MAX_DONATION_AMOUNT) {
-                return "Maximum donation amount is $" + String.format("%.2f", MAX_DONATION_AMOUNT);
-            }
-            return null;
-        } catch (NumberFormatException e) {
+        long cents = Money.parseCents(amountStr);
+        if (cents == Money.INVALID) {
             return "Invalid amount format";
         }
+        if (cents < MIN_DONATION_CENTS) {
+            return MIN_DONATION_ERROR;
+        }
+        if (cents > MAX_DONATION_CENTS) {
+            return MAX_DONATION_ERROR;
+        }
+        return null;
     }
 
     /**
      * Validate campaign goal amount
      */
-    public static boolean isValidCampaignGoal(double goal) {
-        return goal >= MIN_CAMPAIGN_GOAL && goal <= MAX_DONATION_AMOUNT;
+    public static boolean isValidCampaignGoal(long cents) {
+        return cents >= MIN_CAMPAIGN_GOAL_CENTS && cents <= MAX_DONATION_CENTS;
     }
 
     /**
      * Validate campaign goal amount string
      */
-    public static boolean isValidCampaignGoal(String goalStr) {
-        if (TextUtils.isEmpty(goalStr)) {
-            return false;
-        }
-        try {
-            double goal = Double.parseDouble(goalStr);
-            return isValidCampaignGoal(goal);
-        } catch (NumberFormatException e) {
-            return false;
-        }
+    public static boolean isValidCampaignGoal(CharSequence goalStr) {
+        long cents = Money.parseCents(goalStr);
+        return cents != Money.INVALID && isValidCampaignGoal(cents);
     }
 
     /**
      * Get campaign goal validation error message
      */
-    public static String getCampaignGoalError(String goalStr) {
-        if (TextUtils.isEmpty(goalStr)) {
+    public static String getCampaignGoalError(CharSequence goalStr) {
+        if (goalStr == null || TextUtils.getTrimmedLength(goalStr) == 0) {
             return "Goal amount is required";
         }
-        try {
-            double goal = Double.parseDouble(goalStr);
-            if (goal < MIN_CAMPAIGN_GOAL) {
-                return "Minimum goal amount is $" + String.format("%.2f", MIN_CAMPAIGN_GOAL);
-            }
-            if (goal > MAX_DONATION_AMOUNT) {
-                return "Maximum goal amount is $" + String.format("%.2f", MAX_DONATION_AMOUNT);
-            }
-            return null;
-        } catch (NumberFormatException e) {
+        long cents = Money.parseCents(goalStr);
+        if (cents == Money.INVALID) {
             return "Invalid amount format";
         }
+        if (cents < MIN_CAMPAIGN_GOAL_CENTS) {
+            return MIN_GOAL_ERROR;
+        }
+        if (cents > MAX_DONATION_CENTS) {
+            return MAX_GOAL_ERROR;
+        }
+        return null;
     }
 
     /**
@@ -254,6 +247,25 @@ public class Validator {
         return null;
     }
 
+    /**
+     * Get counter shard count validation error message
+     */
+    public static String getShardCountError(String shardCountStr) {
+        if (TextUtils.isEmpty(shardCountStr)) {
+            return "Shard count is required";
+        }
+        int shardCount;
+        try {
+            shardCount = Integer.parseInt(shardCountStr.trim());
+        } catch (NumberFormatException e) {
+            return SHARD_COUNT_ERROR;
+        }
+        if (shardCount < 1 || shardCount > Campaign.MAX_SHARD_COUNT) {
+            return SHARD_COUNT_ERROR;
+        }
+        return null;
+    }
+
     /**
      * Sanitize string input to prevent XSS and injection attacks
      */
@@ -17,6 +17,7 @@ import androidx.lifecycle.ViewModelProvider;
 
 import com.example.donationapp.R;
 import com.example.donationapp.model.Campaign;
+import com.example.donationapp.model.Money;
 import com.example.donationapp.util.DialogHelper;
 import com.example.donationapp.util.FirebaseHelper;
 import com.example.donationapp.util.ImageHelper;
@@ -218,7 +219,7 @@ public class AddCampaignActivity extends AppCompatActivity {
         // Sanitize inputs
         title = Validator.sanitizeInput(title);
         description = Validator.sanitizeDescription(description);
-        double goalAmount = Double.parseDouble(goalAmountStr);
+        long goalCents = Money.parseCents(goalAmountStr);
 
         // Get current user
         FirebaseUser currentUser = FirebaseHelper.getInstance().getCurrentUser();
@@ -252,7 +253,7 @@ public class AddCampaignActivity extends AppCompatActivity {
         //         null);
 
         // Temporary fallback: Create campaign without image upload (works without Storage)
-        Campaign campaign = new Campaign("", title, description, goalAmount, currentUser.getUid());
+        Campaign campaign = new Campaign("", title, description, goalCents, currentUser.getUid());
         campaign.setImageUrl(""); // Empty imageUrl when Storage is disabled
         campaignViewModel.createCampaign(campaign);
         
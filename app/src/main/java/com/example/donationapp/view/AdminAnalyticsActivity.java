@@ -0,0 +1,136 @@
+package com.example.donationapp.view;
+
+import android.os.Bundle;
+import android.view.View;
+import android.widget.ProgressBar;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
+
+import com.example.donationapp.R;
+import com.example.donationapp.adapter.CampaignAnalyticsAdapter;
+import com.example.donationapp.model.Money;
+import com.example.donationapp.repository.AnalyticsRepository;
+import com.example.donationapp.util.DialogHelper;
+import com.example.donationapp.util.WindowInsetsHelper;
+import com.example.donationapp.viewmodel.AnalyticsViewModel;
+import com.google.android.material.appbar.MaterialToolbar;
+import com.google.android.material.chip.ChipGroup;
+
+/**
+ * Admin Analytics Activity - Donation count and total per campaign for a date range
+ */
+public class AdminAnalyticsActivity extends AppCompatActivity {
+    private static final int LOAD_MORE_THRESHOLD = 10;
+    private RecyclerView analyticsRecyclerView;
+    private CampaignAnalyticsAdapter analyticsAdapter;
+    private SwipeRefreshLayout swipeRefreshLayout;
+    private ProgressBar progressBar;
+    private TextView overallText;
+    private ChipGroup rangeChipGroup;
+    private AnalyticsViewModel analyticsViewModel;
+    private final Money.Formatter currencyFormat = new Money.Formatter();
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_admin_analytics);
+
+        // Apply window insets
+        WindowInsetsHelper.applyWindowInsets(findViewById(android.R.id.content));
+
+        // Initialize views
+        MaterialToolbar toolbar = findViewById(R.id.toolbar);
+        toolbar.setNavigationOnClickListener(v -> finish());
+        analyticsRecyclerView = findViewById(R.id.analytics_recycler_view);
+        swipeRefreshLayout = findViewById(R.id.swipe_refresh_layout);
+        progressBar = findViewById(R.id.progress_bar);
+        overallText = findViewById(R.id.overall_text);
+        rangeChipGroup = findViewById(R.id.range_chip_group);
+
+        // Setup RecyclerView
+        analyticsAdapter = new CampaignAnalyticsAdapter();
+        analyticsRecyclerView.setLayoutManager(new LinearLayoutManager(this));
+        analyticsRecyclerView.setAdapter(analyticsAdapter);
+        setupLoadMore();
+
+        // Initialize ViewModel
+        analyticsViewModel = new ViewModelProvider(this).get(AnalyticsViewModel.class);
+        rangeChipGroup.check(chipFor(analyticsViewModel.getRange()));
+        rangeChipGroup.setOnCheckedStateChangeListener((group, checkedIds) -> {
+            if (!checkedIds.isEmpty()) {
+                analyticsViewModel.setRange(rangeFor(checkedIds.get(0)));
+            }
+        });
+        swipeRefreshLayout.setOnRefreshListener(() -> {
+            analyticsViewModel.refresh();
+            swipeRefreshLayout.setRefreshing(false);
+        });
+
+        observeViewModel();
+        analyticsViewModel.start();
+    }
+
+    private void observeViewModel() {
+        analyticsViewModel.getCampaigns().observe(this, analyticsAdapter::setCampaigns);
+        analyticsViewModel.getCampaignTotals().observe(this, analyticsAdapter::setTotals);
+        analyticsViewModel.getOverallTotals().observe(this, totals -> {
+            if (totals == null) {
+                overallText.setText(R.string.analytics_loading);
+                return;
+            }
+            overallText.setText(getString(R.string.analytics_overall,
+                    currencyFormat.format(totals.getAmountCents()), totals.getCount()));
+        });
+        analyticsViewModel.getIsLoading().observe(this, isLoading ->
+                progressBar.setVisibility(Boolean.TRUE.equals(isLoading)
+                        && analyticsAdapter.getItemCount() == 0 ? View.VISIBLE : View.GONE));
+        analyticsViewModel.getErrorMessage().observe(this, errorMessage -> {
+            if (errorMessage != null && !errorMessage.isEmpty()) {
+                DialogHelper.showErrorDialog(this, "Error", errorMessage);
+            }
+        });
+    }
+
+    private void setupLoadMore() {
+        // Fetch the next page of campaigns as the user nears the end of the list
+        analyticsRecyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy <= 0) {
+                    return;
+                }
+                LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+                if (layoutManager != null && layoutManager.findLastVisibleItemPosition()
+                        >= analyticsAdapter.getItemCount() - LOAD_MORE_THRESHOLD) {
+                    analyticsViewModel.loadMoreCampaigns();
+                }
+            }
+        });
+    }
+
+    private static int chipFor(AnalyticsRepository.Range range) {
+        switch (range) {
+            case LAST_7_DAYS:
+                return R.id.range_7_days;
+            case ALL_TIME:
+                return R.id.range_all_time;
+            default:
+                return R.id.range_30_days;
+        }
+    }
+
+    private static AnalyticsRepository.Range rangeFor(int chipId) {
+        if (chipId == R.id.range_7_days) {
+            return AnalyticsRepository.Range.LAST_7_DAYS;
+        } else if (chipId == R.id.range_all_time) {
+            return AnalyticsRepository.Range.ALL_TIME;
+        }
+        return AnalyticsRepository.Range.LAST_30_DAYS;
+    }
+}
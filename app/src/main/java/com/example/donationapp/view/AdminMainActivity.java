@@ -1,6 +1,9 @@
 package com.example.donationapp.view;
 
+import android.content.SharedPreferences;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
 import android.view.View;
 
@@ -12,6 +15,7 @@ import androidx.navigation.fragment.NavHostFragment;
 import androidx.navigation.ui.NavigationUI;
 
 import com.example.donationapp.R;
+import com.example.donationapp.util.FirebaseHelper;
 import com.example.donationapp.util.WindowInsetsHelper;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 
@@ -20,8 +24,24 @@ import com.google.android.material.bottomnavigation.BottomNavigationView;
  */
 public class AdminMainActivity extends AppCompatActivity {
     private static final String TAG = "AdminMainActivity";
+    private static final String PREFS_MIGRATIONS = "migrations";
+    private static final String KEY_CAMPAIGN_BACKFILL_VERSION = "campaign_backfill_version";
+    // Bump when backfillCampaignDocuments() learns a new migration
+    private static final int CAMPAIGN_BACKFILL_VERSION = 2;
+    private static final String KEY_USER_STATS_BACKFILLED = "user_stats_backfilled";
+    // How often an open admin app folds counter shards into campaign totals
+    private static final long SHARD_ROLL_UP_INTERVAL_MS = 60 * 1000;
     private NavController navController;
     private BottomNavigationView bottomNavigation;
+    private final Handler rollUpHandler = new Handler(Looper.getMainLooper());
+    private final Runnable rollUpShards = new Runnable() {
+        @Override
+        public void run() {
+            FirebaseHelper.getInstance().rollUpCounterShards(null,
+                    e -> Log.e(TAG, "Counter shard roll-up failed, will retry", e));
+            rollUpHandler.postDelayed(this, SHARD_ROLL_UP_INTERVAL_MS);
+        }
+    };
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -32,6 +52,15 @@ public class AdminMainActivity extends AppCompatActivity {
         View rootView = findViewById(android.R.id.content);
         WindowInsetsHelper.applyWindowInsets(rootView);
 
+        backfillCampaignDocumentsOnce();
+        backfillUserStatsOnce();
+        if (savedInstanceState == null) {
+            // Not on recreation, which could run alongside a delete this app started
+            FirebaseHelper.getInstance().resumeCampaignDeletions(
+                    count -> Log.d(TAG, "Finished " + count + " interrupted campaign deletes"),
+                    e -> Log.e(TAG, "Could not finish interrupted campaign deletes, will retry next launch", e));
+        }
+
         // Setup Navigation - Wait for fragment to be ready
         bottomNavigation = findViewById(R.id.bottom_navigation);
         
@@ -71,6 +100,44 @@ public class AdminMainActivity extends AppCompatActivity {
         });
     }
 
+    @Override
+    protected void onStart() {
+        super.onStart();
+        rollUpHandler.post(rollUpShards);
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        rollUpHandler.removeCallbacks(rollUpShards);
+    }
+
+    /**
+     * Migrate campaigns that predate the campaign_summaries projection or integer-cents amounts
+     */
+    private void backfillCampaignDocumentsOnce() {
+        SharedPreferences prefs = getSharedPreferences(PREFS_MIGRATIONS, MODE_PRIVATE);
+        if (prefs.getInt(KEY_CAMPAIGN_BACKFILL_VERSION, 0) >= CAMPAIGN_BACKFILL_VERSION) {
+            return;
+        }
+        FirebaseHelper.getInstance().backfillCampaignDocuments(
+                count -> prefs.edit().putInt(KEY_CAMPAIGN_BACKFILL_VERSION, CAMPAIGN_BACKFILL_VERSION).apply(),
+                e -> Log.e(TAG, "Campaign backfill failed, will retry next launch", e));
+    }
+
+    /**
+     * Count donations made before user_stats existed; resumes from the shared cursor if interrupted
+     */
+    private void backfillUserStatsOnce() {
+        SharedPreferences prefs = getSharedPreferences(PREFS_MIGRATIONS, MODE_PRIVATE);
+        if (prefs.getBoolean(KEY_USER_STATS_BACKFILLED, false)) {
+            return;
+        }
+        FirebaseHelper.getInstance().backfillUserStats(
+                count -> prefs.edit().putBoolean(KEY_USER_STATS_BACKFILLED, true).apply(),
+                e -> Log.e(TAG, "User stats backfill failed, will resume next launch", e));
+    }
+
     private void handleLogout() {
         com.example.donationapp.util.DialogHelper.showConfirmationDialog(this, "Logout", "Are you sure you want to logout?",
                 () -> {
@@ -8,20 +8,21 @@ import android.widget.ProgressBar;
 import android.widget.TextView;
 
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.LiveData;
 import androidx.lifecycle.ViewModelProvider;
 
 import com.example.donationapp.R;
 import com.example.donationapp.fragment.DonationBottomSheetFragment;
 import com.example.donationapp.model.Campaign;
+import com.example.donationapp.model.Money;
 import com.example.donationapp.util.DialogHelper;
 import com.example.donationapp.util.FirebaseHelper;
 import com.example.donationapp.viewmodel.CampaignViewModel;
+import com.google.android.material.chip.ChipGroup;
 import com.google.android.material.progressindicator.LinearProgressIndicator;
+import com.google.firebase.firestore.ListenerRegistration;
 import com.squareup.picasso.Picasso;
 
-import java.text.NumberFormat;
-import java.util.Locale;
-
 /**
  * Campaign Detail Activity - Shows full campaign details
  */
@@ -37,9 +38,13 @@ public class CampaignDetailActivity extends AppCompatActivity {
     private LinearProgressIndicator progressIndicator;
     private Button donateButton;
     private ProgressBar progressBar;
+    private ChipGroup fundingWindowChipGroup;
+    private FundingChartView fundingChart;
     
     private CampaignViewModel campaignViewModel;
-    private NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(Locale.US);
+    // Donations to sharded campaigns that haven't been rolled up into collectedCents yet
+    private ListenerRegistration shardListener;
+    private long shardCents;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -63,27 +68,59 @@ public class CampaignDetailActivity extends AppCompatActivity {
         progressIndicator = findViewById(R.id.progress_indicator);
         donateButton = findViewById(R.id.donate_button);
         progressBar = findViewById(R.id.progress_bar);
+        fundingWindowChipGroup = findViewById(R.id.funding_window_chip_group);
+        fundingChart = findViewById(R.id.funding_chart);
 
         // Initialize ViewModel
         campaignViewModel = new ViewModelProvider(this).get(CampaignViewModel.class);
 
         // Set click listener - show bottom sheet instead of navigating
         donateButton.setOnClickListener(v -> showDonationBottomSheet());
+        fundingWindowChipGroup.check(chipFor(campaignViewModel.getFundingWindow()));
+        fundingWindowChipGroup.setOnCheckedStateChangeListener((group, checkedIds) -> {
+            if (!checkedIds.isEmpty()) {
+                campaignViewModel.loadFundingSeries(campaignId, windowFor(checkedIds.get(0)));
+            }
+        });
 
-        // Observe ViewModel
+        // Observe ViewModel; the campaign listener only runs while this screen is STARTED
         observeViewModel();
+    }
 
-        // Load campaign
-        campaignViewModel.loadCampaign(campaignId);
+    @Override
+    protected void onStart() {
+        super.onStart();
+        if (currentCampaign != null) {
+            updateShardListener(currentCampaign);
+        }
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        if (shardListener != null) {
+            shardListener.remove();
+            shardListener = null;
+        }
     }
 
     private void observeViewModel() {
-        campaignViewModel.getSelectedCampaign().observe(this, campaign -> {
+        LiveData<Campaign> liveCampaign = campaignViewModel.observeCampaign(campaignId);
+        if (liveCampaign.getValue() == null) {
+            progressBar.setVisibility(View.VISIBLE); // Nothing cached, wait for the listener
+        }
+        liveCampaign.observe(this, campaign -> {
             if (campaign != null) {
+                progressBar.setVisibility(View.GONE);
                 displayCampaign(campaign);
             }
         });
 
+        campaignViewModel.getFundingPoints().observe(this, fundingChart::setPoints);
+        if (campaignViewModel.getFundingPoints().getValue() == null) {
+            campaignViewModel.loadFundingSeries(campaignId, campaignViewModel.getFundingWindow());
+        }
+
         campaignViewModel.getIsLoading().observe(this, isLoading -> {
             if (isLoading != null) {
                 progressBar.setVisibility(isLoading ? View.VISIBLE : View.GONE);
@@ -101,12 +138,9 @@ public class CampaignDetailActivity extends AppCompatActivity {
         this.currentCampaign = campaign;
         titleText.setText(campaign.getTitle());
         descriptionText.setText(campaign.getDescription());
-        goalAmountText.setText("Goal: " + currencyFormat.format(campaign.getGoalAmount()));
-        collectedAmountText.setText("Collected: " + currencyFormat.format(campaign.getCollectedAmount()));
-
-        // Set progress
-        int progress = campaign.getProgressPercentage();
-        progressIndicator.setProgress(progress);
+        goalAmountText.setText("Goal: " + Money.format(campaign.getGoalCents()));
+        displayCollected();
+        updateShardListener(campaign);
 
         // Load image
         if (campaign.getImageUrl() != null && !campaign.getImageUrl().isEmpty()) {
@@ -114,6 +148,53 @@ public class CampaignDetailActivity extends AppCompatActivity {
         }
     }
 
+    private void displayCollected() {
+        long collectedCents = currentCampaign.getCollectedCents() + shardCents;
+        collectedAmountText.setText("Collected: " + Money.format(collectedCents));
+
+        // Set progress
+        int progress = Campaign.progressPercentage(collectedCents, currentCampaign.getGoalCents());
+        progressIndicator.setProgress(progress);
+    }
+
+    /**
+     * Follow the counter shards while the campaign is sharded, so the total is live between roll-ups
+     */
+    private void updateShardListener(Campaign campaign) {
+        if (campaign.getShardCount() <= 1 || shardListener != null) {
+            return;
+        }
+        shardListener = FirebaseHelper.getInstance().listenToCounterShards(campaignId, (snapshot, e) -> {
+            if (snapshot == null) {
+                return;
+            }
+            shardCents = FirebaseHelper.sumCounterShards(snapshot);
+            if (currentCampaign != null) {
+                displayCollected();
+            }
+        });
+    }
+
+    private static int chipFor(CampaignViewModel.FundingWindow window) {
+        switch (window) {
+            case LAST_7_DAYS:
+                return R.id.funding_window_7_days;
+            case LAST_YEAR:
+                return R.id.funding_window_year;
+            default:
+                return R.id.funding_window_30_days;
+        }
+    }
+
+    private static CampaignViewModel.FundingWindow windowFor(int chipId) {
+        if (chipId == R.id.funding_window_7_days) {
+            return CampaignViewModel.FundingWindow.LAST_7_DAYS;
+        } else if (chipId == R.id.funding_window_year) {
+            return CampaignViewModel.FundingWindow.LAST_YEAR;
+        }
+        return CampaignViewModel.FundingWindow.LAST_30_DAYS;
+    }
+
     private void showDonationBottomSheet() {
         // Check authentication before showing bottom sheet
         if (FirebaseHelper.getInstance().getCurrentUser() == null) {
@@ -124,8 +205,9 @@ public class CampaignDetailActivity extends AppCompatActivity {
 
         // Show bottom sheet dialog
         String campaignTitle = currentCampaign != null ? currentCampaign.getTitle() : null;
+        int shardCount = currentCampaign != null ? currentCampaign.getShardCount() : 1;
         DonationBottomSheetFragment bottomSheet = 
-                DonationBottomSheetFragment.newInstance(campaignId, campaignTitle);
+                DonationBottomSheetFragment.newInstance(campaignId, campaignTitle, shardCount);
         bottomSheet.show(getSupportFragmentManager(), "DonationBottomSheet");
     }
 }
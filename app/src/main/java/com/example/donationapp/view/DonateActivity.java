@@ -11,6 +11,8 @@ import androidx.lifecycle.ViewModelProvider;
 
 import com.example.donationapp.R;
 import com.example.donationapp.model.Campaign;
+import com.example.donationapp.model.Money;
+import com.example.donationapp.repository.DonationRepository;
 import com.example.donationapp.util.DialogHelper;
 import com.example.donationapp.util.FirebaseHelper;
 import com.example.donationapp.util.Validator;
@@ -19,14 +21,14 @@ import com.google.android.material.textfield.TextInputEditText;
 import com.google.android.material.textfield.TextInputLayout;
 import com.google.firebase.auth.FirebaseUser;
 
-import java.text.NumberFormat;
-import java.util.Locale;
-
 /**
  * Donate Activity - Allows users to make donations
  */
 public class DonateActivity extends AppCompatActivity {
+    private static final String STATE_DONATION_ID = "donation_id";
     private String campaignId;
+    // Idempotency key: repeated taps on Donate record this donation at most once
+    private String donationId;
     private Campaign campaign;
     
     private TextView campaignTitleText;
@@ -37,7 +39,6 @@ public class DonateActivity extends AppCompatActivity {
     private ProgressBar progressBar;
     
     private CampaignViewModel campaignViewModel;
-    private NumberFormat currencyFormat = NumberFormat.getCurrencyInstance(Locale.US);
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -52,6 +53,11 @@ public class DonateActivity extends AppCompatActivity {
             return;
         }
 
+        donationId = savedInstanceState != null ? savedInstanceState.getString(STATE_DONATION_ID) : null;
+        if (donationId == null) {
+            donationId = FirebaseHelper.getInstance().newDonationId();
+        }
+
         // Initialize views
         campaignTitleText = findViewById(R.id.campaign_title_text);
         campaignGoalText = findViewById(R.id.campaign_goal_text);
@@ -73,6 +79,12 @@ public class DonateActivity extends AppCompatActivity {
         campaignViewModel.loadCampaign(campaignId);
     }
 
+    @Override
+    protected void onSaveInstanceState(Bundle outState) {
+        super.onSaveInstanceState(outState);
+        outState.putString(STATE_DONATION_ID, donationId);
+    }
+
     private void observeViewModel() {
         campaignViewModel.getSelectedCampaign().observe(this, campaign -> {
             if (campaign != null) {
@@ -97,7 +109,7 @@ public class DonateActivity extends AppCompatActivity {
 
     private void displayCampaignInfo(Campaign campaign) {
         campaignTitleText.setText(campaign.getTitle());
-        campaignGoalText.setText("Goal: " + currencyFormat.format(campaign.getGoalAmount()));
+        campaignGoalText.setText("Goal: " + Money.format(campaign.getGoalCents()));
     }
 
     private void processDonation() {
@@ -113,7 +125,7 @@ public class DonateActivity extends AppCompatActivity {
             return;
         }
 
-        double amount = Double.parseDouble(amountStr);
+        long amountCents = Money.parseCents(amountStr);
 
         // Get current user
         FirebaseUser currentUser = FirebaseHelper.getInstance().getCurrentUser();
@@ -122,12 +134,17 @@ public class DonateActivity extends AppCompatActivity {
             return;
         }
 
-        // Create donation using transaction
-        FirebaseHelper.getInstance().createDonation(campaignId, amount, currentUser.getUid(),
-                aVoid -> {
+        // Journal the donation on the device, then send it (right away if online)
+        int shardCount = campaign != null ? campaign.getShardCount() : 1;
+        DonationRepository.getInstance(this).donate(donationId, campaignId, shardCount, amountCents,
+                currentUser.getUid(),
+                sent -> {
                     // Success
-                    DialogHelper.showSuccessDialog(this, "Success", 
-                            "Thank you for your donation of " + currencyFormat.format(amount) + "!",
+                    String message = sent
+                            ? "Thank you for your donation of " + Money.format(amountCents) + "!"
+                            : "Your donation of " + Money.format(amountCents)
+                                    + " is saved and will be sent when you're back online.";
+                    DialogHelper.showSuccessDialog(this, "Success", message,
                             () -> {
                                 finish();
                             });
@@ -16,6 +16,7 @@ import androidx.lifecycle.ViewModelProvider;
 
 import com.example.donationapp.R;
 import com.example.donationapp.model.Campaign;
+import com.example.donationapp.model.Money;
 import com.example.donationapp.util.DialogHelper;
 import com.example.donationapp.util.FirebaseHelper;
 import com.example.donationapp.util.ImageHelper;
@@ -40,9 +41,11 @@ public class EditCampaignActivity extends AppCompatActivity {
     private TextInputLayout titleLayout;
     private TextInputLayout descriptionLayout;
     private TextInputLayout goalAmountLayout;
+    private TextInputLayout shardCountLayout;
     private TextInputEditText titleEditText;
     private TextInputEditText descriptionEditText;
     private TextInputEditText goalAmountEditText;
+    private TextInputEditText shardCountEditText;
     private Button selectImageButton;
     private Button saveButton;
     private ProgressBar progressBar;
@@ -73,10 +76,12 @@ public class EditCampaignActivity extends AppCompatActivity {
         titleLayout = findViewById(R.id.title_layout);
         descriptionLayout = findViewById(R.id.description_layout);
         goalAmountLayout = findViewById(R.id.goal_amount_layout);
+        shardCountLayout = findViewById(R.id.shard_count_layout);
         // Find child views within included layouts
         titleEditText = titleLayout.findViewById(R.id.text_input_edit_text);
         descriptionEditText = descriptionLayout.findViewById(R.id.text_input_edit_text);
         goalAmountEditText = goalAmountLayout.findViewById(R.id.text_input_edit_text);
+        shardCountEditText = shardCountLayout.findViewById(R.id.text_input_edit_text);
         // Configure input fields
         titleLayout.setHint(getString(R.string.title_label));
         titleEditText.setInputType(android.text.InputType.TYPE_CLASS_TEXT);
@@ -87,6 +92,9 @@ public class EditCampaignActivity extends AppCompatActivity {
         goalAmountLayout.setHint(getString(R.string.goal_amount_label));
         goalAmountLayout.setPrefixText("$");
         goalAmountEditText.setInputType(android.text.InputType.TYPE_CLASS_NUMBER | android.text.InputType.TYPE_NUMBER_FLAG_DECIMAL);
+        shardCountLayout.setHint(getString(R.string.shard_count_label));
+        shardCountLayout.setHelperText("Raise for campaigns receiving more than one donation per second");
+        shardCountEditText.setInputType(android.text.InputType.TYPE_CLASS_NUMBER);
         
         selectImageButton = findViewById(R.id.select_image_button);
         // Find button within included layout
@@ -155,7 +163,8 @@ public class EditCampaignActivity extends AppCompatActivity {
     private void populateForm(Campaign campaign) {
         titleEditText.setText(campaign.getTitle());
         descriptionEditText.setText(campaign.getDescription());
-        goalAmountEditText.setText(String.valueOf(campaign.getGoalAmount()));
+        goalAmountEditText.setText(Money.formatPlain(campaign.getGoalCents()));
+        shardCountEditText.setText(String.valueOf(campaign.getShardCount()));
 
         // Load image
         if (campaign.getImageUrl() != null && !campaign.getImageUrl().isEmpty()) {
@@ -208,10 +217,12 @@ public class EditCampaignActivity extends AppCompatActivity {
         titleLayout.setError(null);
         descriptionLayout.setError(null);
         goalAmountLayout.setError(null);
+        shardCountLayout.setError(null);
 
         String title = titleEditText.getText().toString().trim();
         String description = descriptionEditText.getText().toString().trim();
         String goalAmountStr = goalAmountEditText.getText().toString().trim();
+        String shardCountStr = shardCountEditText.getText().toString().trim();
 
         boolean isValid = true;
 
@@ -236,6 +247,13 @@ public class EditCampaignActivity extends AppCompatActivity {
             isValid = false;
         }
 
+        // Validate shard count
+        String shardCountError = Validator.getShardCountError(shardCountStr);
+        if (shardCountError != null) {
+            shardCountLayout.setError(shardCountError);
+            isValid = false;
+        }
+
         if (!isValid) {
             return;
         }
@@ -243,13 +261,16 @@ public class EditCampaignActivity extends AppCompatActivity {
         // Sanitize inputs
         title = Validator.sanitizeInput(title);
         description = Validator.sanitizeDescription(description);
-        double goalAmount = Double.parseDouble(goalAmountStr);
+        long goalCents = Money.parseCents(goalAmountStr);
 
         // Prepare updates
         Map<String, Object> updates = new HashMap<>();
         updates.put("title", title);
         updates.put("description", description);
-        updates.put("goalAmount", goalAmount);
+        updates.put("goalCents", goalCents);
+        updates.put("goalAmount", Money.toDouble(goalCents)); // Legacy mirror
+        // Existing shard balances stay counted; the admin roll-up drains shards beyond the new count too
+        updates.put("shardCount", Integer.parseInt(shardCountStr));
 
         // TODO: Uncomment when Firebase Storage is enabled
         // Original Firebase Storage upload code (commented out temporarily)
@@ -0,0 +1,93 @@
+package com.example.donationapp.view;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.util.AttributeSet;
+import android.view.View;
+
+import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
+
+import com.example.donationapp.R;
+
+/**
+ * Line chart of the running total raised over a time window
+ * Draws the points of a FundingSeries; the paints and path are allocated once and reused
+ * on every draw
+ */
+public class FundingChartView extends View {
+    private final Paint linePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint fillPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint axisPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Path linePath = new Path();
+    private final Path fillPath = new Path();
+    private float[] points;
+
+    public FundingChartView(Context context) {
+        this(context, null);
+    }
+
+    public FundingChartView(Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+        float density = getResources().getDisplayMetrics().density;
+        int primary = ContextCompat.getColor(context, R.color.primary);
+        linePaint.setStyle(Paint.Style.STROKE);
+        linePaint.setStrokeWidth(2 * density);
+        linePaint.setColor(primary);
+        fillPaint.setStyle(Paint.Style.FILL);
+        fillPaint.setColor(primary);
+        fillPaint.setAlpha(40);
+        axisPaint.setStrokeWidth(density);
+        axisPaint.setColor(ContextCompat.getColor(context, R.color.on_surface_variant));
+    }
+
+    /**
+     * Running totals in dollars, one per point; the array is read on each draw, so a caller
+     * that refills it calls this again to redraw
+     */
+    public void setPoints(float[] points) {
+        this.points = points;
+        invalidate();
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        float left = getPaddingLeft();
+        float top = getPaddingTop();
+        float right = getWidth() - getPaddingRight();
+        float bottom = getHeight() - getPaddingBottom();
+        canvas.drawLine(left, bottom, right, bottom, axisPaint);
+        if (points == null || points.length < 2) {
+            return;
+        }
+        float max = 0;
+        for (float point : points) {
+            max = Math.max(max, point);
+        }
+        if (max <= 0) {
+            return; // Nothing raised in this window; just the axis
+        }
+        float stepX = (right - left) / (points.length - 1);
+        float scaleY = (bottom - top) / max;
+        linePath.reset();
+        fillPath.reset();
+        fillPath.moveTo(left, bottom);
+        for (int i = 0; i < points.length; i++) {
+            float x = left + i * stepX;
+            float y = bottom - points[i] * scaleY;
+            if (i == 0) {
+                linePath.moveTo(x, y);
+            } else {
+                linePath.lineTo(x, y);
+            }
+            fillPath.lineTo(x, y);
+        }
+        fillPath.lineTo(right, bottom);
+        fillPath.close();
+        canvas.drawPath(fillPath, fillPaint);
+        canvas.drawPath(linePath, linePaint);
+    }
+}
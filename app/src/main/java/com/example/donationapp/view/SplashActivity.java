@@ -12,6 +12,8 @@ import androidx.lifecycle.ViewModelProvider;
 
 import com.example.donationapp.R;
 import com.example.donationapp.model.User;
+import com.example.donationapp.repository.CampaignRepository;
+import com.example.donationapp.repository.DonationRepository;
 import com.example.donationapp.util.FirebaseHelper;
 import com.example.donationapp.viewmodel.AuthViewModel;
 import com.google.android.material.progressindicator.CircularProgressIndicator;
@@ -44,6 +46,9 @@ public class SplashActivity extends AppCompatActivity {
             progressAnimator.start();
         }
 
+        // Read the persisted campaign feed from disk while auth and the user profile load
+        CampaignRepository.getInstance().restorePersistedFeed(getApplicationContext());
+
         authViewModel = new ViewModelProvider(this).get(AuthViewModel.class);
 
         // Check auth state first
@@ -51,6 +56,9 @@ public class SplashActivity extends AppCompatActivity {
         if (currentUser == null) {
             redirectToLogin();
         } else {
+            // Send donations journaled before the app was last closed
+            DonationRepository.getInstance(getApplicationContext()).flush();
+
             // User is authenticated, observe for user data to load
             authViewModel.getCurrentUser().observe(this, user -> {
                 if (user != null && !hasRedirected) {
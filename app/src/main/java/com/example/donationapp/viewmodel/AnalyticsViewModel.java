@@ -0,0 +1,178 @@
+package com.example.donationapp.viewmodel;
+
+import android.util.Log;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.ViewModel;
+
+import com.example.donationapp.model.Campaign;
+import com.example.donationapp.model.DonationTotals;
+import com.example.donationapp.repository.AnalyticsRepository;
+import com.example.donationapp.util.FirebaseHelper;
+import com.google.firebase.firestore.DocumentSnapshot;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ViewModel for the admin analytics screen
+ * Pages through campaigns and asks for each one's totals in the selected date range
+ */
+public class AnalyticsViewModel extends ViewModel {
+    private static final String TAG = "AnalyticsViewModel";
+    private static final int PAGE_SIZE = 50;
+
+    private final FirebaseHelper firebaseHelper = FirebaseHelper.getInstance();
+    private final AnalyticsRepository analyticsRepository = AnalyticsRepository.getInstance();
+
+    private final MutableLiveData<List<Campaign>> campaigns = new MutableLiveData<>(new ArrayList<>());
+    private final MutableLiveData<Map<String, DonationTotals>> campaignTotals = new MutableLiveData<>(new HashMap<>());
+    private final MutableLiveData<DonationTotals> overallTotals = new MutableLiveData<>();
+    private final MutableLiveData<Boolean> isLoading = new MutableLiveData<>(false);
+    private final MutableLiveData<String> errorMessage = new MutableLiveData<>();
+
+    private AnalyticsRepository.Range range = AnalyticsRepository.Range.LAST_30_DAYS;
+    private DocumentSnapshot lastPageCursor;
+    private boolean hasMoreCampaigns = true;
+    private boolean loadingPage;
+    // Bumped when the range changes so totals for the previous range are dropped
+    private int generation;
+
+    public LiveData<List<Campaign>> getCampaigns() {
+        return campaigns;
+    }
+
+    public LiveData<Map<String, DonationTotals>> getCampaignTotals() {
+        return campaignTotals;
+    }
+
+    public LiveData<DonationTotals> getOverallTotals() {
+        return overallTotals;
+    }
+
+    public LiveData<Boolean> getIsLoading() {
+        return isLoading;
+    }
+
+    public LiveData<String> getErrorMessage() {
+        return errorMessage;
+    }
+
+    public AnalyticsRepository.Range getRange() {
+        return range;
+    }
+
+    /**
+     * Load the first page of campaigns and the overall totals, unless already loaded
+     */
+    public void start() {
+        if (campaigns.getValue() == null || campaigns.getValue().isEmpty()) {
+            loadMoreCampaigns();
+            loadOverallTotals(false);
+        }
+    }
+
+    /**
+     * Show totals for another date range; cached ranges cost no reads
+     */
+    public void setRange(AnalyticsRepository.Range range) {
+        if (this.range == range) {
+            return;
+        }
+        this.range = range;
+        reloadTotals(false);
+    }
+
+    /**
+     * Re-run every visible query, bypassing the cache
+     */
+    public void refresh() {
+        reloadTotals(true);
+    }
+
+    public void loadMoreCampaigns() {
+        if (!hasMoreCampaigns || loadingPage) {
+            return;
+        }
+        loadingPage = true;
+        isLoading.setValue(true);
+        firebaseHelper.getCampaignsPage(lastPageCursor, PAGE_SIZE,
+                querySnapshot -> {
+                    List<DocumentSnapshot> documents = querySnapshot.getDocuments();
+                    List<Campaign> page = new ArrayList<>();
+                    for (DocumentSnapshot doc : documents) {
+                        Campaign campaign = Campaign.fromSnapshot(doc);
+                        if (campaign != null) {
+                            page.add(campaign);
+                        }
+                    }
+                    if (!documents.isEmpty()) {
+                        lastPageCursor = documents.get(documents.size() - 1);
+                    }
+                    hasMoreCampaigns = documents.size() >= PAGE_SIZE;
+                    List<Campaign> combined = new ArrayList<>(campaigns.getValue());
+                    combined.addAll(page);
+                    campaigns.setValue(combined);
+                    loadingPage = false;
+                    isLoading.setValue(false);
+                    for (Campaign campaign : page) {
+                        loadCampaignTotals(campaign.getId(), false);
+                    }
+                },
+                exception -> {
+                    loadingPage = false;
+                    isLoading.setValue(false);
+                    errorMessage.setValue(firebaseHelper.getFirestoreErrorMessage(exception));
+                });
+    }
+
+    private void reloadTotals(boolean forceRefresh) {
+        generation++;
+        analyticsRepository.cancelPending();
+        campaignTotals.setValue(new HashMap<>());
+        overallTotals.setValue(null);
+        loadOverallTotals(forceRefresh);
+        for (Campaign campaign : campaigns.getValue()) {
+            loadCampaignTotals(campaign.getId(), forceRefresh);
+        }
+    }
+
+    private void loadOverallTotals(boolean forceRefresh) {
+        int requestGeneration = generation;
+        analyticsRepository.loadTotals(null, range, forceRefresh,
+                totals -> {
+                    if (requestGeneration == generation) {
+                        overallTotals.setValue(totals);
+                    }
+                },
+                exception -> {
+                    Log.e(TAG, "Error loading overall totals", exception);
+                    if (requestGeneration == generation) {
+                        errorMessage.setValue(firebaseHelper.getFirestoreErrorMessage(exception));
+                    }
+                });
+    }
+
+    private void loadCampaignTotals(String campaignId, boolean forceRefresh) {
+        int requestGeneration = generation;
+        analyticsRepository.loadTotals(campaignId, range, forceRefresh,
+                totals -> {
+                    if (requestGeneration != generation) {
+                        return;
+                    }
+                    Map<String, DonationTotals> updated = new HashMap<>(campaignTotals.getValue());
+                    updated.put(campaignId, totals);
+                    campaignTotals.setValue(updated);
+                },
+                exception -> Log.e(TAG, "Error loading totals for " + campaignId, exception));
+    }
+
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        analyticsRepository.cancelPending();
+    }
+}
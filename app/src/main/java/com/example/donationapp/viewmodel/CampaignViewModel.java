@@ -9,119 +9,166 @@ import androidx.annotation.NonNull;
 import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Observer;
 
 import com.example.donationapp.model.Campaign;
+import com.example.donationapp.repository.CampaignDocumentLiveData;
+import com.example.donationapp.repository.CampaignRepository;
+import com.example.donationapp.repository.CampaignSnapshot;
+import com.example.donationapp.util.DonationBuckets;
 import com.example.donationapp.util.FirebaseHelper;
-import com.google.firebase.firestore.ListenerRegistration;
-import com.google.firebase.firestore.QuerySnapshot;
+import com.example.donationapp.util.FundingSeries;
+import com.google.firebase.firestore.DocumentSnapshot;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * ViewModel for campaign operations
  * Handles CRUD operations and real-time updates for campaigns
+ * The campaign feed itself is shared process-wide through CampaignRepository
  */
 public class CampaignViewModel extends AndroidViewModel {
     private static final String TAG = "CampaignViewModel";
+
+    /**
+     * Windows offered on the funding chart, ending with the current hour or day
+     * Each reads at most one bucket per hour or day in the window (per shard when sharded)
+     */
+    public enum FundingWindow {
+        LAST_7_DAYS(7, true),
+        LAST_30_DAYS(30, false),
+        LAST_YEAR(365, false);
+
+        private final int days;
+        private final boolean hourly;
+
+        FundingWindow(int days, boolean hourly) {
+            this.days = days;
+            this.hourly = hourly;
+        }
+    }
+
     private FirebaseHelper firebaseHelper;
-    private ListenerRegistration campaignsListener;
+    private CampaignRepository campaignRepository;
+    private boolean isListening;
     
     private MutableLiveData<List<Campaign>> campaigns = new MutableLiveData<>();
     private MutableLiveData<Campaign> selectedCampaign = new MutableLiveData<>();
+    private CampaignDocumentLiveData liveCampaign;
     private MutableLiveData<Boolean> isLoading = new MutableLiveData<>();
     private MutableLiveData<Boolean> isSearching = new MutableLiveData<>();
     private MutableLiveData<String> errorMessage = new MutableLiveData<>();
+    private final MutableLiveData<Long> deletedDonations = new MutableLiveData<>();
+    // Bumped on the main thread for every new query; searches from older generations are dropped
+    private final AtomicInteger searchGeneration = new AtomicInteger();
     private List<Campaign> allCampaigns = new ArrayList<>(); // Store all campaigns for filtering
     private String currentSearchQuery = "";
     private Handler searchHandler = new Handler(Looper.getMainLooper());
     private Runnable searchRunnable;
+    // Reused for every funding window; its points array is what fundingPoints emits
+    private final FundingSeries fundingSeries = new FundingSeries();
+    private final MutableLiveData<float[]> fundingPoints = new MutableLiveData<>();
+    private FundingWindow fundingWindow = FundingWindow.LAST_30_DAYS;
+    private int fundingGeneration;
+
+    private final Observer<CampaignSnapshot> feedObserver = this::onFeedChanged;
+    private final Observer<Exception> feedErrorObserver = error -> {
+        if (error != null) {
+            errorMessage.setValue(firebaseHelper.getFirestoreErrorMessage(error));
+            isLoading.setValue(false);
+        }
+    };
 
     public CampaignViewModel(@NonNull Application application) {
         super(application);
         firebaseHelper = FirebaseHelper.getInstance();
+        campaignRepository = CampaignRepository.getInstance();
         campaigns.setValue(new ArrayList<>());
     }
 
     @Override
     protected void onCleared() {
         super.onCleared();
-        // Remove listener when ViewModel is cleared
-        if (campaignsListener != null) {
-            campaignsListener.remove();
+        searchGeneration.incrementAndGet();
+        if (searchRunnable != null) {
+            searchHandler.removeCallbacks(searchRunnable);
         }
+        // Release our reference to the shared listener
+        stopListeningToCampaigns();
     }
 
     /**
      * Start listening to campaigns in real-time
+     * Renders immediately if another screen already holds the shared feed
      */
     public void startListeningToCampaigns() {
-        if (campaignsListener != null) {
+        if (isListening) {
             return; // Already listening
         }
+        isListening = true;
 
-        isLoading.setValue(true);
-        
-        campaignsListener = firebaseHelper.getFirestore()
-                .collection("campaigns")
-                .orderBy("createdAt", com.google.firebase.firestore.Query.Direction.DESCENDING)
-                .addSnapshotListener((snapshot, error) -> {
-                    if (error != null) {
-                        Log.e(TAG, "Error listening to campaigns", error);
-                        errorMessage.setValue(firebaseHelper.getFirestoreErrorMessage(error));
-                        isLoading.setValue(false);
-                        return;
-                    }
-
-                    if (snapshot != null) {
-                        List<Campaign> campaignList = new ArrayList<>();
-                        for (com.google.firebase.firestore.QueryDocumentSnapshot doc : snapshot) {
-                            Campaign campaign = doc.toObject(Campaign.class);
-                            campaign.setId(doc.getId());
-                            campaignList.add(campaign);
-                        }
-                        allCampaigns = campaignList;
-                        // Apply current search filter if any
-                        applySearchFilter();
-                        isLoading.setValue(false);
-                    }
-                });
+        if (campaignRepository.getFeed().getValue() == null) {
+            isLoading.setValue(true);
+        }
+        campaignRepository.getFeedErrors().observeForever(feedErrorObserver);
+        campaignRepository.getFeed().observeForever(feedObserver);
     }
 
     /**
      * Stop listening to campaigns
+     * The shared listener shuts down after a grace period once no screen observes it
      */
     public void stopListeningToCampaigns() {
-        if (campaignsListener != null) {
-            campaignsListener.remove();
-            campaignsListener = null;
+        if (!isListening) {
+            return;
+        }
+        isListening = false;
+        campaignRepository.getFeed().removeObserver(feedObserver);
+        campaignRepository.getFeedErrors().removeObserver(feedErrorObserver);
+    }
+
+    private void onFeedChanged(CampaignSnapshot snapshot) {
+        if (snapshot == null) {
+            return;
         }
+        allCampaigns = snapshot.getCampaigns();
+        // Apply current search filter if any
+        applySearchFilter();
+        isLoading.setValue(false);
     }
 
     /**
-     * Load all campaigns once (non-real-time)
+     * Load the next page of campaigns after the ones already shown
+     */
+    public void loadMoreCampaigns() {
+        campaignRepository.loadMoreCampaigns();
+    }
+
+    public boolean hasMoreCampaigns() {
+        CampaignSnapshot snapshot = campaignRepository.getFeed().getValue();
+        return snapshot == null || snapshot.hasMore();
+    }
+
+    /**
+     * Reload the first page of campaigns once (non-real-time)
+     * Served from the live feed or the local cache when they are fresh enough
      */
     public void loadCampaigns() {
+        refreshCampaigns(false);
+    }
+
+    /**
+     * Reload the first page of campaigns, bypassing the cache when forceServer is set
+     */
+    public void refreshCampaigns(boolean forceServer) {
         isLoading.setValue(true);
         errorMessage.setValue(null);
         
-        firebaseHelper.getAllCampaigns(
-                querySnapshot -> {
-                    List<Campaign> campaignList = new ArrayList<>();
-                    if (querySnapshot != null && !querySnapshot.isEmpty()) {
-                        for (com.google.firebase.firestore.QueryDocumentSnapshot doc : querySnapshot) {
-                            Campaign campaign = doc.toObject(Campaign.class);
-                            campaign.setId(doc.getId());
-                            campaignList.add(campaign);
-                        }
-                    }
-                    allCampaigns = campaignList;
-                    // Apply current search filter if any
-                    applySearchFilter();
-                    isLoading.setValue(false);
-                },
+        campaignRepository.refresh(forceServer,
+                aVoid -> isLoading.setValue(false),
                 exception -> {
                     Log.e(TAG, "Error loading campaigns", exception);
                     errorMessage.setValue(firebaseHelper.getFirestoreErrorMessage(exception));
@@ -130,13 +177,13 @@ public class CampaignViewModel extends AndroidViewModel {
     }
 
     /**
-     * Load campaign by ID
+     * Load campaign by ID, served from the shared feed when it is already in memory
      */
     public void loadCampaign(String campaignId) {
         isLoading.setValue(true);
         errorMessage.setValue(null);
         
-        firebaseHelper.getCampaign(campaignId,
+        campaignRepository.loadCampaign(campaignId,
                 campaign -> {
                     selectedCampaign.setValue(campaign);
                     isLoading.setValue(false);
@@ -148,6 +195,54 @@ public class CampaignViewModel extends AndroidViewModel {
                 });
     }
 
+    /**
+     * Observe a campaign in real-time
+     * Emits the in-memory copy first (if any), then every server update while observed
+     */
+    public LiveData<Campaign> observeCampaign(String campaignId) {
+        if (liveCampaign == null || !liveCampaign.getCampaignId().equals(campaignId)) {
+            liveCampaign = campaignRepository.observeCampaign(campaignId, exception -> {
+                Log.e(TAG, "Error observing campaign", exception);
+                errorMessage.setValue(firebaseHelper.getFirestoreErrorMessage(exception));
+            });
+        }
+        return liveCampaign;
+    }
+
+    /**
+     * Load the running total raised over a window from the campaign's donation buckets
+     */
+    public void loadFundingSeries(String campaignId, FundingWindow window) {
+        fundingWindow = window;
+        int requestGeneration = ++fundingGeneration;
+        long bucketMs = window.hourly ? DonationBuckets.HOUR_MS : DonationBuckets.DAY_MS;
+        long end = (Math.floorDiv(System.currentTimeMillis(), bucketMs) + 1) * bucketMs;
+        long start = end - window.days * DonationBuckets.DAY_MS;
+        firebaseHelper.getDonationBuckets(campaignId, window.hourly, start, end,
+                querySnapshot -> {
+                    if (requestGeneration != fundingGeneration) {
+                        return; // Another window was picked meanwhile
+                    }
+                    fundingSeries.reset(start, end);
+                    for (DocumentSnapshot doc : querySnapshot.getDocuments()) {
+                        Long cents = doc.getLong("collectedCents");
+                        if (cents != null) {
+                            fundingSeries.add(DonationBuckets.startOf(doc.getId()), cents);
+                        }
+                    }
+                    fundingPoints.setValue(fundingSeries.finish());
+                },
+                exception -> Log.e(TAG, "Error loading funding series", exception));
+    }
+
+    public LiveData<float[]> getFundingPoints() {
+        return fundingPoints;
+    }
+
+    public FundingWindow getFundingWindow() {
+        return fundingWindow;
+    }
+
     /**
      * Create new campaign
      */
@@ -186,11 +281,7 @@ public class CampaignViewModel extends AndroidViewModel {
                 aVoid -> {
                     Log.d(TAG, "Campaign updated");
                     isLoading.setValue(false);
-                    // Refresh selected campaign if it's the one being updated
-                    if (selectedCampaign.getValue() != null && 
-                        campaignId.equals(selectedCampaign.getValue().getId())) {
-                        loadCampaign(campaignId);
-                    }
+                    // Live observers (detail screen, shared feed) receive the change from their listeners
                 },
                 exception -> {
                     Log.e(TAG, "Error updating campaign", exception);
@@ -200,57 +291,37 @@ public class CampaignViewModel extends AndroidViewModel {
     }
 
     /**
-     * Delete campaign
+     * Delete a campaign with its donations, donation buckets, counter shards and image
+     * Progress is reported through getDeletedDonations(); an interrupted delete is finished
+     * the next time the admin app starts
      */
     public void deleteCampaign(String campaignId, String imageUrl) {
         isLoading.setValue(true);
         errorMessage.setValue(null);
-        
-        // TODO: Uncomment when Firebase Storage is enabled
-        // Original Firebase Storage image deletion code (commented out temporarily)
-        // // Delete image first, then campaign document
-        // firebaseHelper.deleteImage(imageUrl,
-        //         aVoid -> {
-        //             // Image deleted, now delete campaign
-        //             firebaseHelper.deleteCampaign(campaignId,
-        //                     aVoid1 -> {
-        //                         Log.d(TAG, "Campaign deleted");
-        //                         isLoading.setValue(false);
-        //                     },
-        //                     exception -> {
-        //                         Log.e(TAG, "Error deleting campaign", exception);
-        //                         errorMessage.setValue(firebaseHelper.getFirestoreErrorMessage(exception));
-        //                         isLoading.setValue(false);
-        //                     });
-        //         },
-        //         exception -> {
-        //             // Even if image deletion fails, try to delete campaign
-        //             Log.w(TAG, "Error deleting image, continuing with campaign deletion", exception);
-        //             firebaseHelper.deleteCampaign(campaignId,
-        //                     aVoid -> {
-        //                         Log.d(TAG, "Campaign deleted (image deletion failed)");
-        //                         isLoading.setValue(false);
-        //                     },
-        //                     exception1 -> {
-        //                         Log.e(TAG, "Error deleting campaign", exception1);
-        //                         errorMessage.setValue(firebaseHelper.getFirestoreErrorMessage(exception1));
-        //                         isLoading.setValue(false);
-        //                     });
-        //         });
-
-        // Temporary fallback: Delete campaign without deleting image (works without Storage)
-        firebaseHelper.deleteCampaign(campaignId,
-                aVoid -> {
-                    Log.d(TAG, "Campaign deleted (image deletion skipped - Storage disabled)");
+        deletedDonations.setValue(0L);
+
+        firebaseHelper.deleteCampaign(campaignId, imageUrl,
+                deletedDonations::setValue,
+                deleted -> {
+                    Log.d(TAG, "Campaign deleted with " + deleted + " donations");
+                    deletedDonations.setValue(null);
                     isLoading.setValue(false);
                 },
                 exception -> {
                     Log.e(TAG, "Error deleting campaign", exception);
+                    deletedDonations.setValue(null);
                     errorMessage.setValue(firebaseHelper.getFirestoreErrorMessage(exception));
                     isLoading.setValue(false);
                 });
     }
 
+    /**
+     * Donations removed so far by the running campaign delete, or null when none is running
+     */
+    public LiveData<Long> getDeletedDonations() {
+        return deletedDonations;
+    }
+
     // Getters for LiveData
     public LiveData<List<Campaign>> getCampaigns() {
         return campaigns;
@@ -268,13 +339,17 @@ public class CampaignViewModel extends AndroidViewModel {
         return errorMessage;
     }
 
+    public LiveData<Boolean> getIsLoadingMore() {
+        return campaignRepository.getIsLoadingMore();
+    }
+
     public LiveData<Boolean> getIsSearching() {
         return isSearching;
     }
 
     /**
      * Search campaigns by query string
-     * Filters campaigns by title and description
+     * Filters campaigns by title and description off the main thread
      */
     public void searchCampaigns(String query) {
         if (query == null) {
@@ -282,10 +357,11 @@ public class CampaignViewModel extends AndroidViewModel {
         }
         String newQuery = query.trim().toLowerCase();
         
-        // Cancel previous search if any
+        // Cancel previous search if any, including one already running
         if (searchRunnable != null) {
             searchHandler.removeCallbacks(searchRunnable);
         }
+        searchGeneration.incrementAndGet();
         
         // If query is empty, clear search immediately
         if (newQuery.isEmpty()) {
@@ -302,44 +378,45 @@ public class CampaignViewModel extends AndroidViewModel {
         
         currentSearchQuery = newQuery;
         
-        // Debounce search to show loader briefly
-        searchRunnable = () -> {
-            applySearchFilter();
-            isSearching.setValue(false);
-        };
-        
-        // Post with small delay to ensure loader is visible
+        // Debounce so fast typing only searches once the user pauses
+        searchRunnable = this::applySearchFilter;
         searchHandler.postDelayed(searchRunnable, 150);
     }
 
     /**
      * Apply search filter to campaigns
+     * Non-empty queries run on the repository search executor; results are only published
+     * if no newer query or snapshot arrived while they were computed
      */
     private void applySearchFilter() {
+        final int generation = searchGeneration.incrementAndGet();
         if (currentSearchQuery.isEmpty()) {
             campaigns.setValue(allCampaigns);
             return;
         }
 
-        List<Campaign> filteredCampaigns = new ArrayList<>();
-        for (Campaign campaign : allCampaigns) {
-            String title = campaign.getTitle() != null ? campaign.getTitle().toLowerCase() : "";
-            String description = campaign.getDescription() != null ? campaign.getDescription().toLowerCase() : "";
-            
-            if (title.contains(currentSearchQuery) || description.contains(currentSearchQuery)) {
-                filteredCampaigns.add(campaign);
-            }
-        }
-        campaigns.setValue(filteredCampaigns);
+        final String query = currentSearchQuery;
+        // Answer from the shared token index, bailing out as soon as a newer query arrives
+        campaignRepository.search(query, () -> generation != searchGeneration.get(),
+                results -> searchHandler.post(() -> {
+                    // Re-check on the main thread, where generations are bumped
+                    if (generation == searchGeneration.get()) {
+                        campaigns.setValue(results);
+                        isSearching.setValue(false);
+                    }
+                }));
     }
 
     /**
      * Clear search and show all campaigns
      */
     public void clearSearch() {
+        if (searchRunnable != null) {
+            searchHandler.removeCallbacks(searchRunnable);
+        }
+        searchGeneration.incrementAndGet();
         currentSearchQuery = "";
         campaigns.setValue(allCampaigns);
         isSearching.setValue(false);
     }
 }
-
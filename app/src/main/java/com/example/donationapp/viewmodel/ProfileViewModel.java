@@ -9,6 +9,7 @@ import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 
 import com.example.donationapp.model.User;
+import com.example.donationapp.model.UserStats;
 import com.example.donationapp.util.FirebaseHelper;
 
 import java.util.HashMap;
@@ -23,6 +24,7 @@ public class ProfileViewModel extends AndroidViewModel {
     private FirebaseHelper firebaseHelper;
     
     private MutableLiveData<User> userProfile = new MutableLiveData<>();
+    private MutableLiveData<UserStats> donationStats = new MutableLiveData<>();
     private MutableLiveData<Boolean> isLoading = new MutableLiveData<>();
     private MutableLiveData<String> errorMessage = new MutableLiveData<>();
     private MutableLiveData<Boolean> updateSuccess = new MutableLiveData<>(false);
@@ -51,6 +53,15 @@ public class ProfileViewModel extends AndroidViewModel {
                 });
     }
 
+    /**
+     * Load the user's lifetime donation totals (one document read)
+     */
+    public void loadDonationStats(String userId) {
+        firebaseHelper.getUserStats(userId,
+                stats -> donationStats.setValue(stats),
+                exception -> Log.e(TAG, "Error loading donation stats", exception));
+    }
+
     /**
      * Update user name
      */
@@ -153,6 +164,10 @@ public class ProfileViewModel extends AndroidViewModel {
         return userProfile;
     }
 
+    public LiveData<UserStats> getDonationStats() {
+        return donationStats;
+    }
+
     public LiveData<Boolean> getIsLoading() {
         return isLoading;
     }
@@ -0,0 +1,114 @@
+package com.example.donationapp.adapter;
+
+import com.example.donationapp.model.Campaign;
+import com.example.donationapp.model.Donation;
+import com.example.donationapp.model.Money;
+
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the adapters' diff callbacks (which rows rebind, and how much of them) and their
+ * stable item ids
+ */
+public class AdapterDiffTest {
+    private final Money.Formatter currencyFormat = new Money.Formatter();
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat("MMM dd, yyyy", Locale.US);
+
+    private CampaignRow campaignRow(String id, String title, long collectedCents) {
+        Campaign campaign = new Campaign(id, title, "Description", 100_000, "admin");
+        campaign.setCollectedCents(collectedCents);
+        return CampaignRow.from(campaign, currencyFormat);
+    }
+
+    @Test
+    public void campaignAmountChange_rebindsOnlyTheAmounts() {
+        CampaignRow before = campaignRow("c1", "Wells", 1_000);
+        CampaignRow after = campaignRow("c1", "Wells", 2_500);
+
+        assertTrue(CampaignAdapter.DIFF_CALLBACK.areItemsTheSame(before, after));
+        assertFalse(CampaignAdapter.DIFF_CALLBACK.areContentsTheSame(before, after));
+        assertEquals(CampaignAdapter.PAYLOAD_AMOUNTS, CampaignAdapter.DIFF_CALLBACK.getChangePayload(before, after));
+    }
+
+    @Test
+    public void campaignDetailChange_rebindsTheWholeRow() {
+        CampaignRow before = campaignRow("c1", "Wells", 1_000);
+        CampaignRow after = campaignRow("c1", "Clean wells", 2_500);
+
+        assertFalse(CampaignAdapter.DIFF_CALLBACK.areContentsTheSame(before, after));
+        assertNull(CampaignAdapter.DIFF_CALLBACK.getChangePayload(before, after));
+    }
+
+    @Test
+    public void unchangedCampaign_isNotRebound() {
+        CampaignRow before = campaignRow("c1", "Wells", 1_000);
+        CampaignRow after = campaignRow("c1", "Wells", 1_000);
+        CampaignRow other = campaignRow("c2", "Wells", 1_000);
+
+        assertTrue(CampaignAdapter.DIFF_CALLBACK.areContentsTheSame(before, after));
+        assertFalse(CampaignAdapter.DIFF_CALLBACK.areItemsTheSame(before, other));
+    }
+
+    @Test
+    public void shardCountChange_rebindsTheAmounts() {
+        CampaignRow before = campaignRow("c1", "Wells", 1_000);
+        before.campaign.setShardCount(1);
+        Campaign sharded = new Campaign("c1", "Wells", "Description", 100_000, "admin");
+        sharded.setCollectedCents(1_000);
+        sharded.setShardCount(4);
+        CampaignRow after = CampaignRow.from(sharded, currencyFormat);
+
+        assertFalse(CampaignAdapter.DIFF_CALLBACK.areContentsTheSame(before, after));
+        assertEquals(CampaignAdapter.PAYLOAD_AMOUNTS, CampaignAdapter.DIFF_CALLBACK.getChangePayload(before, after));
+    }
+
+    @Test
+    public void donationTitleArriving_rebindsTheRow() {
+        Donation donation = new Donation("d1", "c1", "u1", 500);
+        DonationRow before = DonationRow.from(donation, currencyFormat, dateFormat);
+        DonationRow after = DonationRow.from(donation, "Wells", currencyFormat, dateFormat);
+        DonationRow same = DonationRow.from(donation, "Wells", currencyFormat, dateFormat);
+
+        assertTrue(DonationAdapter.DIFF_CALLBACK.areItemsTheSame(before, after));
+        assertFalse(DonationAdapter.DIFF_CALLBACK.areContentsTheSame(before, after));
+        assertTrue(DonationAdapter.DIFF_CALLBACK.areContentsTheSame(after, same));
+    }
+
+    @Test
+    public void stableIds_areReleasedForRemovedRowsAndNeverReused() {
+        StableIds stableIds = new StableIds();
+        long a = stableIds.idFor("a");
+        long b = stableIds.idFor("b");
+        assertEquals(a, stableIds.idFor("a"));
+        assertNotEquals(a, b);
+
+        stableIds.retainOnly(new HashSet<>(Arrays.asList("b")));
+        assertEquals(1, stableIds.size());
+        assertEquals(b, stableIds.idFor("b"));
+        long c = stableIds.idFor("c");
+        assertNotEquals(b, c);
+        assertNotEquals(a, stableIds.idFor("a")); // A returning row gets a fresh id
+    }
+
+    @Test
+    public void stableIds_stayBoundedAcrossManySubmits() {
+        StableIds stableIds = new StableIds();
+        for (int page = 0; page < 100; page++) {
+            HashSet<String> ids = new HashSet<>();
+            for (int i = 0; i < 20; i++) {
+                String id = "c" + (page * 20 + i);
+                stableIds.idFor(id);
+                ids.add(id);
+            }
+            stableIds.retainOnly(ids);
+        }
+        assertEquals(20, stableIds.size());
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.donationapp.adapter;
+
+import com.example.donationapp.model.Campaign;
+import com.example.donationapp.model.Donation;
+import com.example.donationapp.model.Money;
+import com.google.firebase.Timestamp;
+
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests that CampaignRow and DonationRow hold every string their view holders display, so
+ * bind() only assigns them
+ */
+public class RowModelTest {
+    private final Money.Formatter currencyFormat = new Money.Formatter();
+
+    @Test
+    public void campaignRow_holdsFormattedText() {
+        Campaign campaign = new Campaign("c1", "Wells", "Clean water", 100_000, "admin");
+        campaign.setCollectedCents(25_050);
+        campaign.setImageUrl("https://example.com/w.png");
+        CampaignRow row = CampaignRow.from(campaign, currencyFormat);
+
+        assertEquals("Wells", row.title);
+        assertEquals("Clean water", row.description);
+        assertEquals("Goal: $1,000.00", row.goalText);
+        assertEquals("Collected: $250.50", row.collectedText);
+        assertEquals("25%", row.progressText);
+        assertEquals("https://example.com/w.png", row.imageUrl);
+    }
+
+    @Test
+    public void campaignRow_keepsItsTextWhenTheFormatterIsReused() {
+        // Money.Formatter reuses one StringBuilder; a row must not hold on to it
+        CampaignRow first = CampaignRow.from(new Campaign("c1", "A", "", 100_000, "admin"), currencyFormat);
+        CampaignRow.from(new Campaign("c2", "B", "", 5_000, "admin"), currencyFormat);
+
+        assertEquals("Goal: $1,000.00", first.goalText);
+        assertEquals("Collected: $0.00", first.collectedText);
+    }
+
+    @Test
+    public void campaignRow_fillsMissingFieldsAndMarksShardedTotals() {
+        Campaign campaign = new Campaign("c1", null, null, 100_000, "admin");
+        campaign.setImageUrl("");
+        campaign.setShardCount(4);
+        CampaignRow row = CampaignRow.from(campaign, currencyFormat);
+
+        assertEquals("", row.title);
+        assertEquals("", row.description);
+        assertNull(row.imageUrl);
+        assertEquals("Collected: $0.00 (updated periodically)", row.collectedText);
+    }
+
+    @Test
+    public void donationRow_holdsFormattedText() {
+        SimpleDateFormat dateFormat = new SimpleDateFormat("MMM dd, yyyy", Locale.US);
+        dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        Donation donation = new Donation("d1", "c1", "u1", 123_456);
+        donation.setDate(new Timestamp(1_700_000_000L, 0)); // 2023-11-14 UTC
+
+        DonationRow pending = DonationRow.from(donation, currencyFormat, dateFormat);
+        assertEquals("$1,234.56", pending.amountText);
+        assertEquals("Nov 14, 2023", pending.dateText);
+        assertEquals("Campaign ID: c1", pending.campaignText);
+
+        DonationRow titled = DonationRow.from(donation, "Wells", currencyFormat, dateFormat);
+        assertEquals("Wells", titled.campaignText);
+    }
+
+    @Test
+    public void donationRow_withoutDateSaysSo() {
+        SimpleDateFormat dateFormat = new SimpleDateFormat("MMM dd, yyyy", Locale.US);
+        DonationRow row = DonationRow.from(new Donation("d1", "c1", "u1", 500), currencyFormat, dateFormat);
+        assertEquals("Date not available", row.dateText);
+    }
+}
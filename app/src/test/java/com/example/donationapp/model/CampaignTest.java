@@ -0,0 +1,79 @@
+package com.example.donationapp.model;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the campaign_summaries projection helpers
+ */
+public class CampaignTest {
+
+    private static String repeat(char c, int count) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            builder.append(c);
+        }
+        return builder.toString();
+    }
+
+    @Test
+    public void previewOf_keepsShortDescriptions() {
+        assertNull(Campaign.previewOf(null));
+        assertEquals("Short", Campaign.previewOf("Short"));
+        String exact = repeat('a', Campaign.DESCRIPTION_PREVIEW_LENGTH);
+        assertEquals(exact, Campaign.previewOf(exact));
+    }
+
+    @Test
+    public void previewOf_cutsLongDescriptions() {
+        String preview = Campaign.previewOf(repeat('a', 10_000));
+        assertTrue(preview.length() <= Campaign.DESCRIPTION_PREVIEW_LENGTH);
+        assertTrue(preview.endsWith("\u2026"));
+    }
+
+    @Test
+    public void summaryMap_usesPreview() {
+        Campaign campaign = new Campaign("c1", "Title", repeat('b', 5000), 10_000, "admin");
+        Map<String, Object> summary = campaign.toSummaryMap();
+        assertEquals(Campaign.previewOf(campaign.getDescription()), summary.get("description"));
+        assertEquals("Title", summary.get("title"));
+        assertEquals(10_000L, summary.get("goalCents"));
+        assertEquals(100.0, summary.get("goalAmount"));
+    }
+
+    @Test
+    public void summaryUpdates_onlyCarrySummaryFields() {
+        Map<String, Object> updates = new HashMap<>();
+        updates.put("title", "New title");
+        updates.put("description", repeat('c', 1000));
+        updates.put("unrelated", "x");
+
+        Map<String, Object> summaryUpdates = Campaign.toSummaryUpdates(updates);
+        assertEquals(2, summaryUpdates.size());
+        assertEquals("New title", summaryUpdates.get("title"));
+        assertEquals(Campaign.previewOf(repeat('c', 1000)), summaryUpdates.get("description"));
+    }
+
+    @Test
+    public void shardCount_reachesSummaries() {
+        Campaign campaign = new Campaign("c1", "Title", "Description", 10_000, "admin");
+        assertEquals(1, campaign.toSummaryMap().get("shardCount"));
+        campaign.setShardCount(8);
+        assertEquals(8, campaign.toSummaryMap().get("shardCount"));
+
+        Map<String, Object> updates = new HashMap<>();
+        updates.put("shardCount", 16);
+        assertEquals(16, Campaign.toSummaryUpdates(updates).get("shardCount"));
+    }
+
+    @Test
+    public void progressPercentage_includesUnrolledShards() {
+        assertEquals(0, Campaign.progressPercentage(500, 0));
+        assertEquals(50, Campaign.progressPercentage(5_000, 10_000));
+        assertEquals(100, Campaign.progressPercentage(50_000, 10_000));
+    }
+}
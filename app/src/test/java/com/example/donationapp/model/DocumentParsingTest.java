@@ -0,0 +1,157 @@
+package com.example.donationapp.model;
+
+import com.google.firebase.Timestamp;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for reading Campaign, Donation and User documents from fixture maps: current documents,
+ * missing fields, legacy double amounts and null timestamps
+ */
+public class DocumentParsingTest {
+
+    /**
+     * Map-backed fields with DocumentSnapshot's conversions: any number reads as a Long or
+     * Double, a missing field or stored null reads as null
+     */
+    private static final class Fixture implements DocumentFields {
+        private final Map<String, Object> data = new HashMap<>();
+
+        Fixture put(String field, Object value) {
+            data.put(field, value);
+            return this;
+        }
+
+        @Override
+        public String getString(String field) {
+            return (String) data.get(field);
+        }
+
+        @Override
+        public Long getLong(String field) {
+            Number value = (Number) data.get(field);
+            return value != null ? value.longValue() : null;
+        }
+
+        @Override
+        public Double getDouble(String field) {
+            Number value = (Number) data.get(field);
+            return value != null ? value.doubleValue() : null;
+        }
+
+        @Override
+        public Timestamp getTimestamp(String field) {
+            return (Timestamp) data.get(field);
+        }
+    }
+
+    @Test
+    public void campaign_readsCurrentDocument() {
+        Timestamp createdAt = new Timestamp(1_792_158_300L, 0);
+        Campaign campaign = Campaign.fromFields("c1", new Fixture()
+                .put("title", "Wells")
+                .put("description", "Clean water")
+                .put("goalCents", 500_000L)
+                .put("collectedCents", 12_345L)
+                .put("imageUrl", "https://example.com/w.png")
+                .put("createdAt", createdAt)
+                .put("createdBy", "admin")
+                .put("shardCount", 4L));
+
+        assertEquals("c1", campaign.getId());
+        assertEquals("Wells", campaign.getTitle());
+        assertEquals(500_000, campaign.getGoalCents());
+        assertEquals(12_345, campaign.getCollectedCents());
+        assertEquals(createdAt, campaign.getCreatedAt());
+        assertEquals(4, campaign.getShardCount());
+    }
+
+    @Test
+    public void campaign_fallsBackToLegacyDoubleAmounts() {
+        Campaign campaign = Campaign.fromFields("c1", new Fixture()
+                .put("goalAmount", 1000.0)
+                .put("collectedAmount", 0.1 + 0.2));
+
+        assertEquals(100_000, campaign.getGoalCents());
+        assertEquals(30, campaign.getCollectedCents());
+    }
+
+    @Test
+    public void campaign_prefersCentsOverLegacyAmount() {
+        Campaign campaign = Campaign.fromFields("c1", new Fixture()
+                .put("collectedCents", 250L)
+                .put("collectedAmount", 999.0));
+
+        assertEquals(250, campaign.getCollectedCents());
+    }
+
+    @Test
+    public void campaign_defaultsMissingFields() {
+        Campaign campaign = Campaign.fromFields("c1", new Fixture().put("createdAt", null));
+
+        assertEquals("c1", campaign.getId());
+        assertNull(campaign.getTitle());
+        assertNull(campaign.getCreatedAt());
+        assertEquals(0, campaign.getGoalCents());
+        assertEquals(0, campaign.getCollectedCents());
+        assertEquals(1, campaign.getShardCount());
+    }
+
+    @Test
+    public void campaign_clampsShardCount() {
+        assertEquals(1, Campaign.fromFields("c1", new Fixture().put("shardCount", 0L)).getShardCount());
+        assertEquals(Campaign.MAX_SHARD_COUNT,
+                Campaign.fromFields("c1", new Fixture().put("shardCount", 10_000L)).getShardCount());
+    }
+
+    @Test
+    public void donation_readsCurrentAndLegacyDocuments() {
+        Timestamp date = new Timestamp(1_792_158_300L, 500);
+        Donation current = Donation.fromFields("d1", new Fixture()
+                .put("campaignId", "c1")
+                .put("userId", "u1")
+                .put("amountCents", 2_500L)
+                .put("date", date));
+        assertEquals("d1", current.getId());
+        assertEquals("c1", current.getCampaignId());
+        assertEquals("u1", current.getUserId());
+        assertEquals(2_500, current.getAmountCents());
+        assertEquals(date, current.getDate());
+
+        Donation legacy = Donation.fromFields("d2", new Fixture()
+                .put("campaignId", "c1")
+                .put("amount", 19.99)
+                .put("date", null));
+        assertEquals(1_999, legacy.getAmountCents());
+        assertNull(legacy.getDate());
+        assertNull(legacy.getUserId());
+    }
+
+    @Test
+    public void donation_withNoAmountReadsAsZero() {
+        assertEquals(0, Donation.fromFields("d1", new Fixture()).getAmountCents());
+    }
+
+    @Test
+    public void user_readsDocumentAndLeavesMissingFieldsNull() {
+        User user = User.fromFields("u1", new Fixture()
+                .put("name", "Ada")
+                .put("email", "ada@example.com")
+                .put("role", "admin"));
+        assertEquals("u1", user.getId());
+        assertEquals("Ada", user.getName());
+        assertEquals("ada@example.com", user.getEmail());
+        assertEquals("admin", user.getRole());
+        assertNull(user.getPhone());
+
+        User sparse = User.fromFields("u2", new Fixture());
+        assertEquals("u2", sparse.getId());
+        assertNull(sparse.getName());
+        assertNull(sparse.getRole());
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.donationapp.model;
+
+import org.junit.Test;
+
+import java.text.NumberFormat;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for Money parsing and formatting
+ */
+public class MoneyTest {
+    @Test
+    public void parseCents_acceptsCommonInput() {
+        assertEquals(500, Money.parseCents("5"));
+        assertEquals(1250, Money.parseCents("12.5"));
+        assertEquals(9999, Money.parseCents("99.99"));
+        assertEquals(123_456, Money.parseCents("1,234.56"));
+        assertEquals(4210, Money.parseCents(" $42.10 "));
+        assertEquals(100, Money.parseCents("1."));
+        assertEquals(5, Money.parseCents(".05"));
+        assertEquals(0, Money.parseCents("0"));
+        assertEquals(123_456_789_00L, Money.parseCents("123,456,789"));
+        assertEquals(100_000, Money.parseCents("1,000."));
+    }
+
+    @Test
+    public void parseCents_rejectsCommaAsDecimalSeparator() {
+        // Read as thousands these would donate 100x or 10x the intended amount
+        assertEquals(Money.INVALID, Money.parseCents("1,5"));
+        assertEquals(Money.INVALID, Money.parseCents("1,50"));
+        assertEquals(Money.INVALID, Money.parseCents("12,34"));
+    }
+
+    @Test
+    public void parseCents_rejectsMisplacedGroupingCommas() {
+        String[] invalid = {"1,2345", "1234,567", "1,,234", "1,234,56", "1,234,5678", "1,23.45"};
+        for (String input : invalid) {
+            assertEquals("Input: " + input, Money.INVALID, Money.parseCents(input));
+        }
+    }
+
+    @Test
+    public void parseCents_rejectsMalformedInput() {
+        String[] invalid = {null, "", "  ", "$", ".", "abc", "1.234", "-5", "+5", "1e3", "12,", ",12", "1.2.3", "5 5",
+                "99999999999999999999"};
+        for (String input : invalid) {
+            assertEquals("Input: " + input, Money.INVALID, Money.parseCents(input));
+        }
+    }
+
+    @Test
+    public void parseCents_isExactWhereDoublesDrift() {
+        // 0.1 + 0.2 != 0.3 in floating point, but cents add exactly
+        long total = 0;
+        double doubleTotal = 0;
+        for (int i = 0; i < 10_000; i++) {
+            total += Money.parseCents("0.10");
+            doubleTotal += Double.parseDouble("0.10");
+        }
+        assertEquals(100_000, total);
+        assertNotEquals(1000.0, doubleTotal, 0.0);
+    }
+
+    @Test
+    public void format_matchesNumberFormat() {
+        NumberFormat numberFormat = NumberFormat.getCurrencyInstance(Locale.US);
+        long[] samples = {0, 1, 9, 10, 99, 100, 105, 123_456, 100_000_000, 1_000_005_007L, 99_999_999_999L};
+        for (long cents : samples) {
+            assertEquals(numberFormat.format(cents / 100.0), Money.format(cents));
+        }
+        assertEquals("-$1.50", Money.format(-150));
+        assertEquals("1234.50", Money.formatPlain(123_450));
+        assertEquals("Goal: $1,000.00", new Money.Formatter().format("Goal: ", 100_000));
+    }
+
+    @Test
+    public void fromDouble_roundsToNearestCent() {
+        assertEquals(1999, Money.fromDouble(19.99));
+        assertEquals(30, Money.fromDouble(0.1 + 0.2));
+        assertEquals(123_456, Money.fromDouble(1234.56));
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.donationapp.model;
+
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for accumulating per-user donation totals
+ */
+public class UserStatsTest {
+
+    @Test
+    public void add_countsDonationsAndDistinctCampaigns() {
+        UserStats stats = new UserStats();
+        assertTrue(stats.isEmpty());
+
+        stats.add("c1", 500);
+        stats.add("c2", 1_250);
+        stats.add("c1", 99);
+
+        assertFalse(stats.isEmpty());
+        assertEquals(1_849, stats.getTotalDonatedCents());
+        assertEquals(3, stats.getDonationCount());
+        assertEquals(2, stats.getCampaignCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void incrementMap_mergesCampaignsAsKeys() {
+        UserStats stats = new UserStats();
+        stats.add("c1", 500);
+        stats.add("c2", 700);
+        stats.add("c1", 100);
+
+        Map<String, Object> map = stats.toIncrementMap();
+        Map<String, Object> campaigns = (Map<String, Object>) map.get("campaigns");
+        assertEquals(2, campaigns.size());
+        assertEquals(Boolean.TRUE, campaigns.get("c1"));
+        assertEquals(Boolean.TRUE, campaigns.get("c2"));
+        assertTrue(map.containsKey("totalDonatedCents"));
+        assertTrue(map.containsKey("donationCount"));
+    }
+}
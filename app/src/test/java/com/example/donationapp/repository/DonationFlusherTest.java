@@ -0,0 +1,307 @@
+package com.example.donationapp.repository;
+
+import com.example.donationapp.util.DonationOutbox;
+import com.google.android.gms.tasks.OnFailureListener;
+import com.google.android.gms.tasks.OnSuccessListener;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Fault injection for the donation flush: process death around the commit, rules rejections,
+ * a stale shard count, transient errors and a journal that can't record what was sent
+ */
+public class DonationFlusherTest {
+
+    private static File tempFile() throws IOException {
+        File file = File.createTempFile("donation_outbox", ".log");
+        file.deleteOnExit();
+        return file;
+    }
+
+    private static DonationFlusher flusher(DonationOutbox outbox, FakeFirestore firestore) {
+        return new DonationFlusher(outbox, firestore, Runnable::run, Runnable::run,
+                e -> e instanceof Rejected);
+    }
+
+    @Test
+    public void killedBeforeCommit_journaledDonationIsSentAfterRestart() throws IOException {
+        File file = tempFile();
+        DonationOutbox outbox = new DonationOutbox(file);
+        outbox.append("d1", "c1", 1, "u1", 500);
+        outbox.close();
+
+        DonationOutbox reopened = new DonationOutbox(file);
+        FakeFirestore firestore = new FakeFirestore();
+        Recorder recorder = new Recorder();
+        flusher(reopened, firestore).flush("u1", recorder);
+
+        assertEquals(Long.valueOf(500), firestore.donations.get("d1"));
+        assertEquals(Arrays.asList("d1"), recorder.sent);
+        assertTrue(recorder.finished);
+        assertTrue(reopened.isEmpty());
+    }
+
+    @Test
+    public void killedAfterCommit_replayIsRecognisedAsAlreadyRecorded() throws IOException {
+        File file = tempFile();
+        DonationOutbox outbox = new DonationOutbox(file);
+        outbox.append("d1", "c1", 1, "u1", 500);
+        outbox.append("d2", "c2", 1, "u1", 700);
+        FakeFirestore firestore = new FakeFirestore();
+        // The batch reaches Firestore, then the process dies before the journal records it
+        firestore.commitDonationBatch(outbox.pending(), aVoid -> { }, e -> fail());
+        outbox.close();
+
+        DonationOutbox reopened = new DonationOutbox(file);
+        Recorder recorder = new Recorder();
+        flusher(reopened, firestore).flush("u1", recorder);
+
+        assertEquals(2, firestore.donations.size());
+        assertEquals(Arrays.asList("d1", "d2"), recorder.sent);
+        assertTrue(recorder.rejected.isEmpty());
+        assertTrue(reopened.isEmpty());
+    }
+
+    @Test
+    public void rejectedDonation_isDroppedAndTheRestOfTheBatchSent() throws IOException {
+        DonationOutbox outbox = new DonationOutbox(tempFile());
+        outbox.append("d1", "c1", 1, "u1", 100);
+        outbox.append("d2", "deleted", 1, "u1", 200);
+        outbox.append("d3", "c1", 1, "u1", 300);
+        FakeFirestore firestore = new FakeFirestore();
+        firestore.forbidden.add("d2");
+        Recorder recorder = new Recorder();
+        flusher(outbox, firestore).flush("u1", recorder);
+
+        assertEquals(new HashSet<>(Arrays.asList("d1", "d3")), firestore.donations.keySet());
+        assertEquals(Arrays.asList("d1", "d3"), recorder.sent);
+        assertTrue(recorder.rejected.get("d2") instanceof Rejected);
+        assertTrue(outbox.isEmpty());
+    }
+
+    @Test
+    public void rejectedDonation_isIsolatedByBisectionAndLaterBatchesStayFull() throws IOException {
+        DonationOutbox outbox = new DonationOutbox(tempFile());
+        for (int i = 0; i < 30; i++) {
+            outbox.append("d" + i, "c" + (i % 3), 1, "u1", 100);
+        }
+        FakeFirestore firestore = new FakeFirestore();
+        firestore.forbidden.add("d0");
+        Recorder recorder = new Recorder();
+        flusher(outbox, firestore).flush("u1", recorder);
+
+        assertEquals(29, firestore.donations.size());
+        assertEquals(29, recorder.sent.size());
+        assertTrue(recorder.rejected.containsKey("d0"));
+        assertTrue(recorder.finished);
+        assertTrue(outbox.isEmpty());
+        // [d0 d1 d2] is denied and halved into [d0] and [d1 d2]; the other nine batches are full
+        assertEquals(Arrays.asList(3, 1, 2, 3, 3, 3, 3, 3, 3, 3, 3, 3), firestore.batchSizes);
+    }
+
+    @Test
+    public void shardedDonation_isSentUnshardedAfterShardCountWasLowered() throws IOException {
+        DonationOutbox outbox = new DonationOutbox(tempFile());
+        outbox.append("d1", "c1", 4, "u1", 100);
+        FakeFirestore firestore = new FakeFirestore();
+        firestore.unshardedCampaigns.add("c1");
+        Recorder recorder = new Recorder();
+        flusher(outbox, firestore).flush("u1", recorder);
+
+        assertEquals(Long.valueOf(100), firestore.donations.get("d1"));
+        assertEquals(Arrays.asList("d1"), recorder.sent);
+        assertTrue(recorder.rejected.isEmpty());
+        assertTrue(outbox.isEmpty());
+    }
+
+    @Test
+    public void transientError_keepsDonationsJournaled() throws IOException {
+        DonationOutbox outbox = new DonationOutbox(tempFile());
+        outbox.append("d1", "c1", 1, "u1", 100);
+        FakeFirestore firestore = new FakeFirestore();
+        firestore.offline = true;
+        Recorder recorder = new Recorder();
+        flusher(outbox, firestore).flush("u1", recorder);
+
+        assertEquals(1, recorder.retries);
+        assertFalse(recorder.finished);
+        assertTrue(recorder.sent.isEmpty());
+        assertEquals(1, outbox.pending().size());
+    }
+
+    @Test
+    public void existsCheckFailure_retriesLaterInsteadOfDropping() throws IOException {
+        DonationOutbox outbox = new DonationOutbox(tempFile());
+        outbox.append("d1", "c1", 1, "u1", 100);
+        FakeFirestore firestore = new FakeFirestore();
+        firestore.forbidden.add("d1");
+        firestore.existsFails = true;
+        Recorder recorder = new Recorder();
+        flusher(outbox, firestore).flush("u1", recorder);
+
+        assertEquals(1, recorder.retries);
+        assertTrue(recorder.rejected.isEmpty());
+        assertEquals(1, outbox.pending().size());
+    }
+
+    @Test
+    public void markDoneFailure_doesNotResendOnEveryFlush() throws IOException {
+        DonationOutbox outbox = new DonationOutbox(tempFile()) {
+            @Override
+            public synchronized void markDone(Collection<Entry> entries) throws IOException {
+                throw new IOException("No space left on device");
+            }
+        };
+        outbox.append("d1", "c1", 1, "u1", 100);
+        FakeFirestore firestore = new FakeFirestore();
+        DonationFlusher flusher = flusher(outbox, firestore);
+        Recorder first = new Recorder();
+        flusher.flush("u1", first);
+        assertEquals(Arrays.asList("d1"), first.sent);
+        assertTrue(first.sentAny);
+
+        // DonationRepository flushes again after any flush that sent something
+        Recorder second = new Recorder();
+        flusher.flush("u1", second);
+        assertTrue(second.finished);
+        assertFalse(second.sentAny);
+        assertEquals(1, firestore.commits);
+        assertEquals(1, outbox.pending().size()); // Replayed and recognised after a restart
+    }
+
+    @Test
+    public void otherUsersDonations_areLeftJournaled() throws IOException {
+        DonationOutbox outbox = new DonationOutbox(tempFile());
+        outbox.append("d1", "c1", 1, "u1", 100);
+        outbox.append("d2", "c1", 1, "u2", 200);
+        FakeFirestore firestore = new FakeFirestore();
+        Recorder recorder = new Recorder();
+        flusher(outbox, firestore).flush("u1", recorder);
+
+        assertEquals(new HashSet<>(Arrays.asList("d1")), firestore.donations.keySet());
+        assertEquals("d2", outbox.pending().get(0).getDonationId());
+    }
+
+    @Test
+    public void batchEnd_takesOneDonationPerCampaign() throws IOException {
+        DonationOutbox outbox = new DonationOutbox(tempFile());
+        outbox.append("d1", "c1", 1, "u1", 100);
+        outbox.append("d2", "c2", 1, "u1", 100);
+        outbox.append("d3", "c1", 1, "u1", 100);
+        outbox.append("d4", "c1", 1, "u1", 100);
+        List<DonationOutbox.Entry> pending = outbox.pending();
+
+        assertEquals(2, DonationFlusher.batchEnd(pending, 0));
+        assertEquals(3, DonationFlusher.batchEnd(pending, 2));
+        assertEquals(4, DonationFlusher.batchEnd(pending, 3));
+    }
+
+    @Test
+    public void batchEnd_stopsAtTheDonationLimit() throws IOException {
+        DonationOutbox outbox = new DonationOutbox(tempFile());
+        for (int i = 1; i <= 5; i++) {
+            outbox.append("d" + i, "c" + i, 1, "u1", 100);
+        }
+        List<DonationOutbox.Entry> pending = outbox.pending();
+
+        assertEquals(DonationFlusher.MAX_DONATIONS_PER_BATCH, DonationFlusher.batchEnd(pending, 0));
+        assertEquals(5, DonationFlusher.batchEnd(pending, 3));
+    }
+
+    /**
+     * Rules refusal: PERMISSION_DENIED and friends in the app
+     */
+    private static final class Rejected extends Exception {
+    }
+
+    /**
+     * Atomic batches; creating a donation that exists, or a forbidden one, or two donations to
+     * one campaign, is rejected
+     */
+    private static final class FakeFirestore implements DonationFlusher.Sender {
+        final Map<String, Long> donations = new LinkedHashMap<>();
+        final Set<String> forbidden = new HashSet<>();
+        // Campaigns whose shard count an admin lowered to 1: sharded writes are denied
+        final Set<String> unshardedCampaigns = new HashSet<>();
+        boolean offline;
+        boolean existsFails;
+        int commits;
+        final List<Integer> batchSizes = new ArrayList<>();
+
+        @Override
+        public void commitDonationBatch(List<DonationOutbox.Entry> batch,
+                                        OnSuccessListener<Void> onSuccess,
+                                        OnFailureListener onFailure) {
+            commits++;
+            batchSizes.add(batch.size());
+            if (offline) {
+                onFailure.onFailure(new IOException("Unavailable"));
+                return;
+            }
+            Set<String> campaigns = new HashSet<>();
+            for (DonationOutbox.Entry entry : batch) {
+                if (!campaigns.add(entry.getCampaignId()) || donations.containsKey(entry.getDonationId()) || forbidden.contains(entry.getDonationId())
+                        || (entry.getShardCount() > 1 && unshardedCampaigns.contains(entry.getCampaignId()))) {
+                    onFailure.onFailure(new Rejected());
+                    return;
+                }
+            }
+            for (DonationOutbox.Entry entry : batch) {
+                donations.put(entry.getDonationId(), entry.getAmountCents());
+            }
+            onSuccess.onSuccess(null);
+        }
+
+        @Override
+        public void donationExists(String donationId,
+                                   OnSuccessListener<Boolean> onSuccess,
+                                   OnFailureListener onFailure) {
+            if (existsFails) {
+                onFailure.onFailure(new IOException("Unavailable"));
+            } else {
+                onSuccess.onSuccess(donations.containsKey(donationId));
+            }
+        }
+    }
+
+    private static final class Recorder implements DonationFlusher.Callback {
+        final List<String> sent = new ArrayList<>();
+        final Map<String, Exception> rejected = new LinkedHashMap<>();
+        int retries;
+        boolean finished;
+        boolean sentAny;
+
+        @Override
+        public void onSettled(DonationOutbox.Entry entry, Exception rejection) {
+            if (rejection == null) {
+                sent.add(entry.getDonationId());
+            } else {
+                rejected.put(entry.getDonationId(), rejection);
+            }
+        }
+
+        @Override
+        public void onRetryLater() {
+            retries++;
+        }
+
+        @Override
+        public void onFinished(boolean sentAny) {
+            finished = true;
+            this.sentAny = sentAny;
+        }
+    }
+}
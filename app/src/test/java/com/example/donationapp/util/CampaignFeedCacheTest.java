@@ -0,0 +1,144 @@
+package com.example.donationapp.util;
+
+import com.example.donationapp.model.Campaign;
+import com.google.firebase.Timestamp;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Round-trip and corruption tests for the persisted campaign feed format
+ */
+public class CampaignFeedCacheTest {
+
+    private static File tempFile() throws IOException {
+        File file = File.createTempFile("campaign_feed", ".bin");
+        file.deleteOnExit();
+        return file;
+    }
+
+    @Test
+    public void writeThenRead_roundTripsAllFields() throws IOException {
+        Campaign full = new Campaign("c1", "Clean Water", "Wells for the village \u2013 \u00fcn\u00efcode", 500_000, "admin1");
+        full.setImageUrl("https://example.com/a.jpg");
+        full.setCollectedCents(123_456);
+        full.setCreatedAt(new Timestamp(1_700_000_000L, 123_000_000));
+        Campaign sparse = new Campaign();
+        sparse.setId("c2");
+        sparse.setCreatedBy("admin1"); // Shared string table entry
+
+        List<Campaign> campaigns = new ArrayList<>();
+        campaigns.add(full);
+        campaigns.add(sparse);
+
+        CampaignFeedCache cache = new CampaignFeedCache(tempFile());
+        cache.write(campaigns);
+        List<Campaign> restored = cache.read();
+
+        assertEquals(2, restored.size());
+        Campaign first = restored.get(0);
+        assertEquals("c1", first.getId());
+        assertEquals("Clean Water", first.getTitle());
+        assertEquals(full.getDescription(), first.getDescription());
+        assertEquals(full.getImageUrl(), first.getImageUrl());
+        assertEquals("admin1", first.getCreatedBy());
+        assertEquals(500_000, first.getGoalCents());
+        assertEquals(123_456, first.getCollectedCents());
+        assertEquals(1_700_000_000L, first.getCreatedAt().getSeconds());
+        assertEquals(123_000_000, first.getCreatedAt().getNanoseconds());
+
+        Campaign second = restored.get(1);
+        assertEquals("c2", second.getId());
+        assertNull(second.getTitle());
+        assertNull(second.getImageUrl());
+        assertNull(second.getCreatedAt());
+        assertEquals("admin1", second.getCreatedBy());
+    }
+
+    @Test
+    public void read_missingOrCorruptFile_returnsEmpty() throws IOException {
+        File file = tempFile();
+        assertTrue(file.delete());
+        assertTrue(new CampaignFeedCache(file).read().isEmpty());
+
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17});
+        }
+        assertTrue(new CampaignFeedCache(file).read().isEmpty());
+    }
+
+    @Test
+    public void read_stringRefOutsideFile_returnsEmpty() throws IOException {
+        File file = writeOne();
+        // Record 0 starts after the 16 byte header; its first int is the id's string ref
+        overwriteInt(file, 16, Integer.MAX_VALUE);
+        assertTrue(new CampaignFeedCache(file).read().isEmpty());
+
+        file = writeOne();
+        overwriteInt(file, 16, -7);
+        assertTrue(new CampaignFeedCache(file).read().isEmpty());
+    }
+
+    @Test
+    public void read_stringLengthOutsideFile_returnsEmpty() throws IOException {
+        File file = writeOne();
+        int stringTableOffset = 16 + 48;
+        overwriteInt(file, stringTableOffset, Integer.MAX_VALUE);
+        assertTrue(new CampaignFeedCache(file).read().isEmpty());
+
+        file = writeOne();
+        overwriteInt(file, stringTableOffset, -1);
+        assertTrue(new CampaignFeedCache(file).read().isEmpty());
+    }
+
+    @Test
+    public void read_truncatedStringTable_returnsEmpty() throws IOException {
+        File file = writeOne();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 3);
+        }
+        assertTrue(new CampaignFeedCache(file).read().isEmpty());
+    }
+
+    private static File writeOne() throws IOException {
+        File file = tempFile();
+        List<Campaign> campaigns = new ArrayList<>();
+        campaigns.add(new Campaign("c1", "Clean Water", "Wells", 500_000, "admin"));
+        new CampaignFeedCache(file).write(campaigns);
+        assertEquals(1, new CampaignFeedCache(file).read().size());
+        return file;
+    }
+
+    private static void overwriteInt(File file, int position, int value) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(position);
+            raf.writeInt(value);
+        }
+    }
+
+    @Test
+    public void write_replacesPreviousContents() throws IOException {
+        CampaignFeedCache cache = new CampaignFeedCache(tempFile());
+        List<Campaign> first = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            first.add(new Campaign("c" + i, "Campaign " + i, "", 10_000, "admin"));
+        }
+        cache.write(first);
+
+        List<Campaign> second = new ArrayList<>();
+        second.add(new Campaign("only", "Only one", "", 10_000, "admin"));
+        cache.write(second);
+
+        List<Campaign> restored = cache.read();
+        assertEquals(1, restored.size());
+        assertEquals("only", restored.get(0).getId());
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.donationapp.util;
+
+import com.example.donationapp.model.Campaign;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Feeds synthetic Firestore-style change sets into CampaignListModel
+ * and checks the result matches a full rebuild of the same query
+ */
+public class CampaignListModelTest {
+
+    private static Campaign campaign(String id, String title, long collectedCents) {
+        Campaign campaign = new Campaign(id, title, "", 10_000, "admin");
+        campaign.setCollectedCents(collectedCents);
+        return campaign;
+    }
+
+    private static void assertSameOrder(List<Campaign> expected, List<Campaign> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getId(), actual.get(i).getId());
+            assertEquals(expected.get(i).getCollectedCents(), actual.get(i).getCollectedCents());
+        }
+    }
+
+    @Test
+    public void addModifyRemove_matchesRebuild() {
+        CampaignListModel model = new CampaignListModel();
+        model.add("a", campaign("a", "A", 0), 0);
+        model.add("b", campaign("b", "B", 0), 0);
+        model.add("c", campaign("c", "C", 0), 2);
+        model.modify("b", campaign("b", "B", 25), 0, 0);
+        model.remove("a", 1);
+
+        List<Campaign> expected = new ArrayList<>();
+        expected.add(campaign("b", "B", 25));
+        expected.add(campaign("c", "C", 0));
+        assertSameOrder(expected, model.snapshot());
+    }
+
+    @Test
+    public void modifyWithMove_reordersItem() {
+        CampaignListModel model = new CampaignListModel();
+        model.add("a", campaign("a", "A", 0), 0);
+        model.add("b", campaign("b", "B", 0), 1);
+        model.add("c", campaign("c", "C", 0), 2);
+
+        model.modify("a", campaign("a", "A", 10), 0, 2);
+
+        assertEquals(3, model.size());
+        assertEquals(10, model.get("a").getCollectedCents());
+        assertEquals("b", model.snapshot().get(0).getId());
+        assertEquals("a", model.snapshot().get(2).getId());
+    }
+
+    @Test
+    public void randomChangeSets_matchFullRebuild() {
+        Random random = new Random(42);
+        List<Campaign> server = new ArrayList<>();
+        CampaignListModel model = new CampaignListModel();
+        int nextId = 0;
+
+        for (int batch = 0; batch < 200; batch++) {
+            int changesInBatch = 1 + random.nextInt(10);
+            for (int i = 0; i < changesInBatch; i++) {
+                int op = server.isEmpty() ? 0 : random.nextInt(3);
+                if (op == 0) {
+                    String id = "c" + (nextId++);
+                    int index = random.nextInt(server.size() + 1);
+                    Campaign created = campaign(id, id, 0);
+                    server.add(index, created);
+                    model.add(id, campaign(id, id, 0), index);
+                } else if (op == 1) {
+                    int oldIndex = random.nextInt(server.size());
+                    Campaign current = server.remove(oldIndex);
+                    int newIndex = random.nextInt(server.size() + 1);
+                    Campaign updated = campaign(current.getId(), current.getTitle(),
+                            current.getCollectedCents() + random.nextInt(50));
+                    server.add(newIndex, updated);
+                    model.modify(updated.getId(), campaign(updated.getId(), updated.getTitle(),
+                            updated.getCollectedCents()), oldIndex, newIndex);
+                } else {
+                    int oldIndex = random.nextInt(server.size());
+                    Campaign removed = server.remove(oldIndex);
+                    model.remove(removed.getId(), oldIndex);
+                }
+            }
+
+            CampaignListModel rebuilt = new CampaignListModel();
+            rebuilt.reset(server);
+            assertSameOrder(rebuilt.snapshot(), model.snapshot());
+        }
+    }
+
+    @Test
+    public void duplicateAdd_isTreatedAsModification() {
+        CampaignListModel model = new CampaignListModel();
+        model.add("a", campaign("a", "A", 0), 0);
+        model.add("a", campaign("a", "A", 5), 0);
+
+        assertEquals(1, model.size());
+        assertEquals(5, model.get("a").getCollectedCents());
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.donationapp.util;
+
+import com.example.donationapp.model.Campaign;
+import com.google.firebase.Timestamp;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for CampaignSearchIndex, plus a 50k-campaign comparison of the ids it reads against
+ * the campaigns the linear toLowerCase()/contains() scan it replaces checks
+ */
+public class CampaignSearchIndexTest {
+    private static final String[] WORDS = {
+            "water", "school", "medical", "relief", "flood", "children", "food", "shelter",
+            "clean", "books", "village", "hospital", "emergency", "winter", "clothes", "orphan",
+            "education", "well", "solar", "library", "animal", "rescue", "family", "support"
+    };
+
+    private static Campaign campaign(String id, String title, String description, long createdSeconds) {
+        Campaign campaign = new Campaign(id, title, description, 100_000, "admin");
+        campaign.setCreatedAt(new Timestamp(createdSeconds, 0));
+        return campaign;
+    }
+
+    @Test
+    public void prefixSearch_matchesTitleAndDescription() {
+        CampaignSearchIndex index = new CampaignSearchIndex();
+        index.put(campaign("1", "Clean Water", "Wells for the village", 10));
+        index.put(campaign("2", "School Books", "Library support", 20));
+
+        assertEquals(1, index.search("wat").size());
+        assertEquals("1", index.search("VILL").get(0).getId());
+        assertEquals("2", index.search("lib").get(0).getId());
+        assertTrue(index.search("hospital").isEmpty());
+    }
+
+    @Test
+    public void multiWordQuery_requiresAllWords() {
+        CampaignSearchIndex index = new CampaignSearchIndex();
+        index.put(campaign("1", "Clean Water", "Wells for the village", 10));
+        index.put(campaign("2", "Water for schools", "Books", 20));
+
+        assertEquals(2, index.search("water").size());
+        List<Campaign> results = index.search("water vill");
+        assertEquals(1, results.size());
+        assertEquals("1", results.get(0).getId());
+    }
+
+    @Test
+    public void results_areNewestFirst() {
+        CampaignSearchIndex index = new CampaignSearchIndex();
+        index.put(campaign("old", "Food drive", "", 10));
+        index.put(campaign("new", "Food bank", "", 30));
+        index.put(campaign("mid", "Food relief", "", 20));
+
+        List<Campaign> results = index.search("food");
+        assertEquals("new", results.get(0).getId());
+        assertEquals("mid", results.get(1).getId());
+        assertEquals("old", results.get(2).getId());
+    }
+
+    @Test
+    public void updateAndRemove_keepIndexInSync() {
+        CampaignSearchIndex index = new CampaignSearchIndex();
+        index.put(campaign("1", "Winter clothes", "", 10));
+        index.put(campaign("1", "Summer camp", "", 10));
+
+        assertTrue(index.search("winter").isEmpty());
+        assertEquals(1, index.search("summer").size());
+
+        index.remove("1");
+        assertTrue(index.search("summer").isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void search_50kCampaigns_readsFarFewerIdsThanLinearScan() {
+        Random random = new Random(7);
+        List<Campaign> campaigns = new ArrayList<>();
+        CampaignSearchIndex index = new CampaignSearchIndex();
+        for (int i = 0; i < 50_000; i++) {
+            StringBuilder description = new StringBuilder();
+            for (int w = 0; w < 40; w++) {
+                description.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+            }
+            String title = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                    + " " + i;
+            Campaign campaign = campaign("c" + i, title, description.toString(), i);
+            campaigns.add(campaign);
+            index.put(campaign);
+        }
+
+        // Keystrokes of a user typing a rare title token
+        String[] queries = {"4", "41", "412", "4123"};
+        long visitedBefore = index.visitedIds();
+        for (String query : queries) {
+            List<Campaign> actual = index.search(query);
+
+            // Prefix matching is stricter than substring matching
+            assertFalse(actual.isEmpty());
+            assertTrue(linearScan(campaigns, query).containsAll(actual));
+        }
+        long visited = index.visitedIds() - visitedBefore;
+        // The linear scan checks every campaign on every keystroke; the index reads the ids of
+        // the tokens starting with each prefix: 11,111 for "4" down to 11 for "4123"
+        long scanned = (long) queries.length * campaigns.size();
+        assertEquals(11_111 + 1_111 + 111 + 11, visited);
+        assertTrue(visited * 10 < scanned);
+
+        // A complete rare token only reads its own matches: "4123" and "41230".."41239"
+        visitedBefore = index.visitedIds();
+        assertEquals(11, index.search("4123").size());
+        assertEquals(11, index.visitedIds() - visitedBefore);
+    }
+
+    /**
+     * The pre-index CampaignViewModel.applySearchFilter() logic
+     */
+    private static List<Campaign> linearScan(List<Campaign> campaigns, String query) {
+        List<Campaign> filtered = new ArrayList<>();
+        for (Campaign campaign : campaigns) {
+            String title = campaign.getTitle() != null ? campaign.getTitle().toLowerCase() : "";
+            String description = campaign.getDescription() != null ? campaign.getDescription().toLowerCase() : "";
+            if (title.contains(query) || description.contains(query)) {
+                filtered.add(campaign);
+            }
+        }
+        return filtered;
+    }
+}
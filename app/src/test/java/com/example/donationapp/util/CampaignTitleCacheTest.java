@@ -0,0 +1,58 @@
+package com.example.donationapp.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the title LRU's eviction order and how donation pages are split into whereIn queries
+ */
+public class CampaignTitleCacheTest {
+
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        CampaignTitleCache cache = new CampaignTitleCache(2);
+        cache.put("a", "A");
+        cache.put("b", "B");
+        assertEquals("A", cache.get("a")); // "b" is now the eldest
+        cache.put("c", "C");
+
+        assertEquals(2, cache.size());
+        assertTrue(cache.contains("a"));
+        assertFalse(cache.contains("b"));
+        assertTrue(cache.contains("c"));
+    }
+
+    @Test
+    public void missingCampaign_isRememberedAsResolved() {
+        CampaignTitleCache cache = new CampaignTitleCache(10);
+        cache.put("deleted", null);
+
+        assertTrue(cache.contains("deleted"));
+        assertNull(cache.get("deleted"));
+        assertTrue(cache.unresolvedChunks(Arrays.asList("deleted"), 30).isEmpty());
+    }
+
+    @Test
+    public void hundredRowPage_needsOneQueryPerThirtyDistinctCampaigns() {
+        CampaignTitleCache cache = new CampaignTitleCache(500);
+        cache.put("c0", "Known");
+        List<String> rowCampaignIds = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            rowCampaignIds.add("c" + (i % 65)); // 65 distinct, one already cached
+        }
+
+        List<List<String>> chunks = cache.unresolvedChunks(rowCampaignIds, 30);
+
+        assertEquals(3, chunks.size()); // ceil(64 / 30)
+        assertEquals(30, chunks.get(0).size());
+        assertEquals(30, chunks.get(1).size());
+        assertEquals(4, chunks.get(2).size());
+        assertEquals("c1", chunks.get(0).get(0));
+        assertFalse(chunks.get(0).contains("c0"));
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.donationapp.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for bucket ids and downsampling buckets into chart points
+ */
+public class DonationBucketsTest {
+    // 2026-10-16T13:45:00Z
+    private static final long NOW = 1_792_158_300_000L;
+
+    @Test
+    public void ids_roundTripToBucketStart() {
+        String hour = DonationBuckets.hourId(NOW);
+        String day = DonationBuckets.dayId(NOW);
+
+        assertEquals(NOW - NOW % DonationBuckets.HOUR_MS, DonationBuckets.startOf(hour));
+        assertEquals(NOW - NOW % DonationBuckets.DAY_MS, DonationBuckets.startOf(day));
+        assertEquals(DonationBuckets.startOf(day),
+                DonationBuckets.startOf(DonationBuckets.shardId(day, 3, 10)));
+        assertEquals(day, DonationBuckets.shardId(day, 0, 1));
+        assertEquals(-1, DonationBuckets.startOf("0"));
+    }
+
+    @Test
+    public void ids_sortByTimeWithShardsInsideTheirBucket() {
+        String today = DonationBuckets.dayId(NOW);
+        String tomorrow = DonationBuckets.dayId(NOW + DonationBuckets.DAY_MS);
+        String shard = DonationBuckets.shardId(today, 7, 10);
+
+        assertTrue(DonationBuckets.dayId(NOW - DonationBuckets.DAY_MS).compareTo(today) < 0);
+        assertTrue(today.compareTo(shard) < 0);
+        assertTrue(shard.compareTo(tomorrow) < 0);
+    }
+
+    @Test
+    public void series_downsamplesYearOfDaysIntoRunningTotal() {
+        FundingSeries series = new FundingSeries(90);
+        long end = NOW - NOW % DonationBuckets.DAY_MS + DonationBuckets.DAY_MS;
+        long start = end - 365 * DonationBuckets.DAY_MS;
+        series.reset(start, end);
+        for (long day = start; day < end; day += DonationBuckets.DAY_MS) {
+            series.add(day, 100); // $1 a day
+        }
+        series.add(start - 1, 1_000_000); // Outside the window
+        series.add(end, 1_000_000);
+
+        float[] points = series.finish();
+        assertEquals(90, points.length);
+        assertEquals(365f, points[89], 0.001f);
+        long slotTotal = 0;
+        for (int i = 0; i < series.size(); i++) {
+            slotTotal += series.slotCents(i);
+            assertTrue(i == 0 || points[i] >= points[i - 1]);
+        }
+        assertEquals(36_500, slotTotal);
+    }
+
+    @Test
+    public void series_resetReusesArrays() {
+        FundingSeries series = new FundingSeries(10);
+        series.reset(0, 1_000);
+        series.add(500, 250);
+        float[] first = series.finish();
+        series.reset(0, 1_000);
+        float[] second = series.finish();
+
+        assertSame(first, second);
+        assertEquals(0f, second[9], 0f);
+    }
+}
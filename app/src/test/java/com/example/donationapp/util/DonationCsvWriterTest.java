@@ -0,0 +1,140 @@
+package com.example.donationapp.util;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the CSV export writer: formatting, checkpoints, resume after a torn page
+ */
+public class DonationCsvWriterTest {
+    // 2026-10-16T13:45:00Z
+    private static final long SECONDS = 1_792_158_300L;
+
+    private static File tempFile() throws IOException {
+        File file = File.createTempFile("donations", ".csv");
+        file.deleteOnExit();
+        new File(file.getPath() + ".checkpoint").deleteOnExit();
+        DonationCsvWriter.discard(file);
+        return file;
+    }
+
+    private static String read(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            byte[] bytes = new byte[(int) raf.length()];
+            raf.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    public void rows_areFormattedAndQuoted() throws IOException {
+        File file = tempFile();
+        DonationCsvWriter writer = new DonationCsvWriter(file);
+        writer.writeRow("d1", SECONDS, 0, "c1", "u1", 12_345);
+        writer.writeRow("d2", SECONDS + 60, 0, "c,\"2\"", "u\u00e9", 5);
+        writer.finish();
+        writer.close();
+
+        assertEquals(DonationCsvWriter.HEADER + "\n"
+                + "d1,2026-10-16T13:45:00Z,c1,u1,123.45\n"
+                + "d2,2026-10-16T13:46:00Z,\"c,\"\"2\"\"\",u\u00e9,0.05\n", read(file));
+        assertFalse(DonationCsvWriter.isUnfinished(file));
+    }
+
+    @Test
+    public void reopen_dropsRowsAfterLastCheckpoint() throws IOException {
+        File file = tempFile();
+        DonationCsvWriter writer = new DonationCsvWriter(file);
+        writer.writeRow("d1", SECONDS, 7, "c1", "u1", 100);
+        writer.writeRow("d2", SECONDS + 1, 8, "c1", "u1", 200);
+        writer.endPage();
+        writer.writeRow("d3", SECONDS + 2, 9, "c1", "u1", 300);
+        writer.close(); // Process death mid-page; the row may or may not have reached the file
+        assertTrue(DonationCsvWriter.isUnfinished(file));
+
+        DonationCsvWriter resumed = new DonationCsvWriter(file);
+        assertEquals(2, resumed.getRowsWritten());
+        assertTrue(resumed.hasCursor());
+        assertEquals(SECONDS + 1, resumed.getCursorSeconds());
+        assertEquals(8, resumed.getCursorNanos());
+        assertEquals("d2", resumed.getCursorDonationId());
+        resumed.writeRow("d3", SECONDS + 2, 9, "c1", "u1", 300);
+        resumed.finish();
+        resumed.close();
+
+        String csv = read(file);
+        assertEquals(1, csv.split("d3,", -1).length - 1);
+        assertTrue(csv.endsWith("d3,2026-10-16T13:45:02Z,c1,u1,3.00\n"));
+    }
+
+    @Test
+    public void undatedRows_haveEmptyDateAndUndatedCursor() throws IOException {
+        File file = tempFile();
+        DonationCsvWriter writer = new DonationCsvWriter(file);
+        writer.writeUndatedRow("d0", "c1", "u1", 700);
+        writer.endPage();
+        writer.close();
+
+        DonationCsvWriter resumed = new DonationCsvWriter(file);
+        assertTrue(resumed.hasCursor());
+        assertFalse(resumed.isCursorDated());
+        assertEquals("d0", resumed.getCursorDonationId());
+        resumed.writeRow("d1", SECONDS, 0, "c1", "u1", 100);
+        assertTrue(resumed.isCursorDated());
+        resumed.finish();
+        resumed.close();
+
+        assertEquals(DonationCsvWriter.HEADER + "\n"
+                + "d0,,c1,u1,7.00\n"
+                + "d1,2026-10-16T13:45:00Z,c1,u1,1.00\n", read(file));
+    }
+
+    @Test
+    public void newExport_hasNoCursor() throws IOException {
+        File file = tempFile();
+        DonationCsvWriter writer = new DonationCsvWriter(file);
+        assertFalse(writer.hasCursor());
+        assertEquals(0, writer.getRowsWritten());
+        assertTrue(DonationCsvWriter.isUnfinished(file));
+        writer.close();
+    }
+
+    @Test
+    public void rows_streamThroughFixedBuffer() throws IOException {
+        File file = tempFile();
+        DonationCsvWriter writer = new DonationCsvWriter(file);
+        int pages = 4;
+        int pageSize = 5_000; // About 250 KB, several buffers' worth
+        long rowBytes = "d0000000,2026-10-16T13:45:00Z,campaign,user,25.00\n".length();
+        long expected = DonationCsvWriter.HEADER.length() + 1;
+        for (int page = 0; page < pages; page++) {
+            int writes = 0;
+            long onDisk = file.length();
+            for (int i = 0; i < pageSize; i++) {
+                writer.writeRow(String.format("d%07d", page * pageSize + i), SECONDS, 0, "campaign", "user", 2_500);
+                expected += rowBytes;
+                // Rows reach the file as the buffer fills; no more than one buffer is held back
+                long length = file.length();
+                assertTrue(expected - length >= 0 && expected - length <= DonationCsvWriter.BUFFER_BYTES);
+                if (length != onDisk) {
+                    writes++;
+                    onDisk = length;
+                }
+            }
+            writer.endPage();
+            assertEquals(expected, file.length());
+            assertTrue("Writes: " + writes, writes <= rowBytes * pageSize / DonationCsvWriter.BUFFER_BYTES + 1);
+        }
+        writer.finish();
+        writer.close();
+
+        assertEquals(pages * pageSize, writer.getRowsWritten());
+        assertEquals(expected, file.length());
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.donationapp.util;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the donation journal: replay after restart, done markers, torn tails and compaction
+ */
+public class DonationOutboxTest {
+
+    private static File tempFile() throws IOException {
+        File file = File.createTempFile("donation_outbox", ".log");
+        file.deleteOnExit();
+        return file;
+    }
+
+    @Test
+    public void pendingEntries_surviveReopen() throws IOException {
+        File file = tempFile();
+        DonationOutbox outbox = new DonationOutbox(file);
+        outbox.append("d1", "c1", 1, "u1", 500);
+        outbox.append("d2", "c\u00e9", 8, "u1", 12_345);
+        outbox.close();
+
+        DonationOutbox reopened = new DonationOutbox(file);
+        List<DonationOutbox.Entry> pending = reopened.pending();
+        assertEquals(2, pending.size());
+        DonationOutbox.Entry second = pending.get(1);
+        assertEquals("d2", second.getDonationId());
+        assertEquals("c\u00e9", second.getCampaignId());
+        assertEquals(8, second.getShardCount());
+        assertEquals("u1", second.getUserId());
+        assertEquals(12_345, second.getAmountCents());
+
+        // Sequence numbers keep increasing after a restart
+        DonationOutbox.Entry third = reopened.append("d3", "c1", 1, "u1", 1);
+        assertTrue(third.getSeq() > second.getSeq());
+        reopened.close();
+    }
+
+    @Test
+    public void retriedDonationId_isJournaledOnce() throws IOException {
+        File file = tempFile();
+        DonationOutbox outbox = new DonationOutbox(file);
+        DonationOutbox.Entry first = outbox.append("d1", "c1", 1, "u1", 500);
+        DonationOutbox.Entry retry = outbox.append("d1", "c1", 1, "u1", 500);
+        assertEquals(first.getSeq(), retry.getSeq());
+        assertEquals(1, outbox.pending().size());
+        outbox.close();
+    }
+
+    @Test
+    public void doneEntries_areNotReplayed() throws IOException {
+        File file = tempFile();
+        DonationOutbox outbox = new DonationOutbox(file);
+        DonationOutbox.Entry first = outbox.append("d1", "c1", 1, "u1", 500);
+        outbox.append("d2", "c1", 1, "u1", 700);
+        outbox.markDone(Collections.singletonList(first));
+        outbox.close();
+
+        DonationOutbox reopened = new DonationOutbox(file);
+        assertEquals(1, reopened.pending().size());
+        assertEquals("d2", reopened.pending().get(0).getDonationId());
+
+        // Draining the journal empties the file
+        reopened.markDone(reopened.pending());
+        assertTrue(reopened.isEmpty());
+        assertEquals(0, reopened.sizeBytes());
+        reopened.close();
+    }
+
+    @Test
+    public void tornTail_isDroppedOnReopen() throws IOException {
+        File file = tempFile();
+        DonationOutbox outbox = new DonationOutbox(file);
+        outbox.append("d1", "c1", 1, "u1", 500);
+        outbox.append("d2", "c1", 1, "u1", 700);
+        long size = outbox.sizeBytes();
+        outbox.close();
+
+        // Crash halfway through writing the second record
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(size - 5);
+        }
+
+        DonationOutbox reopened = new DonationOutbox(file);
+        assertEquals(1, reopened.pending().size());
+        reopened.append("d3", "c1", 1, "u1", 900);
+        reopened.close();
+
+        DonationOutbox again = new DonationOutbox(file);
+        assertEquals(2, again.pending().size());
+        assertEquals("d3", again.pending().get(1).getDonationId());
+        again.close();
+    }
+
+    @Test
+    public void largeJournal_isCompacted() throws IOException {
+        File file = tempFile();
+        DonationOutbox outbox = new DonationOutbox(file);
+        DonationOutbox.Entry keep = outbox.append("keep", "c1", 1, "u1", 1);
+        for (int i = 0; i < 2_000; i++) {
+            DonationOutbox.Entry entry = outbox.append("d" + i, "c1", 1, "u1", 100);
+            outbox.markDone(Collections.singletonList(entry));
+        }
+        assertTrue(outbox.sizeBytes() < 64 * 1024);
+        outbox.close();
+
+        DonationOutbox reopened = new DonationOutbox(file);
+        assertEquals(1, reopened.pending().size());
+        assertEquals(keep.getSeq(), reopened.pending().get(0).getSeq());
+        reopened.close();
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.donationapp.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for TtlCache expiry against a fake clock
+ */
+public class TtlCacheTest {
+    private long now = 1_000;
+
+    @Test
+    public void entryExpiresAfterTtl() {
+        TtlCache<String, Long> cache = new TtlCache<>(100, () -> now);
+        cache.put("c1", 42L);
+
+        now += 99;
+        assertEquals(Long.valueOf(42), cache.get("c1"));
+        now += 1;
+        assertNull(cache.get("c1"));
+    }
+
+    @Test
+    public void putRestartsTtl() {
+        TtlCache<String, Long> cache = new TtlCache<>(100, () -> now);
+        cache.put("c1", 1L);
+        now += 80;
+        cache.put("c1", 2L);
+        now += 80;
+
+        assertEquals(Long.valueOf(2), cache.get("c1"));
+        assertNull(cache.get("missing"));
+    }
+
+    @Test
+    public void clearDropsEverything() {
+        TtlCache<String, Long> cache = new TtlCache<>(100, () -> now);
+        cache.put("c1", 1L);
+        cache.clear();
+        assertNull(cache.get("c1"));
+    }
+}
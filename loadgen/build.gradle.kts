@@ -0,0 +1,17 @@
+plugins {
+    application
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+application {
+    mainClass.set("com.example.donationapp.loadgen.LoadGenerator")
+}
+
+dependencies {
+    // JDK only (java.net.http talks to the emulator's REST API), so the module runs anywhere
+    testImplementation(libs.junit)
+}
@@ -0,0 +1,290 @@
+package com.example.donationapp.loadgen;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * FirebaseHelper.createDonation() expressed as Firestore REST writes
+ * Keep in step with the app: the Android SDK can't run on a plain JVM, so the write plan is
+ * mirrored here document for document. The emulator's owner credentials skip security rules,
+ * so the create-only donation rule is expressed as an exists=false precondition
+ */
+final class DonationWriter {
+    enum Mode {
+        // One commit: create the donation and blind-increment the totals
+        INCREMENT_BATCH,
+        // Read the campaign in a transaction and write back the new total
+        TRANSACTION
+    }
+
+    // Attempts the Android SDK makes before failing a transaction
+    private static final int MAX_TRANSACTION_ATTEMPTS = 5;
+    private static final long HOUR_MS = 60 * 60 * 1000L;
+    private static final long DAY_MS = 24 * HOUR_MS;
+
+    private final EmulatorClient client;
+    private final Mode mode;
+    private final AtomicLong transactionAborts = new AtomicLong();
+
+    DonationWriter(EmulatorClient client, Mode mode) {
+        this.client = client;
+        this.mode = mode;
+    }
+
+    /**
+     * Transaction attempts that the emulator aborted because of contention
+     */
+    long transactionAborts() {
+        return transactionAborts.get();
+    }
+
+    void donate(String donationId, String campaignId, int shardCount, long amountCents, String userId)
+            throws IOException, InterruptedException {
+        if (mode == Mode.TRANSACTION) {
+            donateWithTransaction(donationId, campaignId, amountCents, userId);
+        } else {
+            donateWithIncrement(donationId, campaignId, shardCount, amountCents, userId);
+        }
+    }
+
+    private void donateWithIncrement(String donationId, String campaignId, int shardCount,
+                                     long amountCents, String userId) throws IOException, InterruptedException {
+        String shard = shardCount > 1 ? String.valueOf(ThreadLocalRandom.current().nextInt(shardCount)) : null;
+        List<Map<String, Object>> writes = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        String[] bucketIds = bucketIds(now, shardCount);
+        writes.add(donationWrite(donationId, campaignId, shard, bucketIds, amountCents, userId));
+        writes.add(userStatsWrite(userId, campaignId, amountCents));
+        writes.addAll(bucketWrites(campaignId, now, bucketIds, donationId, amountCents));
+        if (shard != null) {
+            writes.add(shardWrite(campaignId, shard, donationId, amountCents));
+        } else {
+            writes.add(incrementWrite("campaigns/" + campaignId, amountCents));
+            writes.add(incrementWrite("campaign_summaries/" + campaignId, amountCents));
+        }
+        client.commit(writes, null);
+    }
+
+    private void donateWithTransaction(String donationId, String campaignId, long amountCents, String userId)
+            throws IOException, InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            String transaction = client.beginTransaction();
+            try {
+                if (client.get("donations/" + donationId, transaction) != null) {
+                    client.rollback(transaction);
+                    return; // Already recorded by an earlier attempt
+                }
+                Map<String, Object> campaign = client.get("campaigns/" + campaignId, transaction);
+                if (campaign == null) {
+                    client.rollback(transaction);
+                    throw new IllegalStateException("Campaign not found: " + campaignId);
+                }
+                boolean hasSummary = client.get("campaign_summaries/" + campaignId, transaction) != null;
+                long collectedCents = readCents(campaign, "collectedCents", "collectedAmount") + amountCents;
+
+                List<Map<String, Object>> writes = new ArrayList<>();
+                writes.add(totalWrite("campaigns/" + campaignId, collectedCents));
+                if (hasSummary) {
+                    writes.add(totalWrite("campaign_summaries/" + campaignId, collectedCents));
+                }
+                long now = System.currentTimeMillis();
+                String[] bucketIds = bucketIds(now, 1);
+                writes.add(donationWrite(donationId, campaignId, null, bucketIds, amountCents, userId));
+                writes.add(userStatsWrite(userId, campaignId, amountCents));
+                writes.addAll(bucketWrites(campaignId, now, bucketIds, donationId, amountCents));
+                client.commit(writes, transaction);
+                return;
+            } catch (EmulatorClient.FirestoreException e) {
+                if (!"ABORTED".equals(e.status) || attempt == MAX_TRANSACTION_ATTEMPTS) {
+                    throw e;
+                }
+                transactionAborts.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Donation.toMap(): cents plus the legacy double, server timestamp date, the counter shard
+     * the amount went to (null for the campaign total) and its hour and day buckets; never
+     * overwrites
+     */
+    private Map<String, Object> donationWrite(String donationId, String campaignId, String shard,
+                                              String[] bucketIds, long amountCents, String userId) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("id", stringValue(donationId));
+        fields.put("campaignId", stringValue(campaignId));
+        fields.put("userId", stringValue(userId));
+        fields.put("amountCents", integerValue(amountCents));
+        fields.put("amount", doubleValue(amountCents / 100.0));
+        fields.put("inUserStats", Collections.singletonMap("booleanValue", true));
+        if (shard != null) {
+            fields.put("shard", stringValue(shard));
+        }
+        fields.put("hourBucket", stringValue(bucketIds[0]));
+        fields.put("dayBucket", stringValue(bucketIds[1]));
+
+        Map<String, Object> write = new LinkedHashMap<>();
+        write.put("update", document("donations/" + donationId, fields));
+        write.put("updateTransforms", Collections.singletonList(
+                transform("date", "setToServerValue", "REQUEST_TIME")));
+        write.put("currentDocument", Collections.singletonMap("exists", false));
+        return write;
+    }
+
+    /**
+     * batch.update(ref, "collectedCents", increment(...), "collectedAmount", increment(...))
+     */
+    private Map<String, Object> incrementWrite(String path, long amountCents) {
+        Map<String, Object> write = new LinkedHashMap<>();
+        write.put("update", document(path, Collections.emptyMap()));
+        write.put("updateMask", Collections.singletonMap("fieldPaths", Collections.emptyList()));
+        write.put("updateTransforms", List.of(
+                transform("collectedCents", "increment", integerValue(amountCents)),
+                transform("collectedAmount", "increment", doubleValue(amountCents / 100.0))));
+        write.put("currentDocument", Collections.singletonMap("exists", true));
+        return write;
+    }
+
+    /**
+     * set(counter_shards/{shard}, {collectedCents: increment(...), donationId}, SetOptions.merge())
+     */
+    private Map<String, Object> shardWrite(String campaignId, String shard, String donationId, long amountCents) {
+        Map<String, Object> write = new LinkedHashMap<>();
+        write.put("update", document("campaigns/" + campaignId + "/counter_shards/" + shard,
+                Collections.singletonMap("donationId", stringValue(donationId))));
+        write.put("updateMask", Collections.singletonMap("fieldPaths", List.of("donationId")));
+        write.put("updateTransforms", List.of(
+                transform("collectedCents", "increment", integerValue(amountCents))));
+        return write;
+    }
+
+    /**
+     * batch.set(user_stats/{userId}, UserStats.incrementFor(...), SetOptions.merge())
+     */
+    private Map<String, Object> userStatsWrite(String userId, String campaignId, long amountCents) {
+        Map<String, Object> supported = Collections.singletonMap("mapValue", Collections.singletonMap("fields",
+                Collections.singletonMap(campaignId, Collections.singletonMap("booleanValue", true))));
+        Map<String, Object> write = new LinkedHashMap<>();
+        write.put("update", document("user_stats/" + userId, Collections.singletonMap("campaigns", supported)));
+        // Merge only this campaign's key into the map; backticks quote ids such as "campaign-1"
+        write.put("updateMask", Collections.singletonMap("fieldPaths",
+                List.of("campaigns.`" + campaignId + "`")));
+        write.put("updateTransforms", List.of(
+                transform("totalDonatedCents", "increment", integerValue(amountCents)),
+                transform("donationCount", "increment", integerValue(1)),
+                transform("updatedAt", "setToServerValue", "REQUEST_TIME")));
+        return write;
+    }
+
+    /**
+     * Ids of the hour and day buckets containing now, as in DonationBuckets
+     */
+    private static String[] bucketIds(long now, int shardCount) {
+        String[] ids = new String[2];
+        for (int i = 0; i < 2; i++) {
+            boolean hourly = i == 0;
+            ids[i] = String.format(Locale.ROOT, "%s_%08d", hourly ? "h" : "d",
+                    Math.floorDiv(now, hourly ? HOUR_MS : DAY_MS));
+            if (shardCount > 1) {
+                ids[i] += "_s" + ThreadLocalRandom.current().nextInt(shardCount);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * The hour and day donation_buckets increments of one donation
+     */
+    private List<Map<String, Object>> bucketWrites(String campaignId, long now, String[] bucketIds,
+                                                   String donationId, long amountCents) {
+        List<Map<String, Object>> writes = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            boolean hourly = i == 0;
+            long size = hourly ? HOUR_MS : DAY_MS;
+            long index = Math.floorDiv(now, size);
+            Map<String, Object> fields = new LinkedHashMap<>();
+            fields.put("granularity", stringValue(hourly ? "hour" : "day"));
+            fields.put("start", Collections.singletonMap("timestampValue",
+                    Instant.ofEpochMilli(index * size).toString()));
+            fields.put("donationId", stringValue(donationId));
+            Map<String, Object> write = new LinkedHashMap<>();
+            write.put("update", document("campaigns/" + campaignId + "/donation_buckets/" + bucketIds[i], fields));
+            write.put("updateMask", Collections.singletonMap("fieldPaths", List.of("granularity", "start", "donationId")));
+            write.put("updateTransforms", List.of(
+                    transform("collectedCents", "increment", integerValue(amountCents)),
+                    transform("donationCount", "increment", integerValue(1))));
+            writes.add(write);
+        }
+        return writes;
+    }
+
+    private Map<String, Object> totalWrite(String path, long collectedCents) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("collectedCents", integerValue(collectedCents));
+        fields.put("collectedAmount", doubleValue(collectedCents / 100.0));
+        Map<String, Object> write = new LinkedHashMap<>();
+        write.put("update", document(path, fields));
+        write.put("updateMask", Collections.singletonMap("fieldPaths",
+                List.of("collectedCents", "collectedAmount")));
+        write.put("currentDocument", Collections.singletonMap("exists", true));
+        return write;
+    }
+
+    private Map<String, Object> document(String path, Map<String, Object> fields) {
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("name", client.documentName(path));
+        document.put("fields", fields);
+        return document;
+    }
+
+    private static Map<String, Object> transform(String fieldPath, String kind, Object value) {
+        Map<String, Object> transform = new LinkedHashMap<>();
+        transform.put("fieldPath", fieldPath);
+        transform.put(kind, value);
+        return transform;
+    }
+
+    static Map<String, Object> stringValue(String value) {
+        return Collections.singletonMap("stringValue", value);
+    }
+
+    static Map<String, Object> integerValue(long value) {
+        // int64 travels as a JSON string
+        return Collections.singletonMap("integerValue", Long.toString(value));
+    }
+
+    static Map<String, Object> doubleValue(double value) {
+        return Collections.singletonMap("doubleValue", value);
+    }
+
+    /**
+     * Money.read(): the cents field, else the legacy double field, else 0
+     */
+    @SuppressWarnings("unchecked")
+    static long readCents(Map<String, Object> document, String centsField, String legacyField) {
+        Map<String, Object> fields = (Map<String, Object>) document.get("fields");
+        if (fields == null) {
+            return 0;
+        }
+        Map<String, Object> cents = (Map<String, Object>) fields.get(centsField);
+        if (cents != null && cents.get("integerValue") != null) {
+            return Long.parseLong(cents.get("integerValue").toString());
+        }
+        Map<String, Object> legacy = legacyField != null ? (Map<String, Object>) fields.get(legacyField) : null;
+        if (legacy != null && legacy.get("doubleValue") instanceof Number) {
+            return Math.round(((Number) legacy.get("doubleValue")).doubleValue() * 100);
+        }
+        if (legacy != null && legacy.get("integerValue") != null) {
+            return Long.parseLong(legacy.get("integerValue").toString()) * 100;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.donationapp.loadgen;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Blocking client for the Firestore emulator's REST API
+ * Authenticates as "owner", which the emulator lets through security rules
+ */
+final class EmulatorClient {
+    private final HttpClient http;
+    private final String baseUrl;
+    private final String databasePath;
+
+    EmulatorClient(String host, String projectId) {
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.baseUrl = "http://" + host;
+        this.databasePath = "projects/" + projectId + "/databases/(default)";
+    }
+
+    /**
+     * Full resource name of a document, e.g. documentName("campaigns/c1")
+     */
+    String documentName(String path) {
+        return databasePath + "/documents/" + path;
+    }
+
+    /**
+     * Apply writes atomically, inside transaction when it is not null
+     */
+    void commit(List<Map<String, Object>> writes, String transaction) throws IOException, InterruptedException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("writes", writes);
+        if (transaction != null) {
+            body.put("transaction", transaction);
+        }
+        post(databasePath + "/documents:commit", body);
+    }
+
+    String beginTransaction() throws IOException, InterruptedException {
+        return (String) post(databasePath + "/documents:beginTransaction", Collections.emptyMap()).get("transaction");
+    }
+
+    void rollback(String transaction) throws IOException, InterruptedException {
+        post(databasePath + "/documents:rollback", Collections.singletonMap("transaction", transaction));
+    }
+
+    /**
+     * Read a document, or null if it does not exist
+     */
+    Map<String, Object> get(String path, String transaction) throws IOException, InterruptedException {
+        String url = baseUrl + "/v1/" + documentName(path);
+        if (transaction != null) {
+            url += "?transaction=" + URLEncoder.encode(transaction, StandardCharsets.UTF_8);
+        }
+        HttpResponse<String> response = send(HttpRequest.newBuilder(URI.create(url)).GET());
+        if (response.statusCode() == 404) {
+            return null;
+        }
+        return checked(response);
+    }
+
+    /**
+     * One page of a collection's documents; the response holds "documents" and "nextPageToken"
+     */
+    Map<String, Object> list(String collectionPath, int pageSize, String pageToken)
+            throws IOException, InterruptedException {
+        String url = baseUrl + "/v1/" + documentName(collectionPath) + "?pageSize=" + pageSize;
+        if (pageToken != null) {
+            url += "&pageToken=" + URLEncoder.encode(pageToken, StandardCharsets.UTF_8);
+        }
+        return checked(send(HttpRequest.newBuilder(URI.create(url)).GET()));
+    }
+
+    /**
+     * Delete every document in the emulator's database
+     */
+    void clear() throws IOException, InterruptedException {
+        URI uri = URI.create(baseUrl + "/emulator/v1/" + databasePath + "/documents");
+        checked(send(HttpRequest.newBuilder(uri).DELETE()));
+    }
+
+    private Map<String, Object> post(String path, Object body) throws IOException, InterruptedException {
+        URI uri = URI.create(baseUrl + "/v1/" + path);
+        return checked(send(HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(Json.write(body)))));
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return http.send(request.header("Authorization", "Bearer owner").build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> checked(HttpResponse<String> response) {
+        String body = response.body();
+        if (response.statusCode() / 100 == 2) {
+            return body == null || body.isEmpty() ? Collections.emptyMap() : Json.parseObject(body);
+        }
+        String status = "UNKNOWN";
+        String message = body;
+        try {
+            Map<String, Object> error = (Map<String, Object>) Json.parseObject(body).get("error");
+            status = (String) error.get("status");
+            message = (String) error.get("message");
+        } catch (RuntimeException e) {
+            // Not a Firestore error body; keep the raw text
+        }
+        throw new FirestoreException(response.statusCode(), status, message);
+    }
+
+    /**
+     * Error returned by the emulator, with the gRPC status name (ABORTED, FAILED_PRECONDITION, ...)
+     */
+    static final class FirestoreException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        final int httpStatus;
+        final String status;
+
+        FirestoreException(int httpStatus, String status, String message) {
+            super(status + " (" + httpStatus + "): " + message);
+            this.httpStatus = httpStatus;
+            this.status = status;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.donationapp.loadgen;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Latency samples in nanoseconds; one recorder per donor thread, merged for the report
+ */
+final class LatencyRecorder {
+    private long[] samples = new long[1024];
+    private int size;
+
+    void record(long nanos) {
+        if (size == samples.length) {
+            samples = Arrays.copyOf(samples, size * 2);
+        }
+        samples[size++] = nanos;
+    }
+
+    int count() {
+        return size;
+    }
+
+    /**
+     * Combine recorders into one with sorted samples, ready for percentile()
+     */
+    static LatencyRecorder merge(List<LatencyRecorder> recorders) {
+        LatencyRecorder merged = new LatencyRecorder();
+        int total = 0;
+        for (LatencyRecorder recorder : recorders) {
+            total += recorder.size;
+        }
+        merged.samples = new long[Math.max(total, 1)];
+        for (LatencyRecorder recorder : recorders) {
+            System.arraycopy(recorder.samples, 0, merged.samples, merged.size, recorder.size);
+            merged.size += recorder.size;
+        }
+        Arrays.sort(merged.samples, 0, merged.size);
+        return merged;
+    }
+
+    /**
+     * Nearest-rank percentile (0 < p <= 100) of sorted samples; 0 when there are none
+     */
+    long percentile(double p) {
+        if (size == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(p / 100.0 * size - 1e-9); // 99.9% of 1000 is rank 999, not 1000
+        return samples[Math.max(0, Math.min(rank, size) - 1)];
+    }
+}
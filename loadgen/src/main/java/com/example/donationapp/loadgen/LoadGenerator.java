@@ -0,0 +1,246 @@
+package com.example.donationapp.loadgen;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drives the Firestore emulator with simulated donors using the app's donation write plan
+ *
+ * Usage: ./gradlew :loadgen:run --args="--donors=200 --rate=500 --duration=30"
+ *   --host=localhost:8080  emulator host (FIRESTORE_EMULATOR_HOST if set)
+ *   --project=demo-donation-app
+ *   --campaigns=50         campaigns seeded before the run
+ *   --zipf=1.1             campaign hotness exponent (0 = uniform)
+ *   --donors=100           concurrent donors (threads)
+ *   --rate=200             target donations per second across all donors
+ *   --duration=30          seconds
+ *   --mode=increment       increment (WriteBatch) or transaction
+ *   --shards=1             counter shards per campaign
+ *
+ * Donations are scheduled open-loop at the target rate and latency is measured from each
+ * donation's scheduled start, so a stalled emulator shows up in the tail instead of hiding it.
+ * Afterwards each campaign's collectedCents (plus its shards) and each donor's user_stats total
+ * are checked against the sum of their donation documents; the exit code is 1 if any disagree.
+ */
+public final class LoadGenerator {
+    private static final int PAGE_SIZE = 1000;
+
+    private final Map<String, String> options;
+    private final EmulatorClient client;
+    private final int campaigns;
+    private final int donors;
+    private final double rate;
+    private final int durationSeconds;
+    private final int shardCount;
+    private final DonationWriter writer;
+    private final ZipfianSampler sampler;
+
+    private final LongAdder succeeded = new LongAdder();
+    private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+
+    private LoadGenerator(Map<String, String> options) {
+        this.options = options;
+        String defaultHost = System.getenv().getOrDefault("FIRESTORE_EMULATOR_HOST", "localhost:8080");
+        client = new EmulatorClient(option("host", defaultHost), option("project", "demo-donation-app"));
+        campaigns = Integer.parseInt(option("campaigns", "50"));
+        donors = Integer.parseInt(option("donors", "100"));
+        rate = Double.parseDouble(option("rate", "200"));
+        durationSeconds = Integer.parseInt(option("duration", "30"));
+        shardCount = Integer.parseInt(option("shards", "1"));
+        DonationWriter.Mode mode = "transaction".equals(option("mode", "increment"))
+                ? DonationWriter.Mode.TRANSACTION : DonationWriter.Mode.INCREMENT_BATCH;
+        writer = new DonationWriter(client, mode);
+        sampler = new ZipfianSampler(campaigns, Double.parseDouble(option("zipf", "1.1")));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || arg.indexOf('=') < 0) {
+                System.err.println("Unrecognised argument " + arg + "; expected --name=value");
+                System.exit(2);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        LoadGenerator generator = new LoadGenerator(options);
+        generator.seed();
+        generator.run();
+        boolean consistent = generator.verify();
+        System.exit(consistent ? 0 : 1);
+    }
+
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    /**
+     * Clear the emulator and create the campaigns with their summaries
+     */
+    private void seed() throws IOException, InterruptedException {
+        client.clear();
+        List<Map<String, Object>> writes = new ArrayList<>();
+        for (int i = 0; i < campaigns; i++) {
+            Map<String, Object> fields = new LinkedHashMap<>();
+            fields.put("id", DonationWriter.stringValue(campaignId(i)));
+            fields.put("title", DonationWriter.stringValue("Load test campaign " + i));
+            fields.put("goalCents", DonationWriter.integerValue(100_000_000));
+            fields.put("goalAmount", DonationWriter.doubleValue(1_000_000.0));
+            fields.put("collectedCents", DonationWriter.integerValue(0));
+            fields.put("collectedAmount", DonationWriter.doubleValue(0));
+            fields.put("shardCount", DonationWriter.integerValue(shardCount));
+            for (String collection : new String[] {"campaigns/", "campaign_summaries/"}) {
+                Map<String, Object> document = new LinkedHashMap<>();
+                document.put("name", client.documentName(collection + campaignId(i)));
+                document.put("fields", fields);
+                writes.add(Map.of("update", document));
+            }
+            if (writes.size() >= 400) {
+                client.commit(writes, null);
+                writes = new ArrayList<>();
+            }
+        }
+        if (!writes.isEmpty()) {
+            client.commit(writes, null);
+        }
+    }
+
+    private void run() throws InterruptedException {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(durationSeconds);
+        AtomicLong nextSlot = new AtomicLong(start);
+        List<LatencyRecorder> recorders = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(donors);
+        for (int d = 0; d < donors; d++) {
+            LatencyRecorder recorder = new LatencyRecorder();
+            recorders.add(recorder);
+            String userId = "donor-" + d;
+            Random random = new Random(d);
+            pool.execute(() -> {
+                while (true) {
+                    long slot = nextSlot.getAndAdd(intervalNanos);
+                    if (slot >= end) {
+                        return;
+                    }
+                    long wait = slot - System.nanoTime();
+                    if (wait > 0) {
+                        try {
+                            TimeUnit.NANOSECONDS.sleep(wait);
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                    }
+                    donateOnce(random, userId);
+                    recorder.record(System.nanoTime() - slot);
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(durationSeconds + 300L, TimeUnit.SECONDS);
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        LatencyRecorder latency = LatencyRecorder.merge(recorders);
+        System.out.printf("Mode %s, %d donors, %d campaigns (zipf %s), %d shard(s), target %.0f/s%n",
+                option("mode", "increment"), donors, campaigns, option("zipf", "1.1"), shardCount, rate);
+        System.out.printf("Throughput: %.1f donations/s (%d ok, %d failed in %.1f s)%n",
+                succeeded.sum() / elapsedSeconds, succeeded.sum(), latency.count() - succeeded.sum(),
+                elapsedSeconds);
+        System.out.printf("Latency ms: p50 %.1f, p99 %.1f, p99.9 %.1f, max %.1f%n",
+                latency.percentile(50) / 1e6, latency.percentile(99) / 1e6,
+                latency.percentile(99.9) / 1e6, latency.percentile(100) / 1e6);
+        System.out.println("Transaction aborts: " + writer.transactionAborts());
+        failures.forEach((status, count) -> System.out.println("Failures " + status + ": " + count.sum()));
+    }
+
+    private void donateOnce(Random random, String userId) {
+        String campaignId = campaignId(sampler.sample(random));
+        long amountCents = 100 + random.nextInt(9_900);
+        String donationId = Long.toHexString(random.nextLong()) + Long.toHexString(System.nanoTime());
+        try {
+            writer.donate(donationId, campaignId, shardCount, amountCents, userId);
+            succeeded.increment();
+        } catch (EmulatorClient.FirestoreException e) {
+            failures.computeIfAbsent(e.status, status -> new LongAdder()).increment();
+        } catch (Exception e) {
+            failures.computeIfAbsent(e.getClass().getSimpleName(), status -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Compare every campaign total (plus counter shards) with the sum of its donations
+     */
+    @SuppressWarnings("unchecked")
+    private boolean verify() throws IOException, InterruptedException {
+        Map<String, Long> donated = new HashMap<>();
+        Map<String, Long> donatedByUser = new HashMap<>();
+        long donationCount = 0;
+        String pageToken = null;
+        do {
+            Map<String, Object> page = client.list("donations", PAGE_SIZE, pageToken);
+            List<Map<String, Object>> documents = (List<Map<String, Object>>) page.get("documents");
+            if (documents != null) {
+                for (Map<String, Object> donation : documents) {
+                    Map<String, Object> fields = (Map<String, Object>) donation.get("fields");
+                    String campaignId = (String) ((Map<String, Object>) fields.get("campaignId")).get("stringValue");
+                    String userId = (String) ((Map<String, Object>) fields.get("userId")).get("stringValue");
+                    long cents = DonationWriter.readCents(donation, "amountCents", "amount");
+                    donated.merge(campaignId, cents, Long::sum);
+                    donatedByUser.merge(userId, cents, Long::sum);
+                    donationCount++;
+                }
+            }
+            pageToken = (String) page.get("nextPageToken");
+        } while (pageToken != null && !pageToken.isEmpty());
+
+        int mismatches = 0;
+        for (int i = 0; i < campaigns; i++) {
+            String campaignId = campaignId(i);
+            long collected = DonationWriter.readCents(client.get("campaigns/" + campaignId, null),
+                    "collectedCents", "collectedAmount");
+            Map<String, Object> shards = client.list("campaigns/" + campaignId + "/counter_shards", PAGE_SIZE, null);
+            List<Map<String, Object>> shardDocuments = (List<Map<String, Object>>) shards.get("documents");
+            if (shardDocuments != null) {
+                for (Map<String, Object> shard : shardDocuments) {
+                    collected += DonationWriter.readCents(shard, "collectedCents", null);
+                }
+            }
+            long expected = donated.getOrDefault(campaignId, 0L);
+            if (collected != expected) {
+                mismatches++;
+                System.out.println("Mismatch " + campaignId + ": collectedCents " + collected
+                        + ", donations sum " + expected);
+            }
+        }
+        System.out.println("Consistency: " + donationCount + " donations, " + mismatches
+                + " of " + campaigns + " campaign totals disagree");
+
+        int userMismatches = 0;
+        for (Map.Entry<String, Long> user : donatedByUser.entrySet()) {
+            Map<String, Object> stats = client.get("user_stats/" + user.getKey(), null);
+            long total = stats != null ? DonationWriter.readCents(stats, "totalDonatedCents", null) : 0;
+            if (total != user.getValue()) {
+                userMismatches++;
+                System.out.println("Mismatch " + user.getKey() + ": totalDonatedCents " + total
+                        + ", donations sum " + user.getValue());
+            }
+        }
+        System.out.println("Consistency: " + userMismatches + " of " + donatedByUser.size()
+                + " donor totals disagree");
+        return mismatches == 0 && userMismatches == 0;
+    }
+
+    private static String campaignId(int index) {
+        return "campaign-" + index;
+    }
+}
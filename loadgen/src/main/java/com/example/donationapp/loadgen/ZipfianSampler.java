@@ -0,0 +1,40 @@
+package com.example.donationapp.loadgen;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Picks item k of n with probability proportional to 1 / (k + 1)^exponent
+ * Item 0 is the hottest campaign; exponent 0 is uniform, around 1 is typical of real popularity
+ */
+final class ZipfianSampler {
+    private final double[] cumulative;
+
+    ZipfianSampler(int n, double exponent) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n must be positive");
+        }
+        cumulative = new double[n];
+        double total = 0;
+        for (int k = 0; k < n; k++) {
+            total += 1.0 / Math.pow(k + 1, exponent);
+            cumulative[k] = total;
+        }
+        for (int k = 0; k < n; k++) {
+            cumulative[k] /= total;
+        }
+    }
+
+    int sample(Random random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        int item = index >= 0 ? index + 1 : -index - 1;
+        return Math.min(item, cumulative.length - 1);
+    }
+
+    /**
+     * Probability of item k
+     */
+    double probability(int k) {
+        return k == 0 ? cumulative[0] : cumulative[k] - cumulative[k - 1];
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.donationapp.loadgen;
+
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for reading emulator amounts the way Money.read() does
+ */
+public class DonationWriterTest {
+
+    @Test
+    public void readCents_prefersCentsAndFallsBackToLegacyDouble() {
+        Map<String, Object> cents = Json.parseObject(
+                "{\"fields\":{\"collectedCents\":{\"integerValue\":\"12345\"},\"collectedAmount\":{\"doubleValue\":1.5}}}");
+        assertEquals(12_345, DonationWriter.readCents(cents, "collectedCents", "collectedAmount"));
+
+        Map<String, Object> legacy = Json.parseObject("{\"fields\":{\"collectedAmount\":{\"doubleValue\":19.99}}}");
+        assertEquals(1999, DonationWriter.readCents(legacy, "collectedCents", "collectedAmount"));
+
+        Map<String, Object> empty = Json.parseObject("{\"name\":\"x\"}");
+        assertEquals(0, DonationWriter.readCents(empty, "collectedCents", "collectedAmount"));
+    }
+
+    @Test
+    public void json_roundTripsWriteBodies() {
+        String text = Json.write(Map.of("writes", java.util.List.of(Map.of("a", "q\"uote", "b", 1.5))));
+        Map<String, Object> parsed = Json.parseObject(text);
+        assertEquals(text, Json.write(parsed));
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.donationapp.loadgen;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for latency percentiles across merged donor recorders
+ */
+public class LatencyRecorderTest {
+
+    @Test
+    public void percentiles_useNearestRank() {
+        LatencyRecorder first = new LatencyRecorder();
+        LatencyRecorder second = new LatencyRecorder();
+        for (int i = 1000; i >= 1; i--) {
+            (i % 2 == 0 ? first : second).record(i);
+        }
+        LatencyRecorder merged = LatencyRecorder.merge(Arrays.asList(first, second));
+        assertEquals(1000, merged.count());
+        assertEquals(500, merged.percentile(50));
+        assertEquals(990, merged.percentile(99));
+        assertEquals(999, merged.percentile(99.9));
+        assertEquals(1000, merged.percentile(100));
+    }
+
+    @Test
+    public void emptyRecorder_reportsZero() {
+        assertEquals(0, LatencyRecorder.merge(Arrays.asList(new LatencyRecorder())).percentile(99));
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.donationapp.loadgen;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the campaign hotness distribution
+ */
+public class ZipfianSamplerTest {
+
+    @Test
+    public void frequencies_followTheDistribution() {
+        ZipfianSampler sampler = new ZipfianSampler(50, 1.1);
+        Random random = new Random(42);
+        int[] counts = new int[50];
+        int samples = 200_000;
+        for (int i = 0; i < samples; i++) {
+            counts[sampler.sample(random)]++;
+        }
+        for (int k : new int[] {0, 1, 9, 49}) {
+            double expected = sampler.probability(k) * samples;
+            assertEquals("Item " + k, expected, counts[k], Math.max(expected * 0.1, 50));
+        }
+        assertTrue(counts[0] > counts[1] && counts[1] > counts[9]);
+    }
+
+    @Test
+    public void zeroExponent_isUniform() {
+        ZipfianSampler sampler = new ZipfianSampler(4, 0);
+        for (int k = 0; k < 4; k++) {
+            assertEquals(0.25, sampler.probability(k), 1e-9);
+        }
+    }
+}
@@ -22,3 +22,4 @@ dependencyResolutionManagement {
 
 rootProject.name = "Donation App"
 include(":app")
+include(":loadgen")